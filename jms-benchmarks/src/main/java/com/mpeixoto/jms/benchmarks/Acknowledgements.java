@@ -0,0 +1,52 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import javax.jms.Session;
+
+/**
+ * Class responsible for translating the acknowledge mode parameters of the benchmarks.
+ *
+ * @author mpeixoto
+ */
+public final class Acknowledgements {
+
+  private static final int BATCH_SIZE = 100;
+
+  private Acknowledgements() {}
+
+  /**
+   * Method responsible for translating the name of an acknowledge mode.
+   *
+   * @param name AUTO_ACKNOWLEDGE or DUPS_OK_ACKNOWLEDGE
+   * @return int
+   */
+  public static int mode(String name) {
+    switch (name) {
+      case "AUTO_ACKNOWLEDGE":
+        return Session.AUTO_ACKNOWLEDGE;
+      case "DUPS_OK_ACKNOWLEDGE":
+        return Session.DUPS_OK_ACKNOWLEDGE;
+      default:
+        throw new IllegalArgumentException("Unknown acknowledge mode " + name);
+    }
+  }
+
+  /**
+   * Method responsible for applying an acknowledge strategy to the consumer settings.
+   *
+   * @param settings Type: ConsumerSettings
+   * @param name AUTO_ACKNOWLEDGE, DUPS_OK_ACKNOWLEDGE, OPTIMIZE_ACKNOWLEDGE or
+   *     CLIENT_ACKNOWLEDGE_BATCH, which acknowledges every {@value #BATCH_SIZE} messages
+   * @return ConsumerSettings
+   */
+  public static ConsumerSettings apply(ConsumerSettings settings, String name) {
+    switch (name) {
+      case "OPTIMIZE_ACKNOWLEDGE":
+        return settings.setOptimizeAcknowledge(true);
+      case "CLIENT_ACKNOWLEDGE_BATCH":
+        return settings.setAcknowledgeBatchSize(BATCH_SIZE);
+      default:
+        return settings.setAcknowledgeMode(mode(name));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.colocated.ColocatedDeployment;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for comparing the request/reply latency of the {@link ColocatedDeployment}
+ * when it talks in memory through vm:// and when it talks through a loopback tcp:// connector.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class ColocatedBenchmark {
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  private ColocatedDeployment deployment;
+  private String payload;
+
+  /**
+   * Method responsible for starting the deployment.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    MessageReceiver.setAnswer("This is a Response Message ");
+    deployment = new ColocatedDeployment(transport, false);
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping the deployment.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    deployment.close();
+  }
+
+  /**
+   * Benchmark of a request followed by its reply inside the same process.
+   *
+   * @return Reply
+   * @throws Exception It's thrown in case the request was not answered
+   */
+  @Benchmark
+  public Reply requestReply() throws Exception {
+    return deployment.request(payload).get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,100 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.common.codec.DeflateCompressor;
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for finding the payload size from which compressing the requests pays
+ * off. Every request is answered through a persistent broker over tcp, with and without deflate,
+ * and the compressed size of the payload is printed when the trial starts.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class CompressionBenchmark {
+  @Param({"none", "deflate"})
+  public String compression;
+
+  @Param({"256", "1024", "4096", "16384", "65536"})
+  public int payloadSize;
+
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private MessageSender messageSender;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("compression", true);
+    String url = broker.url("tcp");
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver = new MessageReceiver(new ConsumerSettings().setBrokerUrl(url));
+    messageReceiver.receiveMessageFromQueue();
+    DeflateCompressor compressor = new DeflateCompressor();
+    messageSender =
+        new MessageSender(
+            new SenderSettings()
+                .setBrokerUrl(url)
+                .setCompressor("deflate".equals(compression) ? compressor : null)
+                .setCompressionThreshold(0));
+    messageSender.receiveMessageFromQueue();
+    payload = Payloads.text(payloadSize);
+    System.out.println(
+        payloadSize
+            + " characters are "
+            + compressor.compress(payload.getBytes(StandardCharsets.UTF_8)).length
+            + " bytes once deflated");
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of a request followed by its reply.
+   *
+   * @return Reply
+   * @throws Exception It's thrown in case the request was not answered
+   */
+  @Benchmark
+  public Reply requestReply() throws Exception {
+    return messageSender.request(payload).get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,136 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.MapMessage;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how many requests per second the {@link MessageReceiver}
+ * consumes and answers. Every invocation publishes a batch of requests without waiting and then
+ * waits for all of their replies.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ConsumeBenchmark.BATCH)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class ConsumeBenchmark {
+  static final int BATCH = 500;
+
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  @Param({
+    "AUTO_ACKNOWLEDGE",
+    "DUPS_OK_ACKNOWLEDGE",
+    "OPTIMIZE_ACKNOWLEDGE",
+    "CLIENT_ACKNOWLEDGE_BATCH"
+  })
+  public String ackMode;
+
+  @Param({"1", "1000"})
+  public int prefetch;
+
+  @Param({"1", "4"})
+  public int consumers;
+
+  private final Semaphore replies = new Semaphore(0);
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private Connection client;
+  private Session session;
+  private MessageProducer requests;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the client that sends requests.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("consume", persistent);
+    String url = broker.url(transport);
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver =
+        new MessageReceiver(
+            Acknowledgements.apply(
+                new ConsumerSettings()
+                    .setBrokerUrl(url)
+                    .setQueuePrefetch(prefetch)
+                    .setConcurrentConsumers(consumers),
+                ackMode));
+    messageReceiver.receiveMessageFromQueue();
+
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(url);
+    connectionFactory.setUseAsyncSend(true);
+    client = connectionFactory.createConnection();
+    session = client.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    requests = session.createProducer(session.createQueue("request.message.queue"));
+    Session replySession = client.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+    replySession
+        .createConsumer(replySession.createQueue("response.message.queue"))
+        .setMessageListener(message -> replies.release());
+    client.start();
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of the requests consumed and answered by the receiver.
+   *
+   * @throws Exception It's thrown in case the requests could not be sent or were not answered
+   */
+  @Benchmark
+  public void consume() throws Exception {
+    for (int i = 0; i < BATCH; i++) {
+      MapMessage mapMessage = session.createMapMessage();
+      mapMessage.setString("Request", payload);
+      requests.send(mapMessage);
+    }
+    if (!replies.tryAcquire(BATCH, 30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The receiver did not answer every request");
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.BrokerSettings;
+import com.mpeixoto.jms.consumer.config.PersistenceProfile;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.TransportConnection;
+import org.apache.activemq.broker.TransportConnector;
+
+/**
+ * Class responsible for running the broker used by the benchmarks inside the benchmark JVM, so it
+ * can be reached through the vm:// transport or through a loopback tcp:// connector.
+ *
+ * @author mpeixoto
+ */
+public final class EmbeddedBroker implements AutoCloseable {
+  private final BrokerService brokerService;
+  private final String tcpUrl;
+  private final Path dataDirectory;
+
+  private EmbeddedBroker(BrokerService brokerService, String tcpUrl, Path dataDirectory) {
+    this.brokerService = brokerService;
+    this.tcpUrl = tcpUrl;
+    this.dataDirectory = dataDirectory;
+  }
+
+  /**
+   * Method responsible for starting a broker with a tcp connector on a free port.
+   *
+   * @param name The name of the broker, it's also the host of its vm:// URL
+   * @param persistent Whether the messages are stored in KahaDB or kept in memory
+   * @return EmbeddedBroker
+   * @throws Exception It's thrown in case the broker could not be started
+   */
+  public static EmbeddedBroker start(String name, boolean persistent) throws Exception {
+    return start(name, persistent ? PersistenceProfile.KAHADB : PersistenceProfile.MEMORY);
+  }
+
+  /**
+   * Method responsible for starting a broker with a tcp connector on a free port.
+   *
+   * @param name The name of the broker, it's also the host of its vm:// URL
+   * @param persistenceProfile How the broker stores the persistent messages
+   * @return EmbeddedBroker
+   * @throws Exception It's thrown in case the broker could not be started
+   */
+  public static EmbeddedBroker start(String name, PersistenceProfile persistenceProfile)
+      throws Exception {
+    Path dataDirectory = Files.createTempDirectory("jms-benchmarks");
+    BrokerService brokerService =
+        new BrokerSettings()
+            .setBrokerName(name)
+            .setConnectorUrl(null)
+            .setDataDirectory(dataDirectory.toString())
+            .setPersistenceProfile(persistenceProfile)
+            .createBroker();
+    brokerService.setUseJmx(false);
+    brokerService.setDeleteAllMessagesOnStartup(true);
+    TransportConnector connector = brokerService.addConnector("tcp://localhost:0");
+    brokerService.start();
+    brokerService.waitUntilStarted();
+    return new EmbeddedBroker(brokerService, connector.getConnectUri().toString(), dataDirectory);
+  }
+
+  /**
+   * Get the URL used by the clients to reach the broker.
+   *
+   * @param transport vm or tcp
+   * @return String
+   */
+  public String url(String transport) {
+    if ("vm".equals(transport)) {
+      return "vm://" + brokerService.getBrokerName() + "?create=false";
+    }
+    return tcpUrl;
+  }
+
+  /**
+   * Method responsible for closing the listening sockets of the broker, the open connections stay
+   * up. It takes up to a couple of seconds.
+   *
+   * @throws Exception It's thrown in case a socket could not be closed
+   */
+  public void stopAccepting() throws Exception {
+    for (TransportConnector connector : brokerService.getTransportConnectors()) {
+      connector.getServer().stop();
+    }
+  }
+
+  /**
+   * Method responsible for dropping every connection of the broker at once, as if it had crashed.
+   * A graceful stop keeps the connections open for seconds.
+   */
+  public void dropConnections() {
+    for (TransportConnector connector : brokerService.getTransportConnectors()) {
+      for (TransportConnection connection : connector.getConnections()) {
+        connection.stopAsync();
+      }
+    }
+  }
+
+  /**
+   * Method responsible for stopping the broker and deleting its data.
+   *
+   * @throws Exception It's thrown in case the broker could not be stopped
+   */
+  @Override
+  public void close() throws Exception {
+    brokerService.stop();
+    brokerService.waitUntilStopped();
+    try (Stream<Path> paths = Files.walk(dataDirectory)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+}
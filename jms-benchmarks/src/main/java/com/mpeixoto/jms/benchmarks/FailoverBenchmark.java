@@ -0,0 +1,98 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how long the producer and the consumer take to recover when
+ * their broker is lost. Both connect to two brokers through failover URLs. Before every invocation
+ * the first broker stops accepting connections, and the invocation drops its connections and sends
+ * requests until one is answered after the sender reconnected to the second broker.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class FailoverBenchmark {
+  @Param({"10", "100"})
+  public long initialReconnectDelayMillis;
+
+  private EmbeddedBroker first;
+  private EmbeddedBroker second;
+  private MessageReceiver messageReceiver;
+  private MessageSender messageSender;
+
+  /**
+   * Method responsible for starting both brokers, the receiver and the sender, and for checking
+   * that a request is answered through the first broker before it stops accepting connections.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Invocation)
+  public void setUp() throws Exception {
+    first = EmbeddedBroker.start("failover-first", false);
+    second = EmbeddedBroker.start("failover-second", false);
+    String[] urls = {first.url("tcp"), second.url("tcp")};
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver =
+        new MessageReceiver(
+            new ConsumerSettings()
+                .setFailoverUrls(urls)
+                .setReconnectDelays(initialReconnectDelayMillis, 1000));
+    messageReceiver.receiveMessageFromQueue();
+    messageSender =
+        new MessageSender(
+            new SenderSettings()
+                .setFailoverUrls(urls)
+                .setReconnectDelays(initialReconnectDelayMillis, 1000));
+    messageSender.request("warm up").get(10, TimeUnit.SECONDS);
+    first.stopAccepting();
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Invocation)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    first.close();
+    second.close();
+  }
+
+  /**
+   * Benchmark of the time between the loss of the first broker and the first reply once the
+   * sender is connected to the second one.
+   *
+   * @throws Exception It's thrown in case no reply was received
+   */
+  @Benchmark
+  public void recover() throws Exception {
+    first.dropConnections();
+    do {
+      messageSender.request("after failover").get(10, TimeUnit.SECONDS);
+    } while (messageSender.getReconnections() == 0);
+  }
+}
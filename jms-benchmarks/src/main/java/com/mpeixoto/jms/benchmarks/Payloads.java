@@ -0,0 +1,47 @@
+package com.mpeixoto.jms.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Class responsible for building the payloads sent by the benchmarks.
+ *
+ * @author mpeixoto
+ */
+public final class Payloads {
+
+  private Payloads() {}
+
+  /**
+   * Method responsible for building a payload with the given amount of characters.
+   *
+   * @param size The amount of characters
+   * @return String
+   */
+  public static String of(int size) {
+    char[] chars = new char[size];
+    Arrays.fill(chars, 'x');
+    return new String(chars);
+  }
+
+  /**
+   * Method responsible for building a payload of repetitive text with the given amount of
+   * characters, like the logs and reports some clients send.
+   *
+   * @param size The amount of characters
+   * @return String
+   */
+  public static String text(int size) {
+    StringBuilder text = new StringBuilder(size + 64);
+    for (int line = 0; text.length() < size; line++) {
+      text.append("line ")
+          .append(line)
+          .append(": order ")
+          .append(line * 7919 % 1000)
+          .append(" was shipped to the warehouse of customer ")
+          .append(line % 13)
+          .append('\n');
+    }
+    text.setLength(size);
+    return text.toString();
+  }
+}
@@ -0,0 +1,107 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.config.PersistenceProfile;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.TimeUnit;
+import javax.jms.DeliveryMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring what each persistence profile of the broker costs, with the
+ * topic messages and the replies sent as persistent or as non persistent.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class PersistenceBenchmark {
+  @Param({"MEMORY", "KAHADB", "KAHADB_BATCHED"})
+  public String profile;
+
+  @Param({"PERSISTENT", "NON_PERSISTENT"})
+  public String deliveryMode;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private MessageSender messageSender;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    int mode =
+        "PERSISTENT".equals(deliveryMode) ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT;
+    broker = EmbeddedBroker.start("persistence", PersistenceProfile.valueOf(profile));
+    String url = broker.url("tcp");
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver =
+        new MessageReceiver(new ConsumerSettings().setBrokerUrl(url).setReplyDeliveryMode(mode));
+    messageReceiver.receiveMessageFromQueue();
+    messageSender =
+        new MessageSender(new SenderSettings().setBrokerUrl(url).setTopicDeliveryMode(mode));
+    messageSender.receiveMessageFromQueue();
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of a persistent request followed by its reply.
+   *
+   * @return Reply
+   * @throws Exception It's thrown in case the request was not answered
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  public Reply requestReply() throws Exception {
+    return messageSender.request(payload).get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Benchmark of a synchronous send to the topic.
+   *
+   * @throws Exception It's thrown in case the message could not be sent
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void sendToTopic() throws Exception {
+    messageSender.sendMessageToATopic(payload);
+  }
+}
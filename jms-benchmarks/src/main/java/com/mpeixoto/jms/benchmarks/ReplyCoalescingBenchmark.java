@@ -0,0 +1,150 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for weighing the replies per second gained by coalescing the replies of
+ * the {@link MessageReceiver} against the latency it adds. The throughput benchmark publishes a
+ * batch of requests without waiting and then waits for all of their replies, while the latency
+ * benchmark sends a single request at a time, so its reply always waits for the batch window.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class ReplyCoalescingBenchmark {
+  static final int BATCH = 500;
+
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"1", "16", "64"})
+  public int replyBatch;
+
+  @Param({"100", "1000"})
+  public long windowMicros;
+
+  private final Semaphore replies = new Semaphore(0);
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private Connection client;
+  private Session session;
+  private MessageProducer requests;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the client that sends requests.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("coalescing", false);
+    String url = broker.url(transport);
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver =
+        new MessageReceiver(
+            new ConsumerSettings()
+                .setBrokerUrl(url)
+                .setReplyBatchSize(replyBatch)
+                .setReplyBatchWindowMicros(windowMicros));
+    messageReceiver.receiveMessageFromQueue();
+
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(url);
+    connectionFactory.setUseAsyncSend(true);
+    client = connectionFactory.createConnection();
+    session = client.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    requests = session.createProducer(session.createQueue("request.message.queue"));
+    Session replySession = client.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+    replySession
+        .createConsumer(replySession.createQueue("response.message.queue"))
+        .setMessageListener(message -> replies.release(entriesOf(message)));
+    client.start();
+    payload = Payloads.of(128);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of the requests answered per second when many requests are in flight.
+   *
+   * @throws Exception It's thrown in case the requests could not be sent or were not answered
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH)
+  public void throughput() throws Exception {
+    for (int i = 0; i < BATCH; i++) {
+      send();
+    }
+    if (!replies.tryAcquire(BATCH, 30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The receiver did not answer every request");
+    }
+  }
+
+  /**
+   * Benchmark of the round trip of a request that is alone in flight.
+   *
+   * @throws Exception It's thrown in case the request could not be sent or was not answered
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void latency() throws Exception {
+    send();
+    if (!replies.tryAcquire(1, 30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The receiver did not answer the request");
+    }
+  }
+
+  private void send() throws JMSException {
+    MapMessage mapMessage = session.createMapMessage();
+    mapMessage.setString("Request", payload);
+    requests.send(mapMessage);
+  }
+
+  private static int entriesOf(Message message) {
+    try {
+      return message.propertyExists("Entries") ? message.getIntProperty("Entries") : 1;
+    } catch (JMSException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
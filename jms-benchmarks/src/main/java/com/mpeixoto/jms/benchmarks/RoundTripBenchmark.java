@@ -0,0 +1,104 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.config.WireFormat;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring the latency between a request of the {@link MessageSender}
+ * and the reply of the {@link MessageReceiver}. The sample time mode reports the percentiles.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class RoundTripBenchmark {
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  @Param({"AUTO_ACKNOWLEDGE", "DUPS_OK_ACKNOWLEDGE"})
+  public String ackMode;
+
+  @Param({"MAP", "BINARY"})
+  public String wireFormat;
+
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private MessageSender messageSender;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("round-trip", persistent);
+    String url = broker.url(transport);
+    MessageReceiver.setAnswer("This is a Response Message ");
+    messageReceiver =
+        new MessageReceiver(
+            new ConsumerSettings()
+                .setBrokerUrl(url)
+                .setAcknowledgeMode(Acknowledgements.mode(ackMode)));
+    messageReceiver.receiveMessageFromQueue();
+    messageSender =
+        new MessageSender(
+            new SenderSettings()
+                .setBrokerUrl(url)
+                .setWireFormat(WireFormat.valueOf(wireFormat)));
+    messageSender.receiveMessageFromQueue();
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of a request followed by its reply.
+   *
+   * @return Reply
+   * @throws Exception It's thrown in case the request was not answered
+   */
+  @Benchmark
+  public Reply requestReply() throws Exception {
+    return messageSender.request(payload).get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,116 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how many messages per second the {@link MessageSender} sends
+ * to the queue and to the topic. The messages are drained by plain consumers, so the broker never
+ * blocks the sender because of a full destination.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class SendBenchmark {
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"false", "true"})
+  public boolean persistent;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  /** SYNC waits for the broker acknowledgement of every message, ASYNC uses the send window. */
+  @Param({"SYNC", "ASYNC"})
+  public String ackMode;
+
+  private EmbeddedBroker broker;
+  private Connection drain;
+  private MessageSender messageSender;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the drain consumers and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("send", persistent);
+    String url = broker.url(transport);
+    drain = new ActiveMQConnectionFactory(url).createConnection();
+    Session session = drain.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+    session.createConsumer(session.createQueue("request.message.queue")).setMessageListener(m -> {});
+    session.createConsumer(session.createTopic("topicJms")).setMessageListener(m -> {});
+    drain.start();
+    messageSender = new MessageSender(new SenderSettings().setBrokerUrl(url));
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    while (messageSender.getInFlightSends() > 0) {
+      Thread.sleep(1);
+    }
+    messageSender.close();
+    drain.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of the sends to the request queue.
+   *
+   * @throws MessageException It's thrown in case the message could not be sent
+   */
+  @Benchmark
+  public void sendToQueue() throws MessageException {
+    if ("ASYNC".equals(ackMode)) {
+      messageSender.sendMessageToAQueueAsync(payload);
+    } else {
+      messageSender.sendMessageToAQueue(payload);
+    }
+  }
+
+  /**
+   * Benchmark of the sends to the topic.
+   *
+   * @throws MessageException It's thrown in case the message could not be sent
+   */
+  @Benchmark
+  public void sendToTopic() throws MessageException {
+    if ("ASYNC".equals(ackMode)) {
+      messageSender.sendMessageToATopicAsync(payload);
+    } else {
+      messageSender.sendMessageToATopic(payload);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.jms.Connection;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how many messages per second the {@link MessageSender} takes
+ * with a spool. DIRECT sends without a spool, SPOOL has a spool and a running broker, and
+ * BROKER_DOWN stops the broker once the sender is created, so every message is written to the
+ * spool. The broker runs with a tcp connector, the vm transport would start a new broker.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class SpoolBenchmark {
+  @Param({"DIRECT", "SPOOL", "BROKER_DOWN"})
+  public String mode;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  private EmbeddedBroker broker;
+  private Connection drain;
+  private MessageSender messageSender;
+  private Path spoolDirectory;
+  private String payload;
+
+  /**
+   * Method responsible for starting the broker, the drain consumer and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("spool", false);
+    String url = broker.url("tcp");
+    drain = new ActiveMQConnectionFactory(url).createConnection();
+    Session session = drain.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+    session
+        .createConsumer(session.createQueue("request.message.queue"))
+        .setMessageListener(m -> {});
+    drain.start();
+    SenderSettings settings = new SenderSettings().setBrokerUrl(url);
+    if (!"DIRECT".equals(mode)) {
+      spoolDirectory = Files.createTempDirectory("jms-spool");
+      settings.setSpoolDirectory(spoolDirectory.toString());
+    }
+    messageSender = new MessageSender(settings);
+    if ("BROKER_DOWN".equals(mode)) {
+      drain.close();
+      broker.close();
+      broker = null;
+    }
+    payload = Payloads.of(messageSize);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    if (broker != null) {
+      drain.close();
+      broker.close();
+    }
+    if (spoolDirectory != null) {
+      try (Stream<Path> paths = Files.walk(spoolDirectory)) {
+        paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+      }
+    }
+  }
+
+  /**
+   * Benchmark of the sends to the request queue.
+   *
+   * @throws MessageException It's thrown in case the message could not be sent or spooled
+   */
+  @Benchmark
+  public void sendToQueue() throws MessageException {
+    messageSender.sendMessageToAQueue(payload);
+  }
+}
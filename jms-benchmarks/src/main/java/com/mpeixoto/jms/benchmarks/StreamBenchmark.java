@@ -0,0 +1,151 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how long a stream takes to go from {@link
+ * MessageSender#sendStream(InputStream)} to the channel of the consumer stream handler. The stream
+ * is generated while it's read and the handler only counts its bytes, so no side ever holds more
+ * than a few chunks. With {@code -prof gc} the allocation per stream grows with its size, since
+ * every chunk is a new message, while the live heap stays the same.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class StreamBenchmark {
+
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"1", "16"})
+  public int megabytes;
+
+  @Param({"16", "64", "256"})
+  public int chunkKilobytes;
+
+  private final Semaphore streams = new Semaphore(0);
+  private EmbeddedBroker broker;
+  private MessageReceiver messageReceiver;
+  private MessageSender messageSender;
+
+  /**
+   * Method responsible for starting the broker, the receiver and the sender.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("stream", false);
+    String url = broker.url(transport);
+    messageReceiver =
+        new MessageReceiver(
+            new ConsumerSettings()
+                .setBrokerUrl(url)
+                .setQueuePrefetch(4)
+                .setStreamHandler(streamId -> new CountingChannel()));
+    messageReceiver.receiveMessageFromQueue();
+    messageSender =
+        new MessageSender(
+            new SenderSettings().setBrokerUrl(url).setStreamChunkSize(chunkKilobytes * 1024));
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    broker.close();
+  }
+
+  /**
+   * Benchmark of a stream sent in chunks and written to the channel of the consumer.
+   *
+   * @throws Exception It's thrown in case the stream could not be sent or was not received
+   */
+  @Benchmark
+  public void stream() throws Exception {
+    messageSender.sendStream(new GeneratedStream(megabytes * 1024L * 1024L));
+    if (!streams.tryAcquire(60, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The receiver did not get the whole stream");
+    }
+  }
+
+  private final class CountingChannel implements WritableByteChannel {
+    private boolean open = true;
+
+    @Override
+    public int write(ByteBuffer source) {
+      int length = source.remaining();
+      source.position(source.limit());
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+      streams.release();
+    }
+  }
+
+  private static final class GeneratedStream extends InputStream {
+    private long remaining;
+
+    private GeneratedStream(long length) {
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() {
+      if (remaining == 0) {
+        return -1;
+      }
+      remaining--;
+      return 'x';
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (remaining == 0) {
+        return -1;
+      }
+      int read = (int) Math.min(length, remaining);
+      remaining -= read;
+      return read;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring how the topic messages answered per second scale with the
+ * amount of {@link MessageReceiver} instances. With a plain subscription every instance receives
+ * and answers every message, with a virtual topic group the instances share the messages. Every
+ * invocation publishes a batch of messages without waiting and then waits for all of the replies.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(TopicScalingBenchmark.BATCH)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class TopicScalingBenchmark {
+  static final int BATCH = 500;
+
+  @Param({"vm", "tcp"})
+  public String transport;
+
+  @Param({"TOPIC", "VIRTUAL_TOPIC"})
+  public String subscription;
+
+  @Param({"1", "2", "4"})
+  public int consumers;
+
+  private final Semaphore replies = new Semaphore(0);
+  private final List<MessageReceiver> messageReceivers = new ArrayList<>();
+  private EmbeddedBroker broker;
+  private Connection client;
+  private Session session;
+  private MessageProducer topic;
+  private String payload;
+  private int repliesPerMessage;
+
+  /**
+   * Method responsible for starting the broker, the receivers and the client that publishes.
+   *
+   * @throws Exception It's thrown in case something could not be started
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    broker = EmbeddedBroker.start("topic-scaling", false);
+    String url = broker.url(transport);
+    MessageReceiver.setAnswer("This is a Response Message ");
+    boolean virtualTopic = "VIRTUAL_TOPIC".equals(subscription);
+    for (int i = 0; i < consumers; i++) {
+      MessageReceiver messageReceiver =
+          new MessageReceiver(
+              new ConsumerSettings()
+                  .setBrokerUrl(url)
+                  .setTopicConsumerGroup(virtualTopic ? "benchmark" : null));
+      messageReceiver.receiveMessageFromTopic();
+      messageReceivers.add(messageReceiver);
+    }
+    repliesPerMessage = virtualTopic ? 1 : consumers;
+
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(url);
+    connectionFactory.setUseAsyncSend(true);
+    client = connectionFactory.createConnection();
+    session = client.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    topic = session.createProducer(session.createTopic("topicJms"));
+    Session replySession = client.createSession(false, Session.DUPS_OK_ACKNOWLEDGE);
+    replySession
+        .createConsumer(replySession.createQueue("response.message.queue"))
+        .setMessageListener(message -> replies.release());
+    client.start();
+    payload = Payloads.of(128);
+  }
+
+  /**
+   * Method responsible for stopping everything that was started.
+   *
+   * @throws Exception It's thrown in case something could not be stopped
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    messageReceivers.forEach(MessageReceiver::close);
+    broker.close();
+  }
+
+  /**
+   * Benchmark of the topic messages answered by the receivers.
+   *
+   * @throws Exception It's thrown in case the messages could not be published or were not answered
+   */
+  @Benchmark
+  public void publish() throws Exception {
+    for (int i = 0; i < BATCH; i++) {
+      TextMessage textMessage = session.createTextMessage();
+      textMessage.setStringProperty("Request", payload);
+      topic.send(textMessage);
+    }
+    if (!replies.tryAcquire(BATCH * repliesPerMessage, 30, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("The receivers did not answer every message");
+    }
+  }
+}
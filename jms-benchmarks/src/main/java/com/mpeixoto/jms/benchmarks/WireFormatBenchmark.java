@@ -0,0 +1,121 @@
+package com.mpeixoto.jms.benchmarks;
+
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.BinaryFrame;
+import java.util.concurrent.TimeUnit;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMapMessage;
+import org.apache.activemq.command.ActiveMQMessage;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.command.MessageId;
+import org.apache.activemq.openwire.OpenWireFormatFactory;
+import org.apache.activemq.util.ByteSequence;
+import org.apache.activemq.wireformat.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark responsible for measuring the CPU time spent writing a reply and turning it into
+ * OpenWire bytes, and the other way around, as a MapMessage and as a BytesMessage written by the
+ * binary codec. The size of the marshalled reply is printed when the trial starts.
+ *
+ * @author mpeixoto
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmarks.xml")
+public class WireFormatBenchmark {
+  private static final ActiveMQQueue RESPONSE_QUEUE = new ActiveMQQueue("response.message.queue");
+  private static final MessageId MESSAGE_ID = new MessageId("ID:benchmark-1:1:1:1", 1);
+
+  @Param({"MAP", "BINARY"})
+  public String wireFormat;
+
+  @Param({"128", "4096"})
+  public int messageSize;
+
+  private WireFormat openWire;
+  private String request;
+  private String response;
+  private ByteSequence marshalled;
+
+  /**
+   * Method responsible for creating the payloads and a marshalled reply.
+   *
+   * @throws Exception It's thrown in case the reply could not be marshalled
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    OpenWireFormatFactory factory = new OpenWireFormatFactory();
+    factory.setCacheEnabled(false);
+    openWire = factory.createWireFormat();
+    request = "Request : " + Payloads.of(messageSize);
+    response = "Response : " + Payloads.of(messageSize);
+    marshalled = marshal();
+    System.out.println(
+        wireFormat
+            + " reply of "
+            + messageSize
+            + " characters: "
+            + marshalled.getLength()
+            + " bytes on the wire");
+  }
+
+  /**
+   * Benchmark of writing a reply and marshalling it to OpenWire.
+   *
+   * @return ByteSequence
+   * @throws Exception It's thrown in case the reply could not be marshalled
+   */
+  @Benchmark
+  public ByteSequence marshal() throws Exception {
+    ActiveMQMessage message;
+    if ("BINARY".equals(wireFormat)) {
+      ActiveMQBytesMessage bytesMessage = new ActiveMQBytesMessage();
+      BinaryCodec.write(bytesMessage, 42L, request, response);
+      message = bytesMessage;
+    } else {
+      ActiveMQMapMessage mapMessage = new ActiveMQMapMessage();
+      mapMessage.setString("Request", request);
+      mapMessage.setString("Response", response);
+      mapMessage.setLongProperty("SentAt", 42L);
+      message = mapMessage;
+    }
+    message.setMessageId(MESSAGE_ID);
+    message.setDestination(RESPONSE_QUEUE);
+    message.onSend();
+    return openWire.marshal(message);
+  }
+
+  /**
+   * Benchmark of unmarshalling a reply from OpenWire and reading its fields.
+   *
+   * @return String
+   * @throws Exception It's thrown in case the reply could not be unmarshalled
+   */
+  @Benchmark
+  public String unmarshal() throws Exception {
+    ActiveMQMessage message = (ActiveMQMessage) openWire.unmarshal(marshalled);
+    message.setReadOnlyBody(true);
+    if (message instanceof ActiveMQBytesMessage) {
+      BinaryFrame frame =
+          com.mpeixoto.jms.common.codec.BinaryCodec.read((ActiveMQBytesMessage) message);
+      return frame.getField(1) + frame.getTimestamp();
+    }
+    ActiveMQMapMessage mapMessage = (ActiveMQMapMessage) message;
+    return mapMessage.getString("Response") + mapMessage.getLongProperty("SentAt");
+  }
+}
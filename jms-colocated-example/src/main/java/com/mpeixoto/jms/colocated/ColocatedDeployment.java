@@ -0,0 +1,87 @@
+package com.mpeixoto.jms.colocated;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.services.MessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.CompletableFuture;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.TransportConnector;
+
+/**
+ * Class responsible for running the broker, the consumer and the producer in the same JVM. With
+ * the vm transport the messages are handed over in memory, without marshalling them or going
+ * through the TCP stack, and the producer skips the copy it would make before every send.
+ *
+ * @author mpeixoto
+ */
+public class ColocatedDeployment implements AutoCloseable {
+  private static final String BROKER_NAME = "colocated";
+  private final BrokerService brokerService;
+  private final MessageReceiver messageReceiver;
+  private final MessageSender messageSender;
+
+  /**
+   * Constructor of the class, everything is started when it returns.
+   *
+   * @param transport vm to talk in memory, tcp to talk through a loopback connector
+   * @param persistent Whether the broker stores the messages in KahaDB
+   * @throws Exception It's thrown in case something could not be started
+   */
+  public ColocatedDeployment(String transport, boolean persistent) throws Exception {
+    boolean inMemory = "vm".equals(transport);
+    brokerService = new BrokerService();
+    brokerService.setBrokerName(BROKER_NAME);
+    brokerService.setPersistent(persistent);
+    brokerService.setUseJmx(false);
+    TransportConnector connector =
+        inMemory ? null : brokerService.addConnector("tcp://localhost:0");
+    brokerService.start();
+    brokerService.waitUntilStarted();
+    String brokerUrl =
+        inMemory ? "vm://" + BROKER_NAME + "?create=false" : connector.getConnectUri().toString();
+
+    messageReceiver = new MessageReceiver(new ConsumerSettings().setBrokerUrl(brokerUrl));
+    messageReceiver.receiveMessageFromQueue();
+    messageReceiver.receiveMessageFromTopic();
+    messageSender =
+        new MessageSender(
+            new SenderSettings().setBrokerUrl(brokerUrl).setCopyMessageOnSend(!inMemory));
+    messageSender.receiveMessageFromQueue();
+  }
+
+  /**
+   * Get the sender of the deployment.
+   *
+   * @return MessageSender
+   */
+  public MessageSender getMessageSender() {
+    return messageSender;
+  }
+
+  /**
+   * Method responsible for sending a request to the consumer of the deployment.
+   *
+   * @param message The request
+   * @return CompletableFuture that is completed by the reply
+   * @throws MessageException It's thrown in case the request could not be sent
+   */
+  public CompletableFuture<Reply> request(String message) throws MessageException {
+    return messageSender.request(message);
+  }
+
+  /**
+   * Method responsible for stopping the producer, the consumer and the broker.
+   *
+   * @throws Exception It's thrown in case the broker could not be stopped
+   */
+  @Override
+  public void close() throws Exception {
+    messageSender.close();
+    messageReceiver.close();
+    brokerService.stop();
+    brokerService.waitUntilStopped();
+  }
+}
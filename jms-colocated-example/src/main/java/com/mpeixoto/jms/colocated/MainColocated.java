@@ -0,0 +1,35 @@
+package com.mpeixoto.jms.colocated;
+
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The main class, it runs the broker, the consumer and the producer in a single process.
+ *
+ * @author mpeixoto
+ */
+public class MainColocated {
+  private static final Logger LOGGER = LogManager.getLogger(MainColocated.class);
+
+  /**
+   * The main method.
+   *
+   * @param args Type: Array of String
+   * @throws Exception It's thrown if an error occurred during a communication
+   */
+  public static void main(String[] args) throws Exception {
+
+    MessageReceiver.setAnswer("This is a Response Message ");
+    String transport = System.getProperty("jms.transport", "vm");
+    boolean persistent = Boolean.getBoolean("jms.broker.persistent");
+    try (ColocatedDeployment deployment = new ColocatedDeployment(transport, persistent)) {
+      Reply reply =
+          deployment.request("This is a Request Message to a queue ").get(10, TimeUnit.SECONDS);
+      LOGGER.info("Reply received for {}", reply.getCorrelationId());
+      deployment.getMessageSender().sendMessageToATopic("This is a Request Message to a topic ");
+    }
+  }
+}
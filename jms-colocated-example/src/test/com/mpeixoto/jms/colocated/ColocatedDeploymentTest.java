@@ -0,0 +1,45 @@
+package com.mpeixoto.jms.colocated;
+
+import com.mpeixoto.jms.consumer.services.MessageReceiver;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing if the broker, the consumer and the producer talk inside the same process.
+ *
+ * @author mpeixoto
+ */
+public class ColocatedDeploymentTest {
+
+    /**
+     * Method responsible for testing if a request is answered through the vm transport.
+     *
+     * @throws Exception Exception that is thrown in case the request was not answered
+     */
+    @Test
+    public void requestShouldBeAnsweredInMemory() throws Exception {
+        assertAnswered("vm");
+    }
+
+    /**
+     * Method responsible for testing if a request is answered through the loopback tcp transport.
+     *
+     * @throws Exception Exception that is thrown in case the request was not answered
+     */
+    @Test
+    public void requestShouldBeAnsweredThroughTcp() throws Exception {
+        assertAnswered("tcp");
+    }
+
+    private static void assertAnswered(String transport) throws Exception {
+        MessageReceiver.setAnswer("This is a Response Message ");
+        try (ColocatedDeployment deployment = new ColocatedDeployment(transport, false)) {
+            Reply reply = deployment.request("test").get(10, TimeUnit.SECONDS);
+            assertTrue(reply.getRequest().startsWith("Request : test"));
+            assertTrue(reply.getResponse().startsWith("Response : This is a Response Message "));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MessageFormatException;
+
+/**
+ * Class responsible for writing and reading the binary body of the request and reply messages.
+ * The body holds a version byte, the timestamp as epoch microseconds, the amount of fields and
+ * every field as its length in bytes followed by its UTF-8 bytes, a null field has length -1. When
+ * the {@link Compression#PROPERTY} property is set, everything after the timestamp is compressed.
+ *
+ * @author mpeixoto
+ */
+public final class BinaryCodec {
+  /** The version of the body written by this codec. */
+  public static final byte VERSION = 1;
+  private static final int HEADER_LENGTH = 1 + Long.BYTES;
+
+  private BinaryCodec() {}
+
+  /**
+   * Method responsible for writing the body of a message.
+   *
+   * @param message The message that receives the body, it must be writable
+   * @param timestamp The epoch microseconds the message was sent at, 0 when unknown
+   * @param fields The text fields of the message, at most 255
+   * @throws JMSException It's thrown in case it wasn't possible to write the body
+   */
+  public static void write(BytesMessage message, long timestamp, String... fields)
+      throws JMSException {
+    if (fields.length > 0xFF) {
+      throw new MessageFormatException("A message holds at most 255 fields");
+    }
+    message.writeByte(VERSION);
+    message.writeLong(timestamp);
+    message.writeByte((byte) fields.length);
+    for (String field : fields) {
+      if (field == null) {
+        message.writeInt(-1);
+      } else {
+        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+        message.writeInt(bytes.length);
+        message.writeBytes(bytes);
+      }
+    }
+  }
+
+  /**
+   * Method responsible for writing the body of a message, the fields are compressed when a codec
+   * is given and they reach the threshold.
+   *
+   * @param message The message that receives the body, it must be writable
+   * @param timestamp The epoch microseconds the message was sent at, 0 when unknown
+   * @param compressor The codec, null to never compress
+   * @param threshold The size in bytes from which the fields are compressed
+   * @param fields The text fields of the message, at most 255
+   * @throws JMSException It's thrown in case it wasn't possible to write the body
+   */
+  public static void write(
+      BytesMessage message, long timestamp, Compressor compressor, int threshold, String... fields)
+      throws JMSException {
+    if (compressor == null) {
+      write(message, timestamp, fields);
+      return;
+    }
+    if (fields.length > 0xFF) {
+      throw new MessageFormatException("A message holds at most 255 fields");
+    }
+    ByteArrayOutputStream block = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(block)) {
+      out.writeByte(fields.length);
+      for (String field : fields) {
+        if (field == null) {
+          out.writeInt(-1);
+        } else {
+          byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("A memory stream does not fail", e);
+    }
+    byte[] bytes = block.toByteArray();
+    message.writeByte(VERSION);
+    message.writeLong(timestamp);
+    if (Compression.shouldCompress(bytes, compressor, threshold)) {
+      message.setStringProperty(Compression.PROPERTY, compressor.getName());
+      bytes = compressor.compress(bytes);
+    }
+    message.writeBytes(bytes);
+  }
+
+  /**
+   * Method responsible for reading the body of a message.
+   *
+   * @param message The message that holds the body, it must be readable
+   * @return BinaryFrame
+   * @throws JMSException It's thrown in case the body has an unknown version, is truncated or a
+   *     field claims more bytes than the body holds
+   */
+  public static BinaryFrame read(BytesMessage message) throws JMSException {
+    byte version = message.readByte();
+    if (version != VERSION) {
+      throw new MessageFormatException("Unsupported wire format version " + version);
+    }
+    long timestamp = message.readLong();
+    if (message.propertyExists(Compression.PROPERTY)) {
+      byte[] block = new byte[(int) message.getBodyLength() - HEADER_LENGTH];
+      message.readBytes(block);
+      block = Compression.decompress(message.getStringProperty(Compression.PROPERTY), block);
+      try {
+        return new BinaryFrame(
+            timestamp, readFields(new DataInputStream(new ByteArrayInputStream(block))));
+      } catch (IOException e) {
+        MessageFormatException exception =
+            new MessageFormatException("The compressed fields are truncated");
+        exception.setLinkedException(e);
+        throw exception;
+      }
+    }
+    String[] fields = new String[message.readUnsignedByte()];
+    // The lengths come from the wire, so none is trusted beyond the bytes left in the body
+    long remaining = message.getBodyLength() - HEADER_LENGTH - 1;
+    for (int i = 0; i < fields.length; i++) {
+      int length = message.readInt();
+      remaining -= Integer.BYTES;
+      if (length >= 0) {
+        if (length > remaining) {
+          throw new MessageFormatException("The field " + i + " is truncated");
+        }
+        byte[] bytes = new byte[length];
+        if (length > 0 && message.readBytes(bytes) != length) {
+          throw new MessageFormatException("The field " + i + " is truncated");
+        }
+        remaining -= length;
+        fields[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+    }
+    return new BinaryFrame(timestamp, fields);
+  }
+
+  private static String[] readFields(DataInputStream in) throws IOException {
+    String[] fields = new String[in.readUnsignedByte()];
+    for (int i = 0; i < fields.length; i++) {
+      int length = in.readInt();
+      if (length >= 0) {
+        if (length > in.available()) {
+          throw new IOException("The field " + i + " is truncated");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        fields[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+    }
+    return fields;
+  }
+}
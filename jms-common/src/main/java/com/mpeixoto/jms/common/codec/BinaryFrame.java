@@ -0,0 +1,50 @@
+package com.mpeixoto.jms.common.codec;
+
+/**
+ * Class responsible for holding the content read from a binary message body.
+ *
+ * @author mpeixoto
+ */
+public class BinaryFrame {
+  private final long timestamp;
+  private final String[] fields;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param timestamp The epoch microseconds the message was sent at, 0 when unknown
+   * @param fields The text fields of the message
+   */
+  BinaryFrame(long timestamp, String[] fields) {
+    this.timestamp = timestamp;
+    this.fields = fields;
+  }
+
+  /**
+   * Get the epoch microseconds the message was sent at, 0 when unknown.
+   *
+   * @return long
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Get a text field of the message.
+   *
+   * @param index The position of the field
+   * @return String, null if the field was null or is missing
+   */
+  public String getField(int index) {
+    return index < fields.length ? fields[index] : null;
+  }
+
+  /**
+   * Get the amount of fields of the message.
+   *
+   * @return int
+   */
+  public int getFieldCount() {
+    return fields.length;
+  }
+}
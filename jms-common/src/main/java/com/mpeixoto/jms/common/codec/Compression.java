@@ -0,0 +1,127 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.MessageFormatException;
+
+/**
+ * Class responsible for keeping the compression codecs known by this side, and for deciding when
+ * a payload is worth compressing.
+ *
+ * @author mpeixoto
+ */
+public final class Compression {
+  /** The name of the property that holds the codec that compressed the message. */
+  public static final String PROPERTY = "Compression";
+  private static final Map<String, Compressor> COMPRESSORS = new ConcurrentHashMap<>();
+
+  static {
+    register(new DeflateCompressor());
+  }
+
+  private Compression() {}
+
+  /**
+   * Method responsible for making a codec known, so the messages it compressed can be read.
+   *
+   * @param compressor Type: Compressor
+   */
+  public static void register(Compressor compressor) {
+    COMPRESSORS.put(compressor.getName(), compressor);
+  }
+
+  /**
+   * Method responsible for finding the codec with the given name.
+   *
+   * @param name The name of the codec
+   * @return Compressor
+   * @throws IllegalArgumentException It's thrown in case no codec has the given name
+   */
+  public static Compressor forName(String name) {
+    Compressor compressor = COMPRESSORS.get(name);
+    if (compressor == null) {
+      throw new IllegalArgumentException("Unknown compression codec " + name);
+    }
+    return compressor;
+  }
+
+  /**
+   * Method responsible for writing a text entry of a MapMessage, it's written as compressed bytes
+   * when a codec is given and the text reaches the threshold. The caller is responsible for
+   * setting {@link #PROPERTY} when any entry was compressed.
+   *
+   * @param message The message that receives the entry
+   * @param name The name of the entry
+   * @param text The text of the entry
+   * @param compressor The codec, null to never compress
+   * @param threshold The size in bytes from which the text is compressed
+   * @return boolean true if the entry was compressed
+   * @throws JMSException It's thrown in case it wasn't possible to write the entry
+   */
+  public static boolean writeText(
+      MapMessage message, String name, String text, Compressor compressor, int threshold)
+      throws JMSException {
+    if (compressor != null) {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      if (shouldCompress(bytes, compressor, threshold)) {
+        message.setBytes(name, compressor.compress(bytes));
+        return true;
+      }
+    }
+    message.setString(name, text);
+    return false;
+  }
+
+  /**
+   * Method responsible for reading a text entry of a MapMessage, compressed or not.
+   *
+   * @param message The message that holds the entry
+   * @param name The name of the entry
+   * @return String
+   * @throws JMSException It's thrown in case the entry could not be read or decompressed
+   */
+  public static String readText(MapMessage message, String name) throws JMSException {
+    Object value = message.getObject(name);
+    if (value instanceof byte[]) {
+      return new String(
+          decompress(message.getStringProperty(PROPERTY), (byte[]) value),
+          StandardCharsets.UTF_8);
+    }
+    return message.getString(name);
+  }
+
+  /**
+   * Method responsible for restoring a payload with the codec of the given name.
+   *
+   * @param name The name of the codec
+   * @param data The compressed payload
+   * @return byte[] holding the original payload
+   * @throws JMSException It's thrown in case the codec is unknown or the payload is not valid
+   */
+  static byte[] decompress(String name, byte[] data) throws JMSException {
+    try {
+      return forName(name).decompress(data);
+    } catch (IOException | IllegalArgumentException e) {
+      MessageFormatException exception =
+          new MessageFormatException("It was not possible to decompress the payload");
+      exception.setLinkedException(e);
+      throw exception;
+    }
+  }
+
+  /**
+   * Method responsible for deciding whether a payload is compressed.
+   *
+   * @param data The payload
+   * @param compressor The codec, null to never compress
+   * @param threshold The size in bytes from which the payload is compressed
+   * @return boolean
+   */
+  public static boolean shouldCompress(byte[] data, Compressor compressor, int threshold) {
+    return compressor != null && data.length >= threshold;
+  }
+}
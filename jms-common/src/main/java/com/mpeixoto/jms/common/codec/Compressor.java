@@ -0,0 +1,37 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.io.IOException;
+
+/**
+ * Interface responsible for describing a codec that compresses the payload of the messages. The
+ * name of the codec travels in the {@link Compression#PROPERTY} property of every message it
+ * compressed, so the receiving side must know a codec with the same name.
+ *
+ * @author mpeixoto
+ */
+public interface Compressor {
+
+  /**
+   * Get the name that identifies the codec on the wire.
+   *
+   * @return String
+   */
+  String getName();
+
+  /**
+   * Method responsible for compressing a payload.
+   *
+   * @param data The payload
+   * @return byte[] holding the compressed payload
+   */
+  byte[] compress(byte[] data);
+
+  /**
+   * Method responsible for restoring a payload compressed by {@link #compress(byte[])}.
+   *
+   * @param data The compressed payload
+   * @return byte[] holding the original payload
+   * @throws IOException It's thrown in case the data is not a valid compressed payload
+   */
+  byte[] decompress(byte[] data) throws IOException;
+}
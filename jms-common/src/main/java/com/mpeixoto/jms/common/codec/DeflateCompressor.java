@@ -0,0 +1,114 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Class responsible for compressing the payloads with deflate. The compressed payload starts with
+ * the length of the original one, so it's restored in a single pass. That length comes from the
+ * wire, so a payload claiming more than the maximum length, or inflating to another length, is
+ * refused. Every thread keeps its own deflater and inflater, so the native buffers are not
+ * allocated for each message.
+ *
+ * @author mpeixoto
+ */
+public class DeflateCompressor implements Compressor {
+  /** The name of the codec on the wire. */
+  public static final String NAME = "deflate";
+  /** The default maximum length of a decompressed payload, in bytes. */
+  public static final int DEFAULT_MAX_LENGTH = 64 * 1024 * 1024;
+  private final ThreadLocal<Deflater> deflaters;
+  private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+  private final int maxLength;
+
+  /** Default constructor of the class, it favours speed over ratio. */
+  public DeflateCompressor() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  /**
+   * Constructor of the class.
+   *
+   * @param level The deflate level, from 1 (fastest) to 9 (smallest)
+   */
+  public DeflateCompressor(int level) {
+    this(level, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * Constructor of the class.
+   *
+   * @param level The deflate level, from 1 (fastest) to 9 (smallest)
+   * @param maxLength The maximum length of a decompressed payload, in bytes
+   */
+  public DeflateCompressor(int level, int maxLength) {
+    if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Unsupported deflate level " + level);
+    }
+    if (maxLength < 0) {
+      throw new IllegalArgumentException("The maximum length must not be negative");
+    }
+    deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] compress(byte[] data) {
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    deflater.setInput(data);
+    deflater.finish();
+    byte[] output = new byte[Integer.BYTES + data.length + data.length / 1000 + 64];
+    ByteBuffer.wrap(output).putInt(data.length);
+    int length = Integer.BYTES;
+    while (!deflater.finished()) {
+      if (length == output.length) {
+        output = Arrays.copyOf(output, output.length * 2);
+      }
+      length += deflater.deflate(output, length, output.length - length);
+    }
+    return Arrays.copyOf(output, length);
+  }
+
+  @Override
+  public byte[] decompress(byte[] data) throws IOException {
+    if (data.length < Integer.BYTES) {
+      throw new IOException("The compressed payload is truncated");
+    }
+    int originalLength = ByteBuffer.wrap(data).getInt();
+    if (originalLength < 0 || originalLength > maxLength) {
+      throw new IOException(
+          "The compressed payload claims " + originalLength + " bytes, the maximum is "
+              + maxLength);
+    }
+    byte[] output = new byte[originalLength];
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    inflater.setInput(data, Integer.BYTES, data.length - Integer.BYTES);
+    try {
+      int length = 0;
+      while (length < output.length) {
+        int inflated = inflater.inflate(output, length, output.length - length);
+        if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new IOException("The compressed payload is truncated");
+        }
+        length += inflated;
+      }
+      if (!inflater.finished() && (inflater.inflate(new byte[1]) > 0 || !inflater.finished())) {
+        throw new IOException("The compressed payload is longer than its length");
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("The payload is not valid deflate data", e);
+    }
+    return output;
+  }
+}
@@ -0,0 +1,107 @@
+package com.mpeixoto.jms.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Class responsible for recording latencies in a histogram. Recording is wait-free, the histogram
+ * is only read when the MessageMetrics of the producer or the consumer take a snapshot.
+ *
+ * @author mpeixoto
+ */
+public class LatencyStats implements LatencyStatsMBean {
+  private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+  private final String name;
+  private final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+  private Histogram recycled;
+  private volatile Histogram interval = recorder.getIntervalHistogram();
+  private volatile long totalCount;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param name The name of the measured latency
+   */
+  public LatencyStats(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Method responsible for recording a latency.
+   *
+   * @param micros The latency in microseconds, negative values caused by clock skew count as zero
+   */
+  public void record(long micros) {
+    recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_MICROS));
+  }
+
+  /**
+   * Method responsible for recording the time that has passed since the given instant.
+   *
+   * @param startNanos The instant returned by System.nanoTime()
+   */
+  public void recordSince(long startNanos) {
+    record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+  }
+
+  /** Method responsible for closing the current interval. */
+  public synchronized void roll() {
+    Histogram next = recorder.getIntervalHistogram(recycled);
+    recycled = interval;
+    interval = next;
+    totalCount += next.getTotalCount();
+  }
+
+  /**
+   * Get the summary of the last closed interval, as it's logged.
+   *
+   * @return String
+   */
+  public String summary() {
+    Histogram histogram = interval;
+    return String.format(
+        "%s count=%d p50=%dus p99=%dus p99.9=%dus max=%dus",
+        name,
+        histogram.getTotalCount(),
+        histogram.getValueAtPercentile(50),
+        histogram.getValueAtPercentile(99),
+        histogram.getValueAtPercentile(99.9),
+        histogram.getMaxValue());
+  }
+
+  @Override
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  @Override
+  public long getIntervalCount() {
+    return interval.getTotalCount();
+  }
+
+  @Override
+  public double getMeanMicros() {
+    return interval.getMean();
+  }
+
+  @Override
+  public long getP50Micros() {
+    return interval.getValueAtPercentile(50);
+  }
+
+  @Override
+  public long getP99Micros() {
+    return interval.getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getP999Micros() {
+    return interval.getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getMaxMicros() {
+    return interval.getMaxValue();
+  }
+}
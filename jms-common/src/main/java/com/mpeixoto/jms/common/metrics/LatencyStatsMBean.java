@@ -0,0 +1,24 @@
+package com.mpeixoto.jms.common.metrics;
+
+/**
+ * Interface responsible for exposing a latency histogram through JMX. The percentiles describe the
+ * last snapshot interval, the count covers the whole life of the process.
+ *
+ * @author mpeixoto
+ */
+public interface LatencyStatsMBean {
+
+  long getTotalCount();
+
+  long getIntervalCount();
+
+  double getMeanMicros();
+
+  long getP50Micros();
+
+  long getP99Micros();
+
+  long getP999Micros();
+
+  long getMaxMicros();
+}
@@ -0,0 +1,70 @@
+package com.mpeixoto.jms.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class responsible for choosing which messages of the message path are logged one by one. Every
+ * message is counted, but only one in {@code jms.log.sampleEvery} is logged (1 by default, every
+ * message, and 0 for none), and the counts of the interval are logged by the MessageMetrics
+ * of the producer or the consumer with their snapshot instead.
+ *
+ * @author mpeixoto
+ */
+public class MessageLog {
+  private final String name;
+  private final int sampleEvery;
+  private final AtomicLong messages = new AtomicLong();
+  private final LongAdder logged = new LongAdder();
+  private long lastMessages;
+  private long lastLogged;
+  private long intervalMessages;
+  private long intervalLogged;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param name The name of the logged messages
+   * @param sampleEvery The lines of one message in this amount are logged, 0 logs none
+   */
+  public MessageLog(String name, int sampleEvery) {
+    if (sampleEvery < 0) {
+      throw new IllegalArgumentException("The sampling can't be negative");
+    }
+    this.name = name;
+    this.sampleEvery = sampleEvery;
+  }
+
+  /**
+   * Method responsible for counting a message and telling whether it's logged.
+   *
+   * @return boolean true when the lines of the message should be logged
+   */
+  public boolean sample() {
+    long count = messages.getAndIncrement();
+    if (sampleEvery == 0 || count % sampleEvery != 0) {
+      return false;
+    }
+    logged.increment();
+    return true;
+  }
+
+  /** Method responsible for closing the current interval. */
+  public synchronized void roll() {
+    long currentMessages = messages.get();
+    long currentLogged = logged.sum();
+    intervalMessages = currentMessages - lastMessages;
+    intervalLogged = currentLogged - lastLogged;
+    lastMessages = currentMessages;
+    lastLogged = currentLogged;
+  }
+
+  /**
+   * Get the summary of the last closed interval, as it's logged.
+   *
+   * @return String
+   */
+  public synchronized String summary() {
+    return String.format("%s logged=%d/%d", name, intervalLogged, intervalMessages);
+  }
+}
@@ -0,0 +1,75 @@
+package com.mpeixoto.jms.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class responsible for counting the messages of a destination. The rate is computed when the
+ * MessageMetrics of the producer or the consumer take a snapshot.
+ *
+ * @author mpeixoto
+ */
+public class ThroughputStats implements ThroughputStatsMBean {
+  private final String name;
+  private final LongAdder counter = new LongAdder();
+  private long lastTotal;
+  private volatile long total;
+  private volatile double messagesPerSecond;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param name The name of the measured destination
+   */
+  public ThroughputStats(String name) {
+    this.name = name;
+  }
+
+  /** Method responsible for counting a message. */
+  public void increment() {
+    counter.increment();
+  }
+
+  /**
+   * Method responsible for counting several messages.
+   *
+   * @param messages The amount of messages
+   */
+  public void add(long messages) {
+    counter.add(messages);
+  }
+
+  /**
+   * Method responsible for closing the current interval and computing its rate.
+   *
+   * @param elapsedNanos The length of the interval in nanoseconds
+   */
+  public synchronized void roll(long elapsedNanos) {
+    long current = counter.sum();
+    messagesPerSecond =
+        elapsedNanos > 0
+            ? (current - lastTotal) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos
+            : 0;
+    lastTotal = current;
+    total = current;
+  }
+
+  /**
+   * Get the summary of the last closed interval, as it's logged.
+   *
+   * @return String
+   */
+  public String summary() {
+    return String.format("%s %.1f msg/s", name, messagesPerSecond);
+  }
+
+  @Override
+  public long getTotalMessages() {
+    return total;
+  }
+
+  @Override
+  public double getMessagesPerSecond() {
+    return messagesPerSecond;
+  }
+}
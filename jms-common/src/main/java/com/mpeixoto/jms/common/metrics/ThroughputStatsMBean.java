@@ -0,0 +1,13 @@
+package com.mpeixoto.jms.common.metrics;
+
+/**
+ * Interface responsible for exposing the message counter of a destination through JMX.
+ *
+ * @author mpeixoto
+ */
+public interface ThroughputStatsMBean {
+
+  long getTotalMessages();
+
+  double getMessagesPerSecond();
+}
@@ -0,0 +1,136 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.util.Arrays;
+import javax.jms.JMSException;
+import javax.jms.MessageFormatException;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the BinaryCodec class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class BinaryCodecTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if the fields written are read back unchanged.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void readShouldReturnWhatWasWritten() throws JMSException {
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        BinaryCodec.write(message, 42L, "Request : ol\u00e1", null, "");
+        message.reset();
+        BinaryFrame frame = BinaryCodec.read(message);
+        assertEquals(42L, frame.getTimestamp());
+        assertEquals(3, frame.getFieldCount());
+        assertEquals("Request : ol\u00e1", frame.getField(0));
+        assertNull(frame.getField(1));
+        assertEquals("", frame.getField(2));
+        assertNull(frame.getField(3));
+    }
+
+    /**
+     * Method responsible for testing if a body of another version is rejected.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void readGivenAnUnknownVersionShouldFail() throws JMSException {
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        message.writeByte((byte) 2);
+        message.reset();
+        expectedException.expect(MessageFormatException.class);
+        expectedException.expectMessage("Unsupported wire format version 2");
+        BinaryCodec.read(message);
+    }
+
+    /**
+     * Method responsible for testing if fields above the threshold are compressed and read back.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void readShouldDecompressTheFieldsAboveTheThreshold() throws JMSException {
+        char[] chars = new char[4096];
+        Arrays.fill(chars, 'x');
+        String payload = new String(chars);
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        BinaryCodec.write(message, 42L, new DeflateCompressor(), 1024, payload, "small");
+        message.reset();
+        assertEquals(DeflateCompressor.NAME, message.getStringProperty(Compression.PROPERTY));
+        assertTrue(message.getBodyLength() < 1024);
+        BinaryFrame frame = BinaryCodec.read(message);
+        assertEquals(42L, frame.getTimestamp());
+        assertEquals(payload, frame.getField(0));
+        assertEquals("small", frame.getField(1));
+    }
+
+    /**
+     * Method responsible for testing if fields below the threshold are not compressed.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void writeShouldNotCompressTheFieldsBelowTheThreshold() throws JMSException {
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        BinaryCodec.write(message, 42L, new DeflateCompressor(), 1024, "small");
+        message.reset();
+        assertFalse(message.propertyExists(Compression.PROPERTY));
+        assertEquals("small", BinaryCodec.read(message).getField(0));
+    }
+
+    /**
+     * Method responsible for testing if a field claiming more bytes than the body holds is rejected
+     * before its bytes are allocated.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void readGivenAFieldLongerThanTheBodyShouldFail() throws JMSException {
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        message.writeByte(BinaryCodec.VERSION);
+        message.writeLong(42L);
+        message.writeByte((byte) 1);
+        message.writeInt(Integer.MAX_VALUE);
+        message.writeBytes(new byte[] {1, 2, 3});
+        message.reset();
+        expectedException.expect(MessageFormatException.class);
+        expectedException.expectMessage("The field 0 is truncated");
+        BinaryCodec.read(message);
+    }
+
+    /**
+     * Method responsible for testing if a compressed field claiming more bytes than the block holds
+     * is rejected before its bytes are allocated.
+     *
+     * @throws JMSException Exception that is thrown in case the body could not be written or read
+     */
+    @Test
+    public void readGivenACompressedFieldLongerThanTheBlockShouldFail() throws JMSException {
+        byte[] block = {1, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2, 3};
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        message.setStringProperty(Compression.PROPERTY, DeflateCompressor.NAME);
+        message.writeByte(BinaryCodec.VERSION);
+        message.writeLong(42L);
+        message.writeBytes(new DeflateCompressor().compress(block));
+        message.reset();
+        expectedException.expect(MessageFormatException.class);
+        expectedException.expectMessage("The compressed fields are truncated");
+        BinaryCodec.read(message);
+    }
+}
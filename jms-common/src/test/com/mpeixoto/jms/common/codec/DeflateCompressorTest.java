@@ -0,0 +1,107 @@
+package com.mpeixoto.jms.common.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the DeflateCompressor class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class DeflateCompressorTest {
+    private final DeflateCompressor compressor = new DeflateCompressor();
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if a repetitive payload shrinks and is restored unchanged.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressShouldRestoreTheCompressedPayload() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("This is a Request Message to a queue ").append(i % 10);
+        }
+        byte[] payload = text.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compressor.compress(payload);
+        assertTrue(compressed.length < payload.length / 10);
+        assertArrayEquals(payload, compressor.decompress(compressed));
+    }
+
+    /**
+     * Method responsible for testing if an empty payload is restored unchanged.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressShouldRestoreAnEmptyPayload() throws IOException {
+        assertArrayEquals(new byte[0], compressor.decompress(compressor.compress(new byte[0])));
+    }
+
+    /**
+     * Method responsible for testing if a truncated payload is rejected.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressGivenATruncatedPayloadShouldFail() throws IOException {
+        byte[] compressed = compressor.compress(new byte[4096]);
+        expectedException.expect(IOException.class);
+        compressor.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+    }
+
+    /**
+     * Method responsible for testing if a payload claiming a negative length is rejected.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressGivenANegativeLengthShouldFail() throws IOException {
+        byte[] compressed = compressor.compress(new byte[16]);
+        ByteBuffer.wrap(compressed).putInt(-1);
+        expectedException.expect(IOException.class);
+        compressor.decompress(compressed);
+    }
+
+    /**
+     * Method responsible for testing if a payload claiming more than the maximum length is rejected
+     * before anything is allocated.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressGivenALengthAboveTheMaximumShouldFail() throws IOException {
+        DeflateCompressor bounded = new DeflateCompressor(1, 1024);
+        byte[] compressed = bounded.compress(new byte[16]);
+        ByteBuffer.wrap(compressed).putInt(Integer.MAX_VALUE);
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("the maximum is 1024");
+        bounded.decompress(compressed);
+    }
+
+    /**
+     * Method responsible for testing if a payload inflating to more than its length is rejected.
+     *
+     * @throws IOException Exception that is thrown in case the payload could not be decompressed
+     */
+    @Test
+    public void decompressGivenAShorterLengthShouldFail() throws IOException {
+        byte[] compressed = compressor.compress(new byte[4096]);
+        ByteBuffer.wrap(compressed).putInt(100);
+        expectedException.expect(IOException.class);
+        compressor.decompress(compressed);
+    }
+}
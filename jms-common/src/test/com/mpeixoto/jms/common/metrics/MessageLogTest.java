@@ -0,0 +1,56 @@
+package com.mpeixoto.jms.common.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the MessageLog class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class MessageLogTest {
+
+    /**
+     * Method responsible for testing if every message is logged by default.
+     */
+    @Test
+    public void sampleShouldLogEveryMessageByDefault() {
+        MessageLog log = new MessageLog("test", 1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(log.sample());
+        }
+    }
+
+    /**
+     * Method responsible for testing if one message in N is logged and the interval is summarized.
+     */
+    @Test
+    public void sampleShouldLogOneMessageInN() {
+        MessageLog log = new MessageLog("test", 4);
+        int logged = 0;
+        for (int i = 0; i < 10; i++) {
+            if (log.sample()) {
+                logged++;
+            }
+        }
+        assertEquals(3, logged);
+        log.roll();
+        assertEquals("test logged=3/10", log.summary());
+        log.roll();
+        assertEquals("test logged=0/0", log.summary());
+    }
+
+    /**
+     * Method responsible for testing if no message is logged when the sampling is zero.
+     */
+    @Test
+    public void sampleShouldLogNothingWhenTheSamplingIsZero() {
+        MessageLog log = new MessageLog("test", 0);
+        assertFalse(log.sample());
+        log.roll();
+        assertEquals("test logged=0/1", log.summary());
+    }
+}
@@ -1,8 +1,14 @@
 package com.mpeixoto.jms.consumer;
 
+import com.mpeixoto.jms.consumer.config.BrokerSettings;
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.config.DeduplicationKey;
+import com.mpeixoto.jms.consumer.config.ExecutionMode;
+import com.mpeixoto.jms.consumer.config.PersistenceProfile;
+import com.mpeixoto.jms.consumer.handler.RequestHandler;
 import com.mpeixoto.jms.consumer.services.MessageReceiver;
-import java.net.URI;
-import org.apache.activemq.broker.BrokerFactory;
+import java.util.Arrays;
+import javax.jms.DeliveryMode;
 import org.apache.activemq.broker.BrokerService;
 
 /**
@@ -20,11 +26,57 @@ public class MainConsumer {
    */
   public static void main(String[] args) throws Exception {
 
-    BrokerService broker = BrokerFactory.createBroker(new URI("broker:tcp://localhost:61616"));
+    BrokerService broker =
+        new BrokerSettings()
+            .setPersistenceProfile(
+                PersistenceProfile.valueOf(
+                    System.getProperty("jms.broker.persistence", "KAHADB")))
+            .createBroker();
     broker.start();
 
     String answer = "This is a Response Message ";
-    MessageReceiver messageReceiver = new MessageReceiver();
+    ConsumerSettings settings =
+        new ConsumerSettings()
+            .setConcurrentConsumers(Integer.getInteger("jms.consumer.concurrency", 1))
+            .setExecutionMode(
+                ExecutionMode.valueOf(System.getProperty("jms.consumer.execution", "INLINE")))
+            .setQueuePrefetch(Integer.getInteger("jms.consumer.prefetch", 1000))
+            .setOptimizeAcknowledge(Boolean.getBoolean("jms.consumer.optimizeAcknowledge"))
+            .setAcknowledgeBatchSize(Integer.getInteger("jms.consumer.ackBatch", 1))
+            .setAcknowledgeBatchDelayMillis(Long.getLong("jms.consumer.ackBatchDelayMillis", 1000))
+            .setReplyBatchSize(Integer.getInteger("jms.reply.batch", 1))
+            .setReplyBatchWindowMicros(Long.getLong("jms.reply.batchWindowMicros", 1000))
+            .setTopicConsumerGroup(System.getProperty("jms.topic.group"))
+            .setDeduplication(
+                Integer.getInteger("jms.consumer.dedupCapacity", 0),
+                Long.getLong("jms.consumer.dedupWindowMillis", 60_000))
+            .setDeduplicationKey(
+                DeduplicationKey.valueOf(
+                    System.getProperty("jms.consumer.dedupKey", "MESSAGE_ID")))
+            .setRequestCache(
+                Integer.getInteger("jms.consumer.cacheSize", 0),
+                Long.getLong("jms.consumer.cacheTtlMillis", 60_000))
+            .setReplyDeliveryMode(
+                Boolean.parseBoolean(System.getProperty("jms.reply.persistent", "true"))
+                    ? DeliveryMode.PERSISTENT
+                    : DeliveryMode.NON_PERSISTENT);
+    String shards = System.getProperty("jms.consumer.shards");
+    if (shards != null) {
+      settings.setShards(Arrays.stream(shards.split(",")).mapToInt(Integer::parseInt).toArray());
+    }
+    String handler = System.getProperty("jms.consumer.handler");
+    if (handler != null) {
+      settings.setRequestHandler(
+          Class.forName(handler)
+              .asSubclass(RequestHandler.class)
+              .getDeclaredConstructor()
+              .newInstance());
+    }
+    String brokerUrls = System.getProperty("jms.broker.urls");
+    if (brokerUrls != null) {
+      settings.setFailoverUrls(brokerUrls.split(","));
+    }
+    MessageReceiver messageReceiver = new MessageReceiver(settings);
     MessageReceiver.setAnswer(answer);
     messageReceiver.receiveMessageFromQueue();
     messageReceiver.receiveMessageFromTopic();
@@ -0,0 +1,249 @@
+package com.mpeixoto.jms.consumer.config;
+
+import java.io.File;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.DestinationInterceptor;
+import org.apache.activemq.broker.region.virtual.VirtualDestination;
+import org.apache.activemq.broker.region.virtual.VirtualDestinationInterceptor;
+import org.apache.activemq.broker.region.virtual.VirtualTopic;
+import org.apache.activemq.store.kahadb.KahaDBPersistenceAdapter;
+
+/**
+ * Class responsible for holding the settings used to create the embedded broker. Both KahaDB
+ * profiles size the store for a broker that takes a steady stream of small persistent messages:
+ * a longer journal file, a bigger index cache and bigger index write batches than the KahaDB
+ * defaults of 32 MB, 10000 pages and 1000 pages.
+ *
+ * @author mpeixoto
+ */
+public class BrokerSettings {
+  private String brokerName = "localhost";
+  private String connectorUrl = "tcp://localhost:61616";
+  private String dataDirectory = "activemq-data";
+  private PersistenceProfile persistenceProfile = PersistenceProfile.KAHADB;
+  private int journalMaxFileLength = 128 * 1024 * 1024;
+  private int indexCacheSize = 25_000;
+  private int indexWriteBatchSize = 5_000;
+  private String virtualTopic = "topicJms";
+
+  /**
+   * Get the name of the broker.
+   *
+   * @return String
+   */
+  public String getBrokerName() {
+    return brokerName;
+  }
+
+  /**
+   * Set the name of the broker, it's also the name of its folder inside the data directory.
+   *
+   * @param brokerName The name of the broker
+   * @return BrokerSettings
+   */
+  public BrokerSettings setBrokerName(String brokerName) {
+    this.brokerName = brokerName;
+    return this;
+  }
+
+  /**
+   * Get the URL the broker listens to.
+   *
+   * @return String
+   */
+  public String getConnectorUrl() {
+    return connectorUrl;
+  }
+
+  /**
+   * Set the URL the broker listens to.
+   *
+   * @param connectorUrl The URL of the connector
+   * @return BrokerSettings
+   */
+  public BrokerSettings setConnectorUrl(String connectorUrl) {
+    this.connectorUrl = connectorUrl;
+    return this;
+  }
+
+  /**
+   * Get the folder where the broker keeps its data.
+   *
+   * @return String
+   */
+  public String getDataDirectory() {
+    return dataDirectory;
+  }
+
+  /**
+   * Set the folder where the broker keeps its data.
+   *
+   * @param dataDirectory The path of the folder
+   * @return BrokerSettings
+   */
+  public BrokerSettings setDataDirectory(String dataDirectory) {
+    this.dataDirectory = dataDirectory;
+    return this;
+  }
+
+  /**
+   * Get how the broker stores the persistent messages.
+   *
+   * @return PersistenceProfile
+   */
+  public PersistenceProfile getPersistenceProfile() {
+    return persistenceProfile;
+  }
+
+  /**
+   * Set how the broker stores the persistent messages.
+   *
+   * @param persistenceProfile Type: PersistenceProfile
+   * @return BrokerSettings
+   */
+  public BrokerSettings setPersistenceProfile(PersistenceProfile persistenceProfile) {
+    this.persistenceProfile = persistenceProfile;
+    return this;
+  }
+
+  /**
+   * Get the maximum size in bytes of a KahaDB journal file.
+   *
+   * @return int
+   */
+  public int getJournalMaxFileLength() {
+    return journalMaxFileLength;
+  }
+
+  /**
+   * Set the maximum size in bytes of a KahaDB journal file, 128 MB by default. The journal is
+   * written sequentially and a new file is preallocated at every roll over, so a file four times
+   * the KahaDB default rolls over four times less often under a sustained load. A file is only
+   * deleted once none of its messages is referenced, so a slow consumer holds more disk.
+   *
+   * @param journalMaxFileLength The size in bytes
+   * @return BrokerSettings
+   */
+  public BrokerSettings setJournalMaxFileLength(int journalMaxFileLength) {
+    if (journalMaxFileLength < 1) {
+      throw new IllegalArgumentException("The journal file length must be greater than zero");
+    }
+    this.journalMaxFileLength = journalMaxFileLength;
+    return this;
+  }
+
+  /**
+   * Get the amount of KahaDB index pages kept in memory.
+   *
+   * @return int
+   */
+  public int getIndexCacheSize() {
+    return indexCacheSize;
+  }
+
+  /**
+   * Set the amount of KahaDB index pages kept in memory, 25000 by default. With 4 KB pages that is
+   * about 100 MB of heap instead of 40 MB, so the index of a deep queue stays in memory and the
+   * dispatch doesn't read its pages back from the disk.
+   *
+   * @param indexCacheSize The amount of pages
+   * @return BrokerSettings
+   */
+  public BrokerSettings setIndexCacheSize(int indexCacheSize) {
+    if (indexCacheSize < 1) {
+      throw new IllegalArgumentException("The index cache size must be greater than zero");
+    }
+    this.indexCacheSize = indexCacheSize;
+    return this;
+  }
+
+  /**
+   * Get the amount of dirty KahaDB index pages written at once.
+   *
+   * @return int
+   */
+  public int getIndexWriteBatchSize() {
+    return indexWriteBatchSize;
+  }
+
+  /**
+   * Set the amount of dirty KahaDB index pages written at once, 5000 by default. A checkpoint
+   * writes the index in fewer and bigger writes, which matters most when the batched profile
+   * writes the index asynchronously. It must stay below the index cache size, or the dirty pages
+   * are evicted before being written.
+   *
+   * @param indexWriteBatchSize The amount of pages
+   * @return BrokerSettings
+   */
+  public BrokerSettings setIndexWriteBatchSize(int indexWriteBatchSize) {
+    if (indexWriteBatchSize < 1) {
+      throw new IllegalArgumentException("The index write batch size must be greater than zero");
+    }
+    this.indexWriteBatchSize = indexWriteBatchSize;
+    return this;
+  }
+
+  /**
+   * Get the name of the topic that is also delivered to virtual topic consumer queues.
+   *
+   * @return String
+   */
+  public String getVirtualTopic() {
+    return virtualTopic;
+  }
+
+  /**
+   * Set the name of the topic that is also delivered to virtual topic consumer queues. Every
+   * message published to the topic is copied to each existing queue named
+   * "Consumer.&lt;group&gt;.&lt;topic&gt;", so the consumers of a group share the messages of the
+   * topic instead of each one receiving all of them. The topics named "VirtualTopic.&gt;" keep
+   * working as virtual topics.
+   *
+   * @param virtualTopic The name of the topic, null to only keep the default virtual topics
+   * @return BrokerSettings
+   */
+  public BrokerSettings setVirtualTopic(String virtualTopic) {
+    this.virtualTopic = virtualTopic;
+    return this;
+  }
+
+  /**
+   * Method responsible for creating the broker described by the settings, it still has to be
+   * started.
+   *
+   * @return BrokerService
+   * @throws Exception It's thrown in case the connector or the store could not be created
+   */
+  public BrokerService createBroker() throws Exception {
+    BrokerService broker = new BrokerService();
+    broker.setBrokerName(brokerName);
+    broker.setDataDirectory(dataDirectory);
+    if (persistenceProfile == PersistenceProfile.MEMORY) {
+      broker.setPersistent(false);
+    } else {
+      KahaDBPersistenceAdapter kahaDB = new KahaDBPersistenceAdapter();
+      kahaDB.setDirectory(new File(broker.getBrokerDataDirectory(), "KahaDB"));
+      kahaDB.setJournalMaxFileLength(journalMaxFileLength);
+      kahaDB.setIndexCacheSize(indexCacheSize);
+      kahaDB.setIndexWriteBatchSize(indexWriteBatchSize);
+      if (persistenceProfile == PersistenceProfile.KAHADB_BATCHED) {
+        kahaDB.setEnableJournalDiskSyncs(false);
+        kahaDB.setEnableIndexWriteAsync(true);
+        kahaDB.setConcurrentStoreAndDispatchQueues(true);
+      }
+      broker.setPersistenceAdapter(kahaDB);
+    }
+    if (virtualTopic != null) {
+      VirtualTopic defaultTopics = new VirtualTopic();
+      VirtualTopic topic = new VirtualTopic();
+      topic.setName(virtualTopic);
+      VirtualDestinationInterceptor interceptor = new VirtualDestinationInterceptor();
+      interceptor.setVirtualDestinations(new VirtualDestination[] {defaultTopics, topic});
+      broker.setDestinationInterceptors(new DestinationInterceptor[] {interceptor});
+    }
+    if (connectorUrl != null) {
+      broker.addConnector(connectorUrl);
+    }
+    return broker;
+  }
+}
@@ -0,0 +1,715 @@
+package com.mpeixoto.jms.consumer.config;
+
+import com.mpeixoto.jms.consumer.handler.CachingRequestHandler;
+import com.mpeixoto.jms.consumer.handler.RequestHandler;
+import com.mpeixoto.jms.consumer.stream.StreamHandler;
+import javax.jms.DeliveryMode;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
+
+/**
+ * Class responsible for holding the settings used by the consumer to talk to the broker.
+ *
+ * @author mpeixoto
+ */
+public class ConsumerSettings {
+  private String brokerUrl = "tcp://localhost:61616";
+  private String[] failoverUrls;
+  private long initialReconnectDelayMillis = 10;
+  private long maxReconnectDelayMillis = 1000;
+  private int concurrentConsumers = 1;
+  private int acknowledgeMode = Session.AUTO_ACKNOWLEDGE;
+  private ExecutionMode executionMode = ExecutionMode.INLINE;
+  private int handlerThreads = Runtime.getRuntime().availableProcessors();
+  private int maxPendingRequests = 10_000;
+  private int replyDeliveryMode = DeliveryMode.PERSISTENT;
+  private int queuePrefetch = ActiveMQPrefetchPolicy.DEFAULT_QUEUE_PREFETCH;
+  private int topicPrefetch = ActiveMQPrefetchPolicy.DEFAULT_TOPIC_PREFETCH;
+  private boolean optimizeAcknowledge;
+  private long optimizeAcknowledgeTimeOutMillis = 300;
+  private int acknowledgeBatchSize = 1;
+  private long acknowledgeBatchDelayMillis = 1000;
+  private int replyBatchSize = 1;
+  private long replyBatchWindowMicros = 1000;
+  private String topicConsumerGroup;
+  private StreamHandler streamHandler;
+  private long streamIdleTimeoutMillis = 60_000;
+  private int deduplicationCapacity;
+  private long deduplicationWindowMillis = 60_000;
+  private DeduplicationKey deduplicationKey = DeduplicationKey.MESSAGE_ID;
+  private int[] shards;
+  private RequestHandler requestHandler;
+  private int requestCacheSize;
+  private long requestCacheTtlMillis = 60_000;
+
+  /**
+   * Get the URL of the broker, a failover URL when the failover URLs are set.
+   *
+   * @return String
+   */
+  public String getBrokerUrl() {
+    if (failoverUrls == null) {
+      return brokerUrl;
+    }
+    return "failover:("
+        + String.join(",", failoverUrls)
+        + ")?randomize=false&trackMessages=true&useExponentialBackOff=true"
+        + "&initialReconnectDelay="
+        + initialReconnectDelayMillis
+        + "&maxReconnectDelay="
+        + maxReconnectDelayMillis;
+  }
+
+  /**
+   * Set the URL of the broker, it replaces the failover URLs.
+   *
+   * @param brokerUrl The URL of the broker
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setBrokerUrl(String brokerUrl) {
+    this.brokerUrl = brokerUrl;
+    this.failoverUrls = null;
+    return this;
+  }
+
+  /**
+   * Set the URLs of several brokers, the connection goes to the first one that answers and moves
+   * to the next one when it's lost. The consumers subscribe again on the new broker, and the
+   * replies the lost broker had not acknowledged are sent again.
+   *
+   * @param brokerUrls The URLs of the brokers, in the order they are tried
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setFailoverUrls(String... brokerUrls) {
+    if (brokerUrls.length == 0) {
+      throw new IllegalArgumentException("At least one broker URL is needed");
+    }
+    this.failoverUrls = brokerUrls.clone();
+    return this;
+  }
+
+  /**
+   * Get the delay in milliseconds before the first attempt to reconnect to a failover URL.
+   *
+   * @return long
+   */
+  public long getInitialReconnectDelayMillis() {
+    return initialReconnectDelayMillis;
+  }
+
+  /**
+   * Get the longest delay in milliseconds between two attempts to reconnect to a failover URL.
+   *
+   * @return long
+   */
+  public long getMaxReconnectDelayMillis() {
+    return maxReconnectDelayMillis;
+  }
+
+  /**
+   * Set the delays between the attempts to reconnect to a failover URL, the delay doubles after
+   * every failed attempt until it reaches the maximum.
+   *
+   * @param initialReconnectDelayMillis The delay before the first attempt
+   * @param maxReconnectDelayMillis The longest delay between two attempts
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setReconnectDelays(
+      long initialReconnectDelayMillis, long maxReconnectDelayMillis) {
+    if (initialReconnectDelayMillis < 1 || maxReconnectDelayMillis < initialReconnectDelayMillis) {
+      throw new IllegalArgumentException("The reconnect delays must be positive and in order");
+    }
+    this.initialReconnectDelayMillis = initialReconnectDelayMillis;
+    this.maxReconnectDelayMillis = maxReconnectDelayMillis;
+    return this;
+  }
+
+  /**
+   * Method responsible for creating the connection factory described by the settings.
+   *
+   * @return ActiveMQConnectionFactory
+   */
+  public ActiveMQConnectionFactory createConnectionFactory() {
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(getBrokerUrl());
+    connectionFactory.getPrefetchPolicy().setQueuePrefetch(queuePrefetch);
+    connectionFactory.getPrefetchPolicy().setTopicPrefetch(topicPrefetch);
+    connectionFactory.setOptimizeAcknowledge(optimizeAcknowledge);
+    connectionFactory.setOptimizeAcknowledgeTimeOut(optimizeAcknowledgeTimeOutMillis);
+    return connectionFactory;
+  }
+
+  /**
+   * Get the amount of sessions consuming the request queue at the same time.
+   *
+   * @return int
+   */
+  public int getConcurrentConsumers() {
+    return concurrentConsumers;
+  }
+
+  /**
+   * Set the amount of sessions consuming the request queue at the same time, each one has its own
+   * consumer, listener and reply producer.
+   *
+   * @param concurrentConsumers The amount of sessions
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setConcurrentConsumers(int concurrentConsumers) {
+    if (concurrentConsumers < 1) {
+      throw new IllegalArgumentException("The amount of consumers must be greater than zero");
+    }
+    this.concurrentConsumers = concurrentConsumers;
+    return this;
+  }
+
+  /**
+   * Get the acknowledge mode of the consumer sessions.
+   *
+   * @return int
+   */
+  public int getAcknowledgeMode() {
+    return acknowledgeMode;
+  }
+
+  /**
+   * Set the acknowledge mode of the consumer sessions, it's ignored when the requests are not
+   * handled inline because they are acknowledged one by one after being handled.
+   *
+   * @param acknowledgeMode Session.AUTO_ACKNOWLEDGE or Session.DUPS_OK_ACKNOWLEDGE
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setAcknowledgeMode(int acknowledgeMode) {
+    if (acknowledgeMode != Session.AUTO_ACKNOWLEDGE
+        && acknowledgeMode != Session.DUPS_OK_ACKNOWLEDGE) {
+      throw new IllegalArgumentException("Unsupported acknowledge mode " + acknowledgeMode);
+    }
+    this.acknowledgeMode = acknowledgeMode;
+    return this;
+  }
+
+  /**
+   * Get where the requests are handled.
+   *
+   * @return ExecutionMode
+   */
+  public ExecutionMode getExecutionMode() {
+    return executionMode;
+  }
+
+  /**
+   * Set where the requests are handled. When they are not handled inline, requests with the same
+   * JMSXGroupID are still handled in order and every message is acknowledged only after it was
+   * handled.
+   *
+   * @param executionMode Type: ExecutionMode
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setExecutionMode(ExecutionMode executionMode) {
+    this.executionMode = executionMode;
+    return this;
+  }
+
+  /**
+   * Get the amount of threads of the handler pool.
+   *
+   * @return int
+   */
+  public int getHandlerThreads() {
+    return handlerThreads;
+  }
+
+  /**
+   * Set the amount of threads of the handler pool.
+   *
+   * @param handlerThreads The amount of threads
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setHandlerThreads(int handlerThreads) {
+    if (handlerThreads < 1) {
+      throw new IllegalArgumentException("The amount of threads must be greater than zero");
+    }
+    this.handlerThreads = handlerThreads;
+    return this;
+  }
+
+  /**
+   * Get the maximum amount of requests waiting to be handled before the dispatch threads block.
+   *
+   * @return int
+   */
+  public int getMaxPendingRequests() {
+    return maxPendingRequests;
+  }
+
+  /**
+   * Set the maximum amount of requests waiting to be handled before the dispatch threads block.
+   *
+   * @param maxPendingRequests The amount of requests
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setMaxPendingRequests(int maxPendingRequests) {
+    if (maxPendingRequests < 1) {
+      throw new IllegalArgumentException("The amount of requests must be greater than zero");
+    }
+    this.maxPendingRequests = maxPendingRequests;
+    return this;
+  }
+
+  /**
+   * Get the delivery mode of the replies sent to the producer.
+   *
+   * @return int
+   */
+  public int getReplyDeliveryMode() {
+    return replyDeliveryMode;
+  }
+
+  /**
+   * Set the delivery mode of the replies sent to the producer. A reply is only useful to a
+   * producer that is still waiting for it, so it may be sent as non persistent to keep the journal
+   * write off the reply path, at the cost of losing it if the broker stops before delivering it.
+   *
+   * @param replyDeliveryMode DeliveryMode.PERSISTENT or DeliveryMode.NON_PERSISTENT
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setReplyDeliveryMode(int replyDeliveryMode) {
+    if (replyDeliveryMode != DeliveryMode.PERSISTENT
+        && replyDeliveryMode != DeliveryMode.NON_PERSISTENT) {
+      throw new IllegalArgumentException("Unsupported delivery mode " + replyDeliveryMode);
+    }
+    this.replyDeliveryMode = replyDeliveryMode;
+    return this;
+  }
+
+  /**
+   * Get the amount of requests the broker pushes to each queue consumer ahead of time.
+   *
+   * @return int
+   */
+  public int getQueuePrefetch() {
+    return queuePrefetch;
+  }
+
+  /**
+   * Set the amount of requests the broker pushes to each queue consumer ahead of time. A big
+   * prefetch keeps the consumer buffer full under load, a prefetch of 1 spreads the requests
+   * fairly when many consumers share the queue, and 0 makes every consumer poll.
+   *
+   * @param queuePrefetch The amount of messages
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setQueuePrefetch(int queuePrefetch) {
+    if (queuePrefetch < 0) {
+      throw new IllegalArgumentException("The prefetch must not be negative");
+    }
+    this.queuePrefetch = queuePrefetch;
+    return this;
+  }
+
+  /**
+   * Get the amount of messages the broker pushes to each topic subscriber ahead of time.
+   *
+   * @return int
+   */
+  public int getTopicPrefetch() {
+    return topicPrefetch;
+  }
+
+  /**
+   * Set the amount of messages the broker pushes to each topic subscriber ahead of time.
+   *
+   * @param topicPrefetch The amount of messages
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setTopicPrefetch(int topicPrefetch) {
+    if (topicPrefetch < 0) {
+      throw new IllegalArgumentException("The prefetch must not be negative");
+    }
+    this.topicPrefetch = topicPrefetch;
+    return this;
+  }
+
+  /**
+   * Get whether the automatic acknowledgements are sent in batches.
+   *
+   * @return boolean
+   */
+  public boolean isOptimizeAcknowledge() {
+    return optimizeAcknowledge;
+  }
+
+  /**
+   * Set whether the automatic acknowledgements are sent in batches. The client then acknowledges
+   * once 65% of the prefetch was consumed, or once the time out elapsed, so the batch size follows
+   * the prefetch. It only applies to sessions in Session.AUTO_ACKNOWLEDGE.
+   *
+   * @param optimizeAcknowledge true to batch the acknowledgements
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setOptimizeAcknowledge(boolean optimizeAcknowledge) {
+    this.optimizeAcknowledge = optimizeAcknowledge;
+    return this;
+  }
+
+  /**
+   * Get how long a batch of optimized acknowledgements may wait before being sent.
+   *
+   * @return long
+   */
+  public long getOptimizeAcknowledgeTimeOutMillis() {
+    return optimizeAcknowledgeTimeOutMillis;
+  }
+
+  /**
+   * Set how long a batch of optimized acknowledgements may wait before being sent.
+   *
+   * @param optimizeAcknowledgeTimeOutMillis The time out in milliseconds
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setOptimizeAcknowledgeTimeOutMillis(
+      long optimizeAcknowledgeTimeOutMillis) {
+    if (optimizeAcknowledgeTimeOutMillis < 0) {
+      throw new IllegalArgumentException("The time out must not be negative");
+    }
+    this.optimizeAcknowledgeTimeOutMillis = optimizeAcknowledgeTimeOutMillis;
+    return this;
+  }
+
+  /**
+   * Get the amount of requests acknowledged at once by the listener.
+   *
+   * @return int
+   */
+  public int getAcknowledgeBatchSize() {
+    return acknowledgeBatchSize;
+  }
+
+  /**
+   * Set the amount of requests acknowledged at once by the listener. Above 1 the requests handled
+   * inline are consumed in Session.CLIENT_ACKNOWLEDGE, which overrides the acknowledge mode, and
+   * every Nth request acknowledges the ones before it, or the acknowledge batch delay after the
+   * oldest of them. Requests handled but not yet acknowledged are delivered again if the consumer
+   * stops, so the handler must tolerate duplicates.
+   *
+   * @param acknowledgeBatchSize The amount of requests, 1 to acknowledge each one
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setAcknowledgeBatchSize(int acknowledgeBatchSize) {
+    if (acknowledgeBatchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be greater than zero");
+    }
+    this.acknowledgeBatchSize = acknowledgeBatchSize;
+    return this;
+  }
+
+  /**
+   * Get the longest time in milliseconds a handled request waits for its batch to be acknowledged.
+   *
+   * @return long
+   */
+  public long getAcknowledgeBatchDelayMillis() {
+    return acknowledgeBatchDelayMillis;
+  }
+
+  /**
+   * Set the longest time in milliseconds a handled request waits for its batch to be acknowledged,
+   * so the requests handled while the traffic is too low to fill a batch are acknowledged too.
+   *
+   * @param acknowledgeBatchDelayMillis The time in milliseconds, it must be greater than zero
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setAcknowledgeBatchDelayMillis(long acknowledgeBatchDelayMillis) {
+    if (acknowledgeBatchDelayMillis < 1) {
+      throw new IllegalArgumentException("The batch delay must be greater than zero");
+    }
+    this.acknowledgeBatchDelayMillis = acknowledgeBatchDelayMillis;
+    return this;
+  }
+
+  /**
+   * Get the maximum amount of replies coalesced into one message.
+   *
+   * @return int
+   */
+  public int getReplyBatchSize() {
+    return replyBatchSize;
+  }
+
+  /**
+   * Set the maximum amount of replies coalesced into one message. Above 1 the replies are buffered
+   * per destination and sent as a single message with one entry per reply, once the batch is full
+   * or its oldest reply has waited for the reply batch window. The requests are acknowledged before
+   * their replies are sent, so the replies still buffered when the consumer stops abruptly are
+   * lost.
+   *
+   * @param replyBatchSize The amount of replies, 1 to send each reply on its own
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setReplyBatchSize(int replyBatchSize) {
+    if (replyBatchSize < 1) {
+      throw new IllegalArgumentException("The batch size must be greater than zero");
+    }
+    this.replyBatchSize = replyBatchSize;
+    return this;
+  }
+
+  /**
+   * Get the maximum time in microseconds a reply waits for its batch to be sent.
+   *
+   * @return long
+   */
+  public long getReplyBatchWindowMicros() {
+    return replyBatchWindowMicros;
+  }
+
+  /**
+   * Set the maximum time in microseconds a reply waits for its batch to be sent. It's the latency
+   * added to a reply when the requests arrive too slowly to fill a batch.
+   *
+   * @param replyBatchWindowMicros The time in microseconds, it must be greater than zero
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setReplyBatchWindowMicros(long replyBatchWindowMicros) {
+    if (replyBatchWindowMicros < 1) {
+      throw new IllegalArgumentException("The batch window must be greater than zero");
+    }
+    this.replyBatchWindowMicros = replyBatchWindowMicros;
+    return this;
+  }
+
+  /**
+   * Get the group whose consumers share the messages of the topic.
+   *
+   * @return String
+   */
+  public String getTopicConsumerGroup() {
+    return topicConsumerGroup;
+  }
+
+  /**
+   * Set the group whose consumers share the messages of the topic. With a group, the topic is
+   * consumed from its virtual topic queue "Consumer.&lt;group&gt;.topicJms", so the consumers of
+   * the same group load balance the topic messages and the messages wait in the queue while the
+   * consumers are slow. The broker must declare the topic as a virtual topic, and it only copies
+   * the messages published after the queue was created by the first consumer of the group.
+   *
+   * @param topicConsumerGroup The name of the group, null to subscribe to the topic itself
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setTopicConsumerGroup(String topicConsumerGroup) {
+    if (topicConsumerGroup != null
+        && (topicConsumerGroup.isEmpty() || topicConsumerGroup.contains("."))) {
+      throw new IllegalArgumentException("The group must be a non empty name without dots");
+    }
+    this.topicConsumerGroup = topicConsumerGroup;
+    return this;
+  }
+
+  /**
+   * Get the handler of the streams sent in chunks by the producer.
+   *
+   * @return StreamHandler
+   */
+  public StreamHandler getStreamHandler() {
+    return streamHandler;
+  }
+
+  /**
+   * Set the handler of the streams sent in chunks by the producer. Every listener writes the
+   * chunks it receives to the channels opened by the handler, so it must be thread safe.
+   *
+   * @param streamHandler The handler, null to only log the size of the streams
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setStreamHandler(StreamHandler streamHandler) {
+    this.streamHandler = streamHandler;
+    return this;
+  }
+
+  /**
+   * Get how long a stream waits for its next chunk before being aborted, in milliseconds.
+   *
+   * @return long
+   */
+  public long getStreamIdleTimeoutMillis() {
+    return streamIdleTimeoutMillis;
+  }
+
+  /**
+   * Set how long a stream waits for its next chunk before being aborted, so the channel of a
+   * stream whose producer died before its last chunk is closed. It must cover the time the
+   * chunks of a stream wait behind the other messages prefetched by the consumer.
+   *
+   * @param streamIdleTimeoutMillis The time in milliseconds, it must be greater than zero
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setStreamIdleTimeoutMillis(long streamIdleTimeoutMillis) {
+    if (streamIdleTimeoutMillis < 1) {
+      throw new IllegalArgumentException("The idle timeout must be greater than zero");
+    }
+    this.streamIdleTimeoutMillis = streamIdleTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Get the amount of recent request ids remembered to drop the duplicates.
+   *
+   * @return int, 0 when the duplicates are not dropped
+   */
+  public int getDeduplicationCapacity() {
+    return deduplicationCapacity;
+  }
+
+  /**
+   * Get how long a request id is remembered to drop the duplicates, in milliseconds.
+   *
+   * @return long
+   */
+  public long getDeduplicationWindowMillis() {
+    return deduplicationWindowMillis;
+  }
+
+  /**
+   * Set how many request ids are remembered, and for how long, to drop the requests delivered
+   * again after a failover or a redelivery instead of answering them twice. A request is dropped
+   * when its id is among the last ids seen in the window, a request whose handling failed is not
+   * remembered. Every listener shares the same ids.
+   *
+   * @param capacity The amount of ids, 0 to answer every request
+   * @param windowMillis How long an id is remembered, at least 4 milliseconds
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setDeduplication(int capacity, long windowMillis) {
+    if (capacity < 0 || windowMillis < 4) {
+      throw new IllegalArgumentException("The capacity and the window must be positive");
+    }
+    this.deduplicationCapacity = capacity;
+    this.deduplicationWindowMillis = windowMillis;
+    return this;
+  }
+
+  /**
+   * Get the id used to drop the duplicated requests.
+   *
+   * @return DeduplicationKey
+   */
+  public DeduplicationKey getDeduplicationKey() {
+    return deduplicationKey;
+  }
+
+  /**
+   * Set the id used to drop the duplicated requests.
+   *
+   * @param deduplicationKey The JMSMessageID or the JMSCorrelationID
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setDeduplicationKey(DeduplicationKey deduplicationKey) {
+    if (deduplicationKey == null) {
+      throw new IllegalArgumentException("The deduplication key is needed");
+    }
+    this.deduplicationKey = deduplicationKey;
+    return this;
+  }
+
+  /**
+   * Get the shards of the request queue consumed by this consumer.
+   *
+   * @return Array of int, null when the request queue is not sharded
+   */
+  public int[] getShards() {
+    return shards == null ? null : shards.clone();
+  }
+
+  /**
+   * Set the shards of the request queue consumed by this consumer, instead of
+   * request.message.queue. The producer sends the requests of a key to the queue
+   * request.message.queue.N of its shard, so the consumers sharing the shards between them handle
+   * the requests of every key in order.
+   *
+   * @param shards The numbers of the shards, none to consume request.message.queue
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setShards(int... shards) {
+    for (int shard : shards) {
+      if (shard < 0) {
+        throw new IllegalArgumentException("The shard numbers can't be negative");
+      }
+    }
+    this.shards = shards.length == 0 ? null : shards.clone();
+    return this;
+  }
+
+  /**
+   * Get the handler that answers the requests.
+   *
+   * @return RequestHandler, null when every request gets the default answer
+   */
+  public RequestHandler getRequestHandler() {
+    return requestHandler;
+  }
+
+  /**
+   * Set the handler that answers the requests, instead of the default answer of the
+   * MessageReceiver. Every listener calls it, so it must be thread safe.
+   *
+   * @param requestHandler The handler, null to answer with the default answer
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setRequestHandler(RequestHandler requestHandler) {
+    this.requestHandler = requestHandler;
+    return this;
+  }
+
+  /**
+   * Get the amount of answers kept in memory.
+   *
+   * @return int, 0 when the handler answers every request
+   */
+  public int getRequestCacheSize() {
+    return requestCacheSize;
+  }
+
+  /**
+   * Get how long an answer kept in memory is reused, in milliseconds.
+   *
+   * @return long
+   */
+  public long getRequestCacheTtlMillis() {
+    return requestCacheTtlMillis;
+  }
+
+  /**
+   * Set how many answers of the handler are kept in memory, and for how long, so a repeated
+   * request is answered without calling the handler. The requests are matched by {@link
+   * RequestHandler#cacheKey(String)}, and every listener shares the same answers.
+   *
+   * @param maxEntries The amount of answers, 0 to call the handler for every request
+   * @param ttlMillis How long an answer is reused, at least 1 millisecond
+   * @return ConsumerSettings
+   */
+  public ConsumerSettings setRequestCache(int maxEntries, long ttlMillis) {
+    if (maxEntries < 0 || ttlMillis < 1) {
+      throw new IllegalArgumentException(
+          "The size must not be negative and the time to live must be positive");
+    }
+    this.requestCacheSize = maxEntries;
+    this.requestCacheTtlMillis = ttlMillis;
+    return this;
+  }
+
+  /**
+   * Method responsible for creating the handler described by the settings, shared by every
+   * listener of the consumer.
+   *
+   * @param defaultHandler The handler used when none was set
+   * @return RequestHandler, wrapped in a {@link CachingRequestHandler} when the cache is enabled
+   */
+  public RequestHandler createRequestHandler(RequestHandler defaultHandler) {
+    RequestHandler handler = requestHandler == null ? defaultHandler : requestHandler;
+    if (requestCacheSize == 0) {
+      return handler;
+    }
+    return new CachingRequestHandler(handler, requestCacheSize, requestCacheTtlMillis);
+  }
+}
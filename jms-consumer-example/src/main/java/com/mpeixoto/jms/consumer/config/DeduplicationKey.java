@@ -0,0 +1,16 @@
+package com.mpeixoto.jms.consumer.config;
+
+/**
+ * Enum responsible for describing which id tells two deliveries of the same request apart.
+ *
+ * @author mpeixoto
+ */
+public enum DeduplicationKey {
+  /** The JMSMessageID, the same for a message redelivered by the broker or resent by failover. */
+  MESSAGE_ID,
+  /**
+   * The JMSCorrelationID, which also catches a request sent again by the producer as a new
+   * message. The messages without one fall back to the JMSMessageID.
+   */
+  CORRELATION_ID
+}
@@ -0,0 +1,15 @@
+package com.mpeixoto.jms.consumer.config;
+
+/**
+ * Enum responsible for describing where the requests are handled.
+ *
+ * @author mpeixoto
+ */
+public enum ExecutionMode {
+  /** The request is handled by the JMS dispatch thread that received it. */
+  INLINE,
+  /** The request is handed to a fixed pool of handler threads. */
+  POOL,
+  /** The request is handed to a new virtual thread, or to the pool when the JDK lacks them. */
+  VIRTUAL_THREADS
+}
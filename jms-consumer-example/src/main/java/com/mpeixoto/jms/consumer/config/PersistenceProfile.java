@@ -0,0 +1,18 @@
+package com.mpeixoto.jms.consumer.config;
+
+/**
+ * Enum responsible for describing how the embedded broker stores the persistent messages.
+ *
+ * @author mpeixoto
+ */
+public enum PersistenceProfile {
+  /** The messages are kept in memory only and are lost when the broker stops. */
+  MEMORY,
+  /** The messages are stored in KahaDB and the journal is synced to disk on every write. */
+  KAHADB,
+  /**
+   * The messages are stored in KahaDB, but the journal writes are batched and synced by the
+   * operating system, so the last writes may be lost if the machine stops.
+   */
+  KAHADB_BATCHED
+}
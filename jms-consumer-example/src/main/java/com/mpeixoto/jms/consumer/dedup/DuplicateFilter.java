@@ -0,0 +1,99 @@
+package com.mpeixoto.jms.consumer.dedup;
+
+import com.mpeixoto.jms.consumer.metrics.DeduplicationStats;
+import com.mpeixoto.jms.consumer.metrics.MessageMetrics;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Class responsible for recognizing the ids already seen in a recent window. The ids are kept in
+ * a map bounded by the capacity, in the order they were first seen, with the instant they were
+ * seen: the oldest id is dropped once the map is full, and the ids older than the window are
+ * dropped as the window moves. Every new id has to be recorded exactly so its copies are
+ * recognized, so a probabilistic filter in front of the map would save neither the lookup nor the
+ * write, and the memory is bounded by the capacity alone.
+ *
+ * @author mpeixoto
+ */
+public class DuplicateFilter {
+  private final DeduplicationStats stats;
+  private final LongSupplier nanoClock;
+  private final long windowNanos;
+  private final Map<String, Long> recent;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param name The name of the counters of the filter
+   * @param capacity The amount of recent ids that are remembered
+   * @param windowMillis How long an id is remembered
+   */
+  public DuplicateFilter(String name, int capacity, long windowMillis) {
+    this(MessageMetrics.get().deduplication(name), capacity, windowMillis, System::nanoTime);
+  }
+
+  DuplicateFilter(
+      DeduplicationStats stats, int capacity, long windowMillis, LongSupplier nanoClock) {
+    if (capacity < 1 || windowMillis < 1) {
+      throw new IllegalArgumentException("The capacity and the window must be positive");
+    }
+    this.stats = stats;
+    this.nanoClock = nanoClock;
+    windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    recent =
+        new LinkedHashMap<String, Long>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Method responsible for telling whether the id was seen in the window, and remembering it when
+   * it wasn't.
+   *
+   * @param id The id of the message
+   * @return boolean true when the id is a duplicate
+   */
+  public synchronized boolean isDuplicate(String id) {
+    long now = nanoClock.getAsLong();
+    expire(now);
+    if (recent.containsKey(id)) {
+      stats.hit();
+      return true;
+    }
+    recent.put(id, now);
+    stats.miss();
+    return false;
+  }
+
+  /**
+   * Method responsible for forgetting an id, so the message is not taken for a duplicate when it's
+   * delivered again after its handling failed.
+   *
+   * @param id The id of the message
+   */
+  public synchronized void forget(String id) {
+    recent.remove(id);
+  }
+
+  /**
+   * Get the amount of ids remembered.
+   *
+   * @return int
+   */
+  synchronized int size() {
+    return recent.size();
+  }
+
+  private void expire(long now) {
+    Iterator<Long> seenAt = recent.values().iterator();
+    while (seenAt.hasNext() && now - seenAt.next() >= windowNanos) {
+      seenAt.remove();
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.mpeixoto.jms.consumer.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.mpeixoto.jms.consumer.exception.MessageException;
+import com.mpeixoto.jms.consumer.metrics.MessageMetrics;
+import com.mpeixoto.jms.consumer.metrics.RequestCacheStats;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for keeping the answers of a {@link RequestHandler} in memory, keyed by the
+ * normalized request, so a repeated request is answered without calling the handler again. A
+ * request without a key, such as a message missing its request, always goes to the handler. The
+ * cache is bounded by its size, evicting with W-TinyLFU the answers least likely to be asked
+ * again, and by the time an answer may be reused. Its hits, misses and evictions are counted in
+ * a {@link RequestCacheStats}.
+ *
+ * @author mpeixoto
+ */
+public class CachingRequestHandler implements RequestHandler {
+  private final RequestHandler delegate;
+  private final RequestCacheStats stats;
+  private final Cache<String, String> answers;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param delegate The handler that answers the requests missing from the cache
+   * @param maxEntries The amount of answers kept
+   * @param ttlMillis How long an answer is reused, in milliseconds
+   */
+  public CachingRequestHandler(RequestHandler delegate, int maxEntries, long ttlMillis) {
+    this(
+        delegate,
+        maxEntries,
+        ttlMillis,
+        MessageMetrics.get().requestCache("requests"),
+        Ticker.systemTicker());
+  }
+
+  CachingRequestHandler(
+      RequestHandler delegate,
+      int maxEntries,
+      long ttlMillis,
+      RequestCacheStats stats,
+      Ticker ticker) {
+    if (maxEntries < 1 || ttlMillis < 1) {
+      throw new IllegalArgumentException("The size and the time to live must be positive");
+    }
+    this.delegate = delegate;
+    this.stats = stats;
+    this.answers =
+        Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .ticker(ticker)
+            // The maintenance only counts the evictions, it's cheaper on the caller thread
+            .executor(Runnable::run)
+            .removalListener(
+                (String key, String answer, RemovalCause cause) -> {
+                  if (cause.wasEvicted()) {
+                    stats.eviction();
+                  }
+                })
+            .build();
+  }
+
+  @Override
+  public String handle(String request) throws MessageException {
+    String cacheKey = delegate.cacheKey(request);
+    if (cacheKey == null) {
+      return delegate.handle(request);
+    }
+    boolean[] missed = new boolean[1];
+    String answer;
+    try {
+      // Concurrent misses on the same key wait for the first one instead of all calling the handler
+      answer =
+          answers.get(
+              cacheKey,
+              key -> {
+                missed[0] = true;
+                try {
+                  return delegate.handle(request);
+                } catch (MessageException e) {
+                  throw new HandlerFailure(e);
+                }
+              });
+    } catch (HandlerFailure e) {
+      stats.miss();
+      throw e.getCause();
+    }
+    if (missed[0]) {
+      stats.miss();
+    } else {
+      stats.hit();
+    }
+    return answer;
+  }
+
+  @Override
+  public String cacheKey(String request) {
+    return delegate.cacheKey(request);
+  }
+
+  /** Carries the failure of the handler out of the loading function of the cache. */
+  private static class HandlerFailure extends RuntimeException {
+    HandlerFailure(MessageException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized MessageException getCause() {
+      return (MessageException) super.getCause();
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.mpeixoto.jms.consumer.handler;
+
+import com.mpeixoto.jms.consumer.exception.MessageException;
+
+/**
+ * Interface responsible for answering the requests received by the consumer. The answer is sent
+ * back to the producer as the response of the reply. Every listener calls the same handler, so it
+ * must be thread safe.
+ *
+ * @author mpeixoto
+ */
+public interface RequestHandler {
+
+  /**
+   * Method responsible for answering a request.
+   *
+   * @param request The request that was received
+   * @return String the answer
+   * @throws MessageException It's thrown in case the request could not be answered, the request
+   *     is then not acknowledged
+   */
+  String handle(String request) throws MessageException;
+
+  /**
+   * Method responsible for normalizing a request into the key of its answer in a {@link
+   * CachingRequestHandler}, two requests with the same key get the same answer. By default the
+   * time the producer appends to every request is dropped, as well as the leading and trailing
+   * whitespace, and every other run of whitespace counts as a single space.
+   *
+   * @param request The request that was received, null when the message had none
+   * @return String, null for a request whose answer must not be cached
+   */
+  default String cacheKey(String request) {
+    return RequestKeys.normalize(request);
+  }
+}
@@ -0,0 +1,34 @@
+package com.mpeixoto.jms.consumer.handler;
+
+import java.util.regex.Pattern;
+
+/**
+ * Class responsible for normalizing the requests into the keys of their answers. The producer
+ * appends the minute it sent a request at, formatted as {@code HH:mm dd/MM/yyyy}, so that suffix is
+ * dropped for the same request to get the same key whenever it was sent.
+ *
+ * @author mpeixoto
+ */
+final class RequestKeys {
+  private static final Pattern SENT_AT_SUFFIX =
+      Pattern.compile("\\s*\\d{2}:\\d{2} \\d{2}/\\d{2}/\\d{4}\\s*$");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private RequestKeys() {}
+
+  /**
+   * Method responsible for normalizing a request, dropping the time the producer appended to it,
+   * the leading and trailing whitespace, and counting every other run of whitespace as a single
+   * space.
+   *
+   * @param request The request that was received
+   * @return String, null when there is no request
+   */
+  static String normalize(String request) {
+    if (request == null) {
+      return null;
+    }
+    String body = SENT_AT_SUFFIX.matcher(request).replaceFirst("");
+    return WHITESPACE.matcher(body.trim()).replaceAll(" ");
+  }
+}
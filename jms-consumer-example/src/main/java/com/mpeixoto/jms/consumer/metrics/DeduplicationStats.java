@@ -0,0 +1,50 @@
+package com.mpeixoto.jms.consumer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class responsible for counting the messages seen by a duplicate filter: the hits are the
+ * duplicates that were dropped and the misses the messages that went through.
+ *
+ * @author mpeixoto
+ */
+public class DeduplicationStats implements DeduplicationStatsMBean {
+  private final String name;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  DeduplicationStats(String name) {
+    this.name = name;
+  }
+
+  /** Method responsible for counting a duplicate that was dropped. */
+  public void hit() {
+    hits.increment();
+  }
+
+  /** Method responsible for counting a message that went through. */
+  public void miss() {
+    misses.increment();
+  }
+
+  String summary() {
+    return String.format("%s hits=%d misses=%d", name, hits.sum(), misses.sum());
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public double getHitRatio() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+}
@@ -0,0 +1,15 @@
+package com.mpeixoto.jms.consumer.metrics;
+
+/**
+ * Interface responsible for exposing the counters of a duplicate filter through JMX.
+ *
+ * @author mpeixoto
+ */
+public interface DeduplicationStatsMBean {
+
+  long getHits();
+
+  long getMisses();
+
+  double getHitRatio();
+}
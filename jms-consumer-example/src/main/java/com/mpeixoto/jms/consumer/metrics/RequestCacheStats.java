@@ -0,0 +1,62 @@
+package com.mpeixoto.jms.consumer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class responsible for counting the requests answered by a cache: the hits are the requests
+ * answered from memory, the misses the ones handed to the handler, and the evictions the answers
+ * dropped to keep the cache within its size or its time to live.
+ *
+ * @author mpeixoto
+ */
+public class RequestCacheStats implements RequestCacheStatsMBean {
+  private final String name;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  RequestCacheStats(String name) {
+    this.name = name;
+  }
+
+  /** Method responsible for counting a request answered from the cache. */
+  public void hit() {
+    hits.increment();
+  }
+
+  /** Method responsible for counting a request handed to the handler. */
+  public void miss() {
+    misses.increment();
+  }
+
+  /** Method responsible for counting an answer dropped from the cache. */
+  public void eviction() {
+    evictions.increment();
+  }
+
+  String summary() {
+    return String.format("%s cache hitRatio=%.3f", name, getHitRatio());
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public double getHitRatio() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+}
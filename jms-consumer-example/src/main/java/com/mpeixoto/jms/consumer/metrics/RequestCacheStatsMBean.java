@@ -0,0 +1,17 @@
+package com.mpeixoto.jms.consumer.metrics;
+
+/**
+ * Interface responsible for exposing the counters of a cache of answers through JMX.
+ *
+ * @author mpeixoto
+ */
+public interface RequestCacheStatsMBean {
+
+  long getHits();
+
+  long getMisses();
+
+  long getEvictions();
+
+  double getHitRatio();
+}
@@ -0,0 +1,125 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+
+/**
+ * Class responsible for acknowledging the messages of a Session.CLIENT_ACKNOWLEDGE session in
+ * batches. Acknowledging a message acknowledges every message consumed before it by the session,
+ * so a single acknowledgement is sent to the broker for every batch. A session dispatches to its
+ * listeners from a single thread, so every session needs its own instance.
+ *
+ * <p>A batch is also acknowledged once its oldest message has waited for the maximum delay, so
+ * the messages handled while the traffic is low don't stay unacknowledged. That acknowledgement
+ * is sent by a background thread between two messages, so a message the session has just
+ * dispatched but not yet handed to the listener may be acknowledged with the batch.
+ *
+ * @author mpeixoto
+ */
+class BatchAcknowledgingListener implements MessageListener {
+  private static final ScheduledExecutorService FLUSHER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "ack-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final MessageListener delegate;
+  private final int batchSize;
+  private final long maxDelayNanos;
+  private final LongSupplier nanoClock;
+  private ScheduledFuture<?> flush;
+  private int unacknowledged;
+  private Message lastMessage;
+  private long firstUnacknowledgedNanos;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param delegate The listener that handles the messages
+   * @param batchSize The amount of messages acknowledged at once
+   * @param maxDelayMillis The longest time a handled message waits for its acknowledgement
+   */
+  BatchAcknowledgingListener(MessageListener delegate, int batchSize, long maxDelayMillis) {
+    this(delegate, batchSize, maxDelayMillis, System::nanoTime);
+    long period = Math.max(1, maxDelayMillis / 2);
+    flush =
+        FLUSHER.scheduleWithFixedDelay(
+            this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  BatchAcknowledgingListener(
+      MessageListener delegate, int batchSize, long maxDelayMillis, LongSupplier nanoClock) {
+    this.delegate = delegate;
+    this.batchSize = batchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Method responsible for handing the message to the delegate and acknowledging the batch once
+   * it's full.
+   *
+   * @param message The message that was received
+   */
+  @Override
+  public synchronized void onMessage(Message message) {
+    delegate.onMessage(message);
+    if (unacknowledged++ == 0) {
+      firstUnacknowledgedNanos = nanoClock.getAsLong();
+    }
+    lastMessage = message;
+    if (unacknowledged >= batchSize) {
+      acknowledge();
+    }
+  }
+
+  /**
+   * Method responsible for acknowledging the batch once its oldest message has waited for the
+   * maximum delay, it's called periodically by a background thread.
+   */
+  synchronized void flushExpired() {
+    if (unacknowledged > 0 && nanoClock.getAsLong() - firstUnacknowledgedNanos >= maxDelayNanos) {
+      acknowledge();
+    }
+  }
+
+  /**
+   * Method responsible for stopping the background acknowledgements and acknowledging the
+   * messages already handled, it must be called before the session is closed.
+   */
+  synchronized void close() {
+    if (flush != null) {
+      flush.cancel(false);
+    }
+    if (unacknowledged > 0) {
+      acknowledge();
+    }
+  }
+
+  /**
+   * Get the amount of messages handled since the last acknowledgement.
+   *
+   * @return int
+   */
+  synchronized int getUnacknowledged() {
+    return unacknowledged;
+  }
+
+  private void acknowledge() {
+    unacknowledged = 0;
+    Message message = lastMessage;
+    lastMessage = null;
+    try {
+      message.acknowledge();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.dedup.DuplicateFilter;
+import com.mpeixoto.jms.consumer.handler.RequestHandler;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+/**
+ * Class responsible for consuming a queue on its own session, with its own listener and reply
+ * producer, so it runs on its own dispatch thread.
+ *
+ * @author mpeixoto
+ */
+class ConsumerWorker {
+  private final Session session;
+  private final MessageConsumer consumer;
+  private final MapMessageListener mapMessageListener;
+  private final MessageListener messageListener;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param connection The connection shared by every worker
+   * @param queueName The name of the queue that will be consumed
+   * @param acknowledgeMode The acknowledge mode of the session
+   * @param settings The settings that hold the reply options and the acknowledge batch
+   * @param keyOrderedExecutor The executor that handles the requests, null to handle them inline
+   * @param duplicateFilter The filter of the duplicated requests, null to answer every request
+   * @param requestHandler The handler shared by every listener of the consumer
+   * @throws JMSException It's thrown in case it wasn't possible to create the session
+   */
+  ConsumerWorker(
+      Connection connection,
+      String queueName,
+      int acknowledgeMode,
+      ConsumerSettings settings,
+      KeyOrderedExecutor keyOrderedExecutor,
+      DuplicateFilter duplicateFilter,
+      RequestHandler requestHandler)
+      throws JMSException {
+    session = connection.createSession(false, acknowledgeMode);
+    consumer = session.createConsumer(session.createQueue(queueName));
+    mapMessageListener = MapMessageListener.create(session, settings, requestHandler);
+    messageListener =
+        MessageReceiver.decorate(
+            mapMessageListener, settings, keyOrderedExecutor, duplicateFilter);
+  }
+
+  /**
+   * Method responsible for starting to listen to the queue.
+   *
+   * @throws JMSException It's thrown in case it wasn't possible to register the listener
+   */
+  void start() throws JMSException {
+    consumer.setMessageListener(messageListener);
+  }
+
+  /**
+   * Method responsible for sending the pending replies, acknowledging the requests already handled
+   * and closing the session of the worker.
+   */
+  void close() {
+    mapMessageListener.close();
+    if (messageListener instanceof BatchAcknowledgingListener) {
+      ((BatchAcknowledgingListener) messageListener).close();
+    }
+    try {
+      session.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.consumer.config.DeduplicationKey;
+import com.mpeixoto.jms.consumer.dedup.DuplicateFilter;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+
+/**
+ * Class responsible for dropping the requests a {@link DuplicateFilter} has already seen, before
+ * they reach the delegate. A dropped request is still acknowledged by the listeners around this
+ * one. When the delegate fails the id is forgotten, so the redelivery of the request is handled.
+ *
+ * @author mpeixoto
+ */
+class DeduplicatingListener implements MessageListener {
+  private final MessageListener delegate;
+  private final DuplicateFilter duplicateFilter;
+  private final DeduplicationKey deduplicationKey;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param delegate The listener that handles the messages
+   * @param duplicateFilter The filter shared by every listener of the consumer
+   * @param deduplicationKey The id that tells the requests apart
+   */
+  DeduplicatingListener(
+      MessageListener delegate,
+      DuplicateFilter duplicateFilter,
+      DeduplicationKey deduplicationKey) {
+    this.delegate = delegate;
+    this.duplicateFilter = duplicateFilter;
+    this.deduplicationKey = deduplicationKey;
+  }
+
+  /**
+   * Method responsible for handing the message to the delegate unless it's a duplicate.
+   *
+   * @param message The message that was received
+   */
+  @Override
+  public void onMessage(Message message) {
+    String id = idOf(message);
+    if (id != null && duplicateFilter.isDuplicate(id)) {
+      return;
+    }
+    try {
+      delegate.onMessage(message);
+    } catch (RuntimeException e) {
+      if (id != null) {
+        duplicateFilter.forget(id);
+      }
+      throw e;
+    }
+  }
+
+  private String idOf(Message message) {
+    try {
+      if (deduplicationKey == DeduplicationKey.CORRELATION_ID
+          && message.getJMSCorrelationID() != null) {
+        return message.getJMSCorrelationID();
+      }
+      return message.getJMSMessageID();
+    } catch (JMSException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+}
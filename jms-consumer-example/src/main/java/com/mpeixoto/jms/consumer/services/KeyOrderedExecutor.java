@@ -0,0 +1,134 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.config.ExecutionMode;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Class responsible for running tasks in parallel while the tasks that share a key still run one
+ * after the other, in the order they were submitted. A task that fails, even with an Error, is
+ * logged and the next tasks of its key still run.
+ *
+ * @author mpeixoto
+ */
+class KeyOrderedExecutor implements AutoCloseable {
+  private static final Logger LOGGER = LogManager.getLogger(KeyOrderedExecutor.class);
+  private final ConcurrentMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+  private final ExecutorService executorService;
+  private final Semaphore pending;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param executorService The executor that runs the tasks
+   * @param maxPending The maximum amount of tasks waiting to run before the callers block
+   */
+  KeyOrderedExecutor(ExecutorService executorService, int maxPending) {
+    this.executorService = executorService;
+    this.pending = new Semaphore(maxPending);
+  }
+
+  /**
+   * Method responsible for creating the executor described by the settings.
+   *
+   * @param settings Type: ConsumerSettings
+   * @return KeyOrderedExecutor
+   */
+  static KeyOrderedExecutor create(ConsumerSettings settings) {
+    ExecutorService executorService = null;
+    if (settings.getExecutionMode() == ExecutionMode.VIRTUAL_THREADS) {
+      executorService = newVirtualThreadPerTaskExecutor();
+    }
+    if (executorService == null) {
+      AtomicInteger counter = new AtomicInteger();
+      executorService =
+          Executors.newFixedThreadPool(
+              settings.getHandlerThreads(),
+              runnable -> {
+                Thread thread = new Thread(runnable, "request-handler-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return new KeyOrderedExecutor(executorService, settings.getMaxPendingRequests());
+  }
+
+  /**
+   * Method responsible for submitting a task. It blocks while too many tasks are waiting to run.
+   *
+   * @param key The ordering key, tasks without a key have no ordering guarantee
+   * @param task The task that will be run
+   */
+  void execute(String key, Runnable task) {
+    pending.acquireUninterruptibly();
+    Runnable guarded =
+        () -> {
+          try {
+            task.run();
+          } catch (Throwable e) {
+            // Nothing may escape, or the chain of the key would skip its next tasks and permits
+            LOGGER.error("Error while handling a request", e);
+          } finally {
+            pending.release();
+          }
+        };
+    if (key == null) {
+      try {
+        executorService.execute(guarded);
+      } catch (RejectedExecutionException e) {
+        pending.release();
+        throw e;
+      }
+      return;
+    }
+    CompletableFuture<Void> next =
+        tails.compute(
+            key,
+            (k, tail) ->
+                tail == null
+                    ? CompletableFuture.runAsync(guarded, executorService)
+                    : tail.thenRunAsync(guarded, executorService));
+    next.whenComplete((result, throwable) -> tails.remove(key, next));
+  }
+
+  /**
+   * Get the amount of keys that have tasks waiting or running.
+   *
+   * @return int
+   */
+  int getActiveKeys() {
+    return tails.size();
+  }
+
+  /** Method responsible for waiting for the running tasks and releasing the threads. */
+  @Override
+  public void close() {
+    executorService.shutdown();
+    try {
+      executorService.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      LOGGER.warn("Virtual threads are not available, falling back to a thread pool");
+      return null;
+    }
+  }
+}
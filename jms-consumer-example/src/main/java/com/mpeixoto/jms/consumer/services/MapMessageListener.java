@@ -1,29 +1,75 @@
 package com.mpeixoto.jms.consumer.services;
 
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.BinaryFrame;
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.Compressor;
+import com.mpeixoto.jms.common.metrics.LatencyStats;
+import com.mpeixoto.jms.common.metrics.MessageLog;
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
 import com.mpeixoto.jms.consumer.exception.MessageException;
-import java.text.SimpleDateFormat;
-import java.time.Clock;
+import com.mpeixoto.jms.consumer.handler.RequestHandler;
+import com.mpeixoto.jms.consumer.metrics.MessageMetrics;
+import com.mpeixoto.jms.consumer.stream.StreamHandler;
+import com.mpeixoto.jms.consumer.stream.StreamReassembler;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.jms.BytesMessage;
 import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.MapMessage;
 import javax.jms.Message;
 import javax.jms.MessageListener;
 import javax.jms.MessageProducer;
+import javax.jms.Session;
 import javax.jms.TextMessage;
+import javax.jms.Topic;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * Class responsible for implementing the method that will be listening to a queue and a topic.
+ * Every session gets its own listener, and the reply path of a listener is guarded by its lock, so
+ * the reply message and the formatter buffer are reused without being shared between threads. The
+ * {@link RequestHandler} runs before the lock is taken, so a slow answer doesn't hold back the
+ * requests of other keys offloaded from the same session. A request written by the {@link
+ * BinaryCodec} is answered in the same format, any other request is answered with a MapMessage. A
+ * compressed request is transparently decompressed and answered with a reply compressed by the same
+ * codec. When the replies are coalesced, they are buffered in a {@link ReplyBatch} and sent as
+ * MapMessages with one entry per reply, whatever the request format. The chunks of a stream are not
+ * answered, they are handed to a {@link StreamReassembler}.
  *
  * @author mpeixoto
  */
 public class MapMessageListener extends QueueHandler implements MessageListener {
     private static final Logger LOGGER = LogManager.getLogger(MapMessageListener.class);
     private static final String QUEUE_NAME_RESPONSE = "response.message.queue";
-    private final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm dd/MM/yyyy");
+    private static final LatencyStats QUEUE_DWELL = MessageMetrics.get().latency("queueDwell");
+    private static final LatencyStats HANDLER = MessageMetrics.get().latency("handler");
+    private static final ThroughputStats QUEUE_THROUGHPUT =
+            MessageMetrics.get().throughput("request.message.queue");
+    private static final ThroughputStats TOPIC_THROUGHPUT =
+            MessageMetrics.get().throughput("topicJms");
+    private static final ThroughputStats REPLY_THROUGHPUT =
+            MessageMetrics.get().throughput(QUEUE_NAME_RESPONSE);
+    private static final MessageLog REQUEST_LOG = MessageMetrics.get().messageLog("requests");
+    /** Handler that answers every request with the default answer of the MessageReceiver. */
+    static final RequestHandler DEFAULT_HANDLER = request -> MessageReceiver.getAnswer();
+    private final ReplyFormatter replyFormatter = new ReplyFormatter();
     private MessageProducer producer;
+    private MessageProducer replyToProducer;
     private MapMessage responseMessage;
+    private BytesMessage binaryResponseMessage;
+    private int replyDeliveryMode = DeliveryMode.PERSISTENT;
+    private ReplyBatch replyBatch;
+    private ScheduledExecutorService replyFlusher;
+    private StreamReassembler streamReassembler;
+    private RequestHandler requestHandler = DEFAULT_HANDLER;
 
     /**
      * Default constructor of the class.
@@ -39,6 +85,50 @@ public class MapMessageListener extends QueueHandler implements MessageListener
         }
     }
 
+    /**
+     * Constructor of the class that replies through the session of the consumer it listens to, so
+     * the reply is sent by the same thread that received the request.
+     *
+     * @param session Type: Session
+     * @param replyDeliveryMode DeliveryMode.PERSISTENT or DeliveryMode.NON_PERSISTENT
+     */
+    MapMessageListener(Session session, int replyDeliveryMode) {
+        setQueueName(QUEUE_NAME_RESPONSE);
+        this.session = session;
+        this.replyDeliveryMode = replyDeliveryMode;
+        try {
+            destination = session.createQueue(QUEUE_NAME_RESPONSE);
+            producer = session.createProducer(destination);
+            producer.setDeliveryMode(replyDeliveryMode);
+            responseMessage = session.createMapMessage();
+        } catch (JMSException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Method responsible for creating the listener of a consumer session, coalescing its replies
+     * when the settings ask for reply batches.
+     *
+     * @param session The session of the consumer
+     * @param settings Type: ConsumerSettings
+     * @param requestHandler The handler shared by every listener of the consumer
+     * @return MapMessageListener
+     */
+    static MapMessageListener create(
+            Session session, ConsumerSettings settings, RequestHandler requestHandler) {
+        MapMessageListener listener =
+                new MapMessageListener(session, settings.getReplyDeliveryMode());
+        listener.requestHandler = requestHandler;
+        if (settings.getReplyBatchSize() > 1) {
+            listener.coalesceReplies(
+                    settings.getReplyBatchSize(), settings.getReplyBatchWindowMicros());
+        }
+        listener.setStreamHandler(
+                settings.getStreamHandler(), settings.getStreamIdleTimeoutMillis());
+        return listener;
+    }
+
     /**
      * Constructor that is used only for tests.
      *
@@ -62,9 +152,11 @@ public class MapMessageListener extends QueueHandler implements MessageListener
         if (message instanceof MapMessage) {
             MapMessage mapMessage = (MapMessage) message;
             try {
-                replyRequest = mapMessage.getString("Request");
-                LOGGER.info(replyRequest);
-                answerRequest(replyRequest);
+                QUEUE_THROUGHPUT.increment();
+                recordDwell(message);
+                replyRequest = Compression.readText(mapMessage, "Request");
+                logRequest(replyRequest);
+                answerRequest(message, replyRequest, compressorOf(message));
             } catch (JMSException | MessageException e) {
                 e.printStackTrace();
                 throw new RuntimeException("Error while getting the message from a queue", e);
@@ -75,31 +167,250 @@ public class MapMessageListener extends QueueHandler implements MessageListener
         else if (message instanceof TextMessage) {
             TextMessage textMessage = (TextMessage) message;
             try {
+                TOPIC_THROUGHPUT.increment();
+                recordDwell(message);
                 replyRequest = textMessage.getStringProperty("Request");
-                LOGGER.info(replyRequest);
-                answerRequest(replyRequest);
+                logRequest(replyRequest);
+                answerRequest(message, replyRequest, null);
             } catch (JMSException | MessageException e) {
                 e.printStackTrace();
                 throw new RuntimeException("Error while getting the message from a topic", e);
             }
+        }
+
+        // binary request, from the queue or the topic
+        else if (message instanceof BytesMessage) {
+            try {
+                if (StreamReassembler.isChunk((BytesMessage) message)) {
+                    QUEUE_THROUGHPUT.increment();
+                    streamReassembler().onChunk((BytesMessage) message);
+                    return;
+                }
+                BinaryFrame frame = BinaryCodec.read((BytesMessage) message);
+                if (message.getJMSDestination() instanceof Topic) {
+                    TOPIC_THROUGHPUT.increment();
+                } else {
+                    QUEUE_THROUGHPUT.increment();
+                }
+                if (frame.getTimestamp() != 0) {
+                    QUEUE_DWELL.record(MessageMetrics.epochMicros() - frame.getTimestamp());
+                }
+                replyRequest = frame.getField(0);
+                logRequest(replyRequest);
+                answerBinaryRequest(
+                        message, frame.getTimestamp(), replyRequest, compressorOf(message));
+            } catch (JMSException | MessageException | IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException("Error while getting a binary message", e);
+            }
         } else {
             LOGGER.error("Invalid Message Received");
         }
     }
 
-    private void answerRequest(String replyRequest) throws MessageException {
+    private void answerRequest(
+            Message request, String replyRequest, Compressor compressor) throws MessageException {
+        long start = System.nanoTime();
+        try {
+            // The handler runs outside the lock, only the reuse of the reply message is guarded
+            String answer = requestHandler.handle(replyRequest);
+            synchronized (this) {
+                if (replyBatch != null) {
+                    long sentAt = request.propertyExists(MessageMetrics.SENT_AT)
+                            ? request.getLongProperty(MessageMetrics.SENT_AT)
+                            : 0;
+                    coalesceReply(request, sentAt, replyRequest, answer, compressor);
+                    return;
+                }
+                responseMessage.clearProperties();
+                boolean compressed = Compression.writeText(
+                        responseMessage,
+                        "Request",
+                        replyFormatter.request(replyRequest),
+                        compressor,
+                        0);
+                compressed |= Compression.writeText(
+                        responseMessage,
+                        "Response",
+                        replyFormatter.response(answer),
+                        compressor,
+                        0);
+                if (compressed) {
+                    responseMessage.setStringProperty(Compression.PROPERTY, compressor.getName());
+                }
+                if (request.propertyExists(MessageMetrics.SENT_AT)) {
+                    responseMessage.setLongProperty(
+                            MessageMetrics.SENT_AT,
+                            request.getLongProperty(MessageMetrics.SENT_AT));
+                }
+                sendReply(request, responseMessage);
+            }
+        } catch (JMSException e) {
+            e.printStackTrace();
+            throw new MessageException("Error sending a response to the producer", e);
+        } finally {
+            HANDLER.recordSince(start);
+        }
+    }
+
+    private void answerBinaryRequest(
+            Message request, long sentAt, String replyRequest, Compressor compressor)
+            throws MessageException {
+        long start = System.nanoTime();
         try {
-            responseMessage.setString("Request", "Request : " + replyRequest);
-            responseMessage.setString(
-                    "Response",
-                    "Response : "
-                            + MessageReceiver.getAnswer()
-                            + simpleDateFormat.format(Clock.systemDefaultZone().millis()));
-            producer.send(responseMessage);
+            String answer = requestHandler.handle(replyRequest);
+            synchronized (this) {
+                if (replyBatch != null) {
+                    coalesceReply(request, sentAt, replyRequest, answer, compressor);
+                    return;
+                }
+                if (binaryResponseMessage == null) {
+                    binaryResponseMessage = session.createBytesMessage();
+                } else {
+                    binaryResponseMessage.clearBody();
+                    binaryResponseMessage.clearProperties();
+                }
+                BinaryCodec.write(
+                        binaryResponseMessage,
+                        sentAt,
+                        compressor,
+                        0,
+                        replyFormatter.request(replyRequest),
+                        replyFormatter.response(answer));
+                sendReply(request, binaryResponseMessage);
+            }
         } catch (JMSException e) {
             e.printStackTrace();
             throw new MessageException("Error sending a response to the producer", e);
+        } finally {
+            HANDLER.recordSince(start);
+        }
+    }
+
+    /**
+     * Method responsible for coalescing the replies of this listener, so they are sent in batches
+     * instead of one message per reply.
+     *
+     * @param maxEntries The amount of replies that triggers a send
+     * @param maxDelayMicros The maximum time in microseconds a reply waits before being sent
+     */
+    synchronized void coalesceReplies(int maxEntries, long maxDelayMicros) {
+        replyBatch = new ReplyBatch(session, this::sendBatch, maxEntries, maxDelayMicros);
+        replyFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reply-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, maxDelayMicros / 2);
+        replyFlusher.scheduleWithFixedDelay(
+                this::flushExpiredReplies, period, period, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Method responsible for sending the replies that are still waiting in a batch and aborting the
+     * streams that are still open, it must be called before the session of the listener is closed.
+     */
+    synchronized void close() {
+        if (streamReassembler != null) {
+            streamReassembler.close();
+        }
+        if (replyFlusher == null) {
+            return;
+        }
+        replyFlusher.shutdownNow();
+        replyFlusher = null;
+        try {
+            replyBatch.flush();
+        } catch (JMSException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void coalesceReply(
+            Message request,
+            long sentAt,
+            String replyRequest,
+            String answer,
+            Compressor compressor)
+            throws JMSException {
+        Destination replyTo = request.getJMSReplyTo();
+        replyBatch.add(
+                replyTo == null || replyTo.equals(destination) ? null : replyTo,
+                request.getJMSCorrelationID(),
+                replyFormatter.request(replyRequest),
+                replyFormatter.response(answer),
+                sentAt,
+                compressor);
+    }
+
+    private synchronized void flushExpiredReplies() {
+        try {
+            replyBatch.flushExpired();
+        } catch (JMSException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void sendBatch(Destination replyTo, MapMessage reply, int entries)
+            throws JMSException {
+        send(replyTo, reply);
+        REPLY_THROUGHPUT.add(entries);
+    }
+
+    private void sendReply(Message request, Message reply) throws JMSException {
+        reply.setJMSCorrelationID(request.getJMSCorrelationID());
+        send(request.getJMSReplyTo(), reply);
+        REPLY_THROUGHPUT.increment();
+    }
+
+    private void send(Destination replyTo, Message reply) throws JMSException {
+        if (replyTo == null || replyTo.equals(destination)) {
+            producer.send(reply);
+        } else {
+            if (replyToProducer == null) {
+                replyToProducer = session.createProducer(null);
+                replyToProducer.setDeliveryMode(replyDeliveryMode);
+            }
+            replyToProducer.send(replyTo, reply);
+        }
+    }
+
+    private static Compressor compressorOf(Message request) throws JMSException {
+        String name = request.getStringProperty(Compression.PROPERTY);
+        return name == null ? null : Compression.forName(name);
+    }
+
+    private static void recordDwell(Message message) throws JMSException {
+        if (message.propertyExists(MessageMetrics.SENT_AT)) {
+            QUEUE_DWELL.record(
+                    MessageMetrics.epochMicros() - message.getLongProperty(MessageMetrics.SENT_AT));
+        }
+    }
+
+    private static void logRequest(String request) {
+        if (REQUEST_LOG.sample()) {
+            LOGGER.info(request);
+        }
+    }
+
+    /**
+     * Set the handler of the streams sent in chunks by the producer.
+     *
+     * @param streamHandler The handler, null to only log the size of the streams
+     * @param idleTimeoutMillis How long a stream waits for its next chunk before being aborted
+     */
+    synchronized void setStreamHandler(StreamHandler streamHandler, long idleTimeoutMillis) {
+        if (streamReassembler != null) {
+            streamReassembler.close();
+        }
+        streamReassembler = new StreamReassembler(streamHandler, idleTimeoutMillis);
+    }
+
+    private synchronized StreamReassembler streamReassembler() {
+        if (streamReassembler == null) {
+            streamReassembler = new StreamReassembler(null);
         }
+        return streamReassembler;
     }
 
     void setResponseMessage(MapMessage responseMessage) {
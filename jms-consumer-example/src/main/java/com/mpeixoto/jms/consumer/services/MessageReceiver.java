@@ -1,10 +1,19 @@
 package com.mpeixoto.jms.consumer.services;
 
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
+import com.mpeixoto.jms.consumer.config.ExecutionMode;
+import com.mpeixoto.jms.consumer.dedup.DuplicateFilter;
 import com.mpeixoto.jms.consumer.exception.MessageException;
+import com.mpeixoto.jms.consumer.handler.RequestHandler;
+import java.util.ArrayList;
+import java.util.List;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQSession;
 
 /**
  * Class responsible for implementing the communication with the producer.
@@ -13,24 +22,138 @@ import javax.jms.MessageConsumer;
  */
 public class MessageReceiver extends QueueHandler {
   private static final String QUEUE_NAME_REQUEST = "request.message.queue";
+  private static final String SHARD_QUEUE_PREFIX = QUEUE_NAME_REQUEST + ".";
+  private static final String TOPIC_NAME = "topicJms";
   private final MapMessageListener mapMessageListener;
+  private final MessageListener messageListener;
+  private KeyOrderedExecutor keyOrderedExecutor;
+  private DuplicateFilter duplicateFilter;
+  private RequestHandler requestHandler;
   private MessageConsumer consumerQueue;
   private MessageConsumer consumerTopic;
+  private final List<ConsumerWorker> workers = new ArrayList<>();
   private static String answer;
 
   /** Default constructor of the class. */
   public MessageReceiver() {
-    setQueueName(QUEUE_NAME_REQUEST);
+    this(new ConsumerSettings());
+  }
+
+  /**
+   * Constructor of the class that uses the given settings. Besides the default consumer, one extra
+   * consumer with its own session is created for every additional concurrent consumer. When the
+   * requests are not handled inline, the sessions acknowledge each message after it was handled.
+   * When they are handled inline with an acknowledge batch, the sessions acknowledge every batch.
+   * With deduplication, every consumer drops the requests any of them has already handled. With
+   * shards, every consumer takes the requests of all the assigned shards.
+   *
+   * @param settings Type: ConsumerSettings
+   */
+  public MessageReceiver(ConsumerSettings settings) {
+    setQueueName(
+        settings.getShards() == null ? QUEUE_NAME_REQUEST : shardQueueNames(settings.getShards()));
+    setSettings(settings);
+    if (settings.getExecutionMode() != ExecutionMode.INLINE) {
+      setAcknowledgeMode(ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE);
+      keyOrderedExecutor = KeyOrderedExecutor.create(settings);
+    } else if (settings.getAcknowledgeBatchSize() > 1) {
+      setAcknowledgeMode(Session.CLIENT_ACKNOWLEDGE);
+    } else {
+      setAcknowledgeMode(settings.getAcknowledgeMode());
+    }
+    if (settings.getDeduplicationCapacity() > 0) {
+      duplicateFilter =
+          new DuplicateFilter(
+              QUEUE_NAME_REQUEST,
+              settings.getDeduplicationCapacity(),
+              settings.getDeduplicationWindowMillis());
+    }
     createConnection(null);
-    mapMessageListener = new MapMessageListener();
+    requestHandler = settings.createRequestHandler(MapMessageListener.DEFAULT_HANDLER);
+    mapMessageListener = MapMessageListener.create(session, settings, requestHandler);
+    messageListener =
+        decorate(mapMessageListener, settings, keyOrderedExecutor, duplicateFilter);
     try {
       consumerQueue = session.createConsumer(destination);
-      consumerTopic = session.createConsumer(topic);
+      consumerTopic =
+          settings.getTopicConsumerGroup() == null
+              ? session.createConsumer(topic)
+              : session.createConsumer(
+                  session.createQueue(topicQueueName(settings.getTopicConsumerGroup())));
+      for (int i = 1; i < settings.getConcurrentConsumers(); i++) {
+        workers.add(
+            new ConsumerWorker(
+                connection,
+                queueName,
+                acknowledgeMode,
+                settings,
+                keyOrderedExecutor,
+                duplicateFilter,
+                requestHandler));
+      }
     } catch (JMSException e) {
       e.printStackTrace();
     }
   }
 
+  /**
+   * Method responsible for naming the virtual topic queue consumed by a group of consumers.
+   *
+   * @param group The name of the group
+   * @return String
+   */
+  static String topicQueueName(String group) {
+    return "Consumer." + group + "." + TOPIC_NAME;
+  }
+
+  /**
+   * Method responsible for naming the queues of the given shards of the request queue, as a
+   * composite destination consumed as a single queue.
+   *
+   * @param shards The numbers of the shards
+   * @return String
+   */
+  static String shardQueueNames(int... shards) {
+    StringBuilder names = new StringBuilder();
+    for (int shard : shards) {
+      if (names.length() > 0) {
+        names.append(',');
+      }
+      names.append(SHARD_QUEUE_PREFIX).append(shard);
+    }
+    return names.toString();
+  }
+
+  /**
+   * Method responsible for wrapping the listener of a session, so the duplicates are dropped and
+   * the requests are handed to the executor or acknowledged in batches as the settings ask.
+   *
+   * @param mapMessageListener The listener that answers the requests
+   * @param settings Type: ConsumerSettings
+   * @param keyOrderedExecutor The executor that handles the requests, null to handle them inline
+   * @param duplicateFilter The filter of the duplicated requests, null to answer every request
+   * @return MessageListener
+   */
+  static MessageListener decorate(
+      MapMessageListener mapMessageListener,
+      ConsumerSettings settings,
+      KeyOrderedExecutor keyOrderedExecutor,
+      DuplicateFilter duplicateFilter) {
+    MessageListener listener = mapMessageListener;
+    if (duplicateFilter != null) {
+      listener =
+          new DeduplicatingListener(listener, duplicateFilter, settings.getDeduplicationKey());
+    }
+    if (keyOrderedExecutor != null) {
+      return new OffloadingMessageListener(listener, keyOrderedExecutor);
+    }
+    if (settings.getAcknowledgeBatchSize() > 1) {
+      return new BatchAcknowledgingListener(
+          listener, settings.getAcknowledgeBatchSize(), settings.getAcknowledgeBatchDelayMillis());
+    }
+    return listener;
+  }
+
   /**
    * Method that is used only for tests.
    *
@@ -47,6 +170,7 @@ public class MessageReceiver extends QueueHandler {
     setQueueName(QUEUE_NAME_REQUEST);
     createConnection(activeMQConnectionFactory);
     mapMessageListener = new MapMessageListener(activeMQConnectionFactory);
+    messageListener = mapMessageListener;
     this.consumerQueue = consumerQueue;
     this.consumerTopic = consumerTopic;
     super.connection = connection;
@@ -61,7 +185,10 @@ public class MessageReceiver extends QueueHandler {
 
     try {
       connection.start();
-      consumerQueue.setMessageListener(mapMessageListener);
+      consumerQueue.setMessageListener(messageListener);
+      for (ConsumerWorker worker : workers) {
+        worker.start();
+      }
     } catch (Exception e) {
       e.printStackTrace();
       throw new MessageException("It was not possible to receive the message from a queue", e);
@@ -77,13 +204,39 @@ public class MessageReceiver extends QueueHandler {
 
     try {
       connection.start();
-      consumerTopic.setMessageListener(mapMessageListener);
+      consumerTopic.setMessageListener(messageListener);
     } catch (JMSException e) {
       e.printStackTrace();
       throw new MessageException("It was not possible to receive the message from a topic", e);
     }
   }
 
+  /**
+   * Get the amount of consumers listening to the request queue.
+   *
+   * @return int
+   */
+  public int getConcurrentConsumers() {
+    return workers.size() + 1;
+  }
+
+  /** Method responsible for closing every consumer and the connection. */
+  public void close() {
+    if (keyOrderedExecutor != null) {
+      keyOrderedExecutor.close();
+    }
+    mapMessageListener.close();
+    if (messageListener instanceof BatchAcknowledgingListener) {
+      ((BatchAcknowledgingListener) messageListener).close();
+    }
+    workers.forEach(ConsumerWorker::close);
+    try {
+      connection.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+
   /**
    * Set the default answer.
    *
@@ -0,0 +1,60 @@
+package com.mpeixoto.jms.consumer.services;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Class responsible for handing the received messages to a {@link KeyOrderedExecutor}, so a slow
+ * request doesn't hold the JMS dispatch thread. Messages are ordered by their JMSXGroupID and are
+ * acknowledged only after the delegate has handled them, so the session must use individual
+ * acknowledgement. A message the delegate fails to handle is not acknowledged, and the session is
+ * not recovered, since that would redeliver the messages other threads are still handling: it's
+ * redelivered once the session is closed, when the consumer stops or reconnects.
+ *
+ * @author mpeixoto
+ */
+class OffloadingMessageListener implements MessageListener {
+  private static final Logger LOGGER = LogManager.getLogger(OffloadingMessageListener.class);
+  private static final String GROUP_ID = "JMSXGroupID";
+  private final MessageListener delegate;
+  private final KeyOrderedExecutor keyOrderedExecutor;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param delegate The listener that handles the message
+   * @param keyOrderedExecutor The executor that runs the delegate
+   */
+  OffloadingMessageListener(MessageListener delegate, KeyOrderedExecutor keyOrderedExecutor) {
+    this.delegate = delegate;
+    this.keyOrderedExecutor = keyOrderedExecutor;
+  }
+
+  /**
+   * Method responsible for handing the message to the executor.
+   *
+   * @param message the message that was received by a queue/topic
+   */
+  @Override
+  public void onMessage(Message message) {
+    String key;
+    try {
+      key = message.getStringProperty(GROUP_ID);
+    } catch (JMSException e) {
+      key = null;
+    }
+    keyOrderedExecutor.execute(
+        key,
+        () -> {
+          delegate.onMessage(message);
+          try {
+            message.acknowledge();
+          } catch (JMSException e) {
+            LOGGER.error("It was not possible to acknowledge the message", e);
+          }
+        });
+  }
+}
@@ -1,12 +1,12 @@
 package com.mpeixoto.jms.consumer.services;
 
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Session;
 import javax.jms.Topic;
-import org.apache.activemq.ActiveMQConnectionFactory;
 
 /**
  * Abstract class responsible for providing usual features to its children.
@@ -19,18 +19,20 @@ abstract class QueueHandler {
   protected Connection connection = null;
   protected Session session;
   protected String queueName;
+  protected ConsumerSettings settings = new ConsumerSettings();
+  protected int acknowledgeMode = Session.AUTO_ACKNOWLEDGE;
 
   protected void createConnection(ConnectionFactory connectionFactory) {
 
     try {
       ConnectionFactory activeMQConnectionFactory;
       if (connectionFactory == null)
-        activeMQConnectionFactory = new ActiveMQConnectionFactory("tcp://localhost:61616");
+        activeMQConnectionFactory = settings.createConnectionFactory();
       else {
         activeMQConnectionFactory = connectionFactory;
       }
       connection = activeMQConnectionFactory.createConnection();
-      session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      session = connection.createSession(false, acknowledgeMode);
       topic = session.createTopic("topicJms");
       destination = session.createQueue(queueName);
     } catch (JMSException e) {
@@ -41,4 +43,12 @@ abstract class QueueHandler {
   protected void setQueueName(String queueName) {
     this.queueName = queueName;
   }
+
+  protected void setSettings(ConsumerSettings settings) {
+    this.settings = settings;
+  }
+
+  protected void setAcknowledgeMode(int acknowledgeMode) {
+    this.acknowledgeMode = acknowledgeMode;
+  }
 }
@@ -0,0 +1,180 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.Compressor;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Session;
+
+/**
+ * Class responsible for coalescing the replies sent to the same destination into a single
+ * MapMessage. The amount of replies is held by the {@value #ENTRIES} property and the reply i is
+ * written as the entries "CorrelationID.i", "Request.i", "Response.i" and "SentAt.i". A batch is
+ * sent once it's full or its oldest reply has waited for too long. A single {@link
+ * Compression#PROPERTY} names the codec of every compressed entry of a batch, so a reply
+ * compressed with another codec than the batch of its destination sends that batch first and
+ * starts a new one. The class isn't thread safe, it is guarded by the lock of the listener that
+ * owns it.
+ *
+ * @author mpeixoto
+ */
+class ReplyBatch {
+  static final String ENTRIES = "Entries";
+  private final Session session;
+  private final Sender sender;
+  private final int maxEntries;
+  private final long maxDelayNanos;
+  private final Map<Destination, Pending> pending = new HashMap<>();
+
+  /**
+   * Callback that sends a batch of replies.
+   */
+  interface Sender {
+    /**
+     * Method responsible for sending the batch.
+     *
+     * @param destination The destination of the replies, null for the default response queue
+     * @param reply The message that holds the replies
+     * @param entries The amount of replies in the message
+     * @throws JMSException It's thrown in case it wasn't possible to send the message
+     */
+    void send(Destination destination, MapMessage reply, int entries) throws JMSException;
+  }
+
+  /**
+   * Constructor of the class.
+   *
+   * @param session The session that creates the messages of the batches
+   * @param sender The callback that sends the batches
+   * @param maxEntries The amount of replies that triggers a send
+   * @param maxDelayMicros The maximum time in microseconds a reply waits before being sent
+   */
+  ReplyBatch(Session session, Sender sender, int maxEntries, long maxDelayMicros) {
+    if (maxEntries < 1 || maxDelayMicros < 1) {
+      throw new IllegalArgumentException("The batch limits must be greater than zero");
+    }
+    this.session = session;
+    this.sender = sender;
+    this.maxEntries = maxEntries;
+    this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+  }
+
+  /**
+   * Method responsible for adding a reply to the batch of its destination, the batch is sent when
+   * it's full, or before the reply when it holds replies compressed with another codec.
+   *
+   * @param destination The destination of the reply, null for the default response queue
+   * @param correlationId The correlation id of the request
+   * @param request The request part of the reply
+   * @param response The response part of the reply
+   * @param sentAt The time in epoch microseconds the request was sent, 0 when it's unknown
+   * @param compressor The codec that compresses the reply, null to send it uncompressed
+   * @throws JMSException It's thrown in case it wasn't possible to write or send the batch
+   */
+  void add(
+      Destination destination,
+      String correlationId,
+      String request,
+      String response,
+      long sentAt,
+      Compressor compressor)
+      throws JMSException {
+    String codec = compressor == null ? null : compressor.getName();
+    Pending batch = pending.get(destination);
+    if (batch != null && batch.codec != null && codec != null && !batch.codec.equals(codec)) {
+      pending.remove(destination);
+      send(destination, batch);
+      batch = null;
+    }
+    if (batch == null) {
+      batch = new Pending(session.createMapMessage(), System.nanoTime());
+      pending.put(destination, batch);
+    }
+    int index = batch.entries;
+    MapMessage message = batch.message;
+    if (correlationId != null) {
+      message.setString("CorrelationID." + index, correlationId);
+    }
+    boolean compressed =
+        Compression.writeText(message, "Request." + index, request, compressor, 0);
+    compressed |= Compression.writeText(message, "Response." + index, response, compressor, 0);
+    if (compressed) {
+      message.setStringProperty(Compression.PROPERTY, codec);
+      batch.codec = codec;
+    }
+    if (sentAt != 0) {
+      message.setLong("SentAt." + index, sentAt);
+    }
+    batch.entries++;
+    if (batch.entries >= maxEntries) {
+      pending.remove(destination);
+      send(destination, batch);
+    }
+  }
+
+  /**
+   * Method responsible for sending the batches whose oldest reply has waited for too long.
+   *
+   * @throws JMSException It's thrown in case it wasn't possible to send a batch
+   */
+  void flushExpired() throws JMSException {
+    long now = System.nanoTime();
+    Iterator<Map.Entry<Destination, Pending>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Destination, Pending> entry = iterator.next();
+      if (now - entry.getValue().firstAddedAt >= maxDelayNanos) {
+        iterator.remove();
+        send(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Method responsible for sending every pending batch.
+   *
+   * @throws JMSException It's thrown in case it wasn't possible to send a batch
+   */
+  void flush() throws JMSException {
+    Iterator<Map.Entry<Destination, Pending>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Destination, Pending> entry = iterator.next();
+      iterator.remove();
+      send(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Get the amount of replies waiting to be sent.
+   *
+   * @return int
+   */
+  int getPending() {
+    int replies = 0;
+    for (Pending batch : pending.values()) {
+      replies += batch.entries;
+    }
+    return replies;
+  }
+
+  private void send(Destination destination, Pending batch) throws JMSException {
+    batch.message.setIntProperty(ENTRIES, batch.entries);
+    sender.send(destination, batch.message, batch.entries);
+  }
+
+  private static final class Pending {
+    private final MapMessage message;
+    private final long firstAddedAt;
+    private int entries;
+    private String codec;
+
+    private Pending(MapMessage message, long firstAddedAt) {
+      this.message = message;
+      this.firstAddedAt = firstAddedAt;
+    }
+  }
+}
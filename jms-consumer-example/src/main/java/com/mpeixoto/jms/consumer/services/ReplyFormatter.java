@@ -0,0 +1,43 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.time.ZoneId;
+
+/**
+ * Class responsible for building the texts of a response. It reuses its buffer between calls, so
+ * each instance must be used by one thread at a time.
+ *
+ * @author mpeixoto
+ */
+class ReplyFormatter {
+  private static final String REQUEST_PREFIX = "Request : ";
+  private static final String RESPONSE_PREFIX = "Response : ";
+  private static final TimestampCache TIMESTAMP_CACHE =
+      new TimestampCache("HH:mm dd/MM/yyyy", ZoneId.systemDefault());
+  private final StringBuilder builder = new StringBuilder(256);
+
+  /**
+   * Method responsible for building the request echoed in the response.
+   *
+   * @param request The request that was received
+   * @return String
+   */
+  String request(String request) {
+    builder.setLength(0);
+    return builder.append(REQUEST_PREFIX).append(request).toString();
+  }
+
+  /**
+   * Method responsible for building the response, followed by the current time.
+   *
+   * @param answer The answer to the request
+   * @return String
+   */
+  String response(String answer) {
+    builder.setLength(0);
+    return builder
+        .append(RESPONSE_PREFIX)
+        .append(answer)
+        .append(TIMESTAMP_CACHE.current())
+        .toString();
+  }
+}
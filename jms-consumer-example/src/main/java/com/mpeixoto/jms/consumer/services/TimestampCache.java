@@ -0,0 +1,64 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for handing out the formatted timestamp appended to the responses. The
+ * timestamp has minute precision, so it's only formatted again when the minute changes and every
+ * other call returns the cached string without allocating anything.
+ *
+ * @author mpeixoto
+ */
+class TimestampCache {
+  private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+  private final DateTimeFormatter formatter;
+  private volatile Entry entry = new Entry(Long.MIN_VALUE, null);
+
+  /**
+   * Constructor of the class.
+   *
+   * @param pattern The pattern of the timestamp, it must not be more precise than a minute
+   * @param zoneId The zone used to format the timestamp
+   */
+  TimestampCache(String pattern, ZoneId zoneId) {
+    this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zoneId);
+  }
+
+  /**
+   * Get the formatted current time.
+   *
+   * @return String
+   */
+  String current() {
+    return format(System.currentTimeMillis());
+  }
+
+  /**
+   * Get the formatted time of the given instant.
+   *
+   * @param epochMillis The instant in milliseconds since the epoch
+   * @return String
+   */
+  String format(long epochMillis) {
+    long minute = Math.floorDiv(epochMillis, MINUTE);
+    Entry current = entry;
+    if (current.minute != minute) {
+      current = new Entry(minute, formatter.format(Instant.ofEpochMilli(minute * MINUTE)));
+      entry = current;
+    }
+    return current.text;
+  }
+
+  private static final class Entry {
+    private final long minute;
+    private final String text;
+
+    private Entry(long minute, String text) {
+      this.minute = minute;
+      this.text = text;
+    }
+  }
+}
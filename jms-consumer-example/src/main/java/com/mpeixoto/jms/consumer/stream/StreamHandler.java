@@ -0,0 +1,33 @@
+package com.mpeixoto.jms.consumer.stream;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Interface responsible for receiving the streams sent in chunks by the producer. Every chunk is
+ * written to the channel of its stream as soon as it arrives, so a stream never has to fit in
+ * memory.
+ *
+ * @author mpeixoto
+ */
+public interface StreamHandler {
+
+  /**
+   * Method responsible for opening the channel a new stream is written to. The channel is closed
+   * once the last chunk was written, or when the stream is aborted.
+   *
+   * @param streamId The id of the stream
+   * @return WritableByteChannel
+   * @throws IOException It's thrown in case the channel could not be opened
+   */
+  WritableByteChannel open(String streamId) throws IOException;
+
+  /**
+   * Method responsible for telling the handler a stream will not be completed, because the
+   * producer could not read it, a chunk is missing, or the channel failed. Its channel is already
+   * closed.
+   *
+   * @param streamId The id of the stream
+   */
+  default void aborted(String streamId) {}
+}
@@ -0,0 +1,259 @@
+package com.mpeixoto.jms.consumer.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Class responsible for writing the chunks of the streams sent by the producer to the channels of
+ * a {@link StreamHandler}. Every chunk is a BytesMessage of the message group named after the
+ * stream, numbered from 1 by the group sequence, and the last one is flagged by {@value #END}. A
+ * chunk is copied to the channel through a small buffer of the thread, so the memory taken by a
+ * stream doesn't depend on its size. The chunks of a stream must be handed over in order, by one
+ * thread at a time, which the message group and the executor of the consumer guarantee. A stream
+ * without any chunk for the idle timeout is aborted, so a producer that dies in the middle of a
+ * stream doesn't leave its channel open, and the ids of the last {@value #RECENT_STREAMS} streams
+ * that were finished or aborted are remembered, so a chunk delivered again after the end of its
+ * stream doesn't open it again.
+ *
+ * @author mpeixoto
+ */
+public class StreamReassembler {
+  public static final String END = "StreamEnd";
+  public static final String ABORTED = "StreamAborted";
+  private static final String GROUP_ID = "JMSXGroupID";
+  private static final String GROUP_SEQ = "JMSXGroupSeq";
+  private static final Logger LOGGER = LogManager.getLogger(StreamReassembler.class);
+  private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+  private static final int RECENT_STREAMS = 1024;
+  private static final ScheduledExecutorService SWEEPER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "stream-sweeper");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final StreamHandler streamHandler;
+  private final long idleTimeoutNanos;
+  private final LongSupplier nanoClock;
+  private final Map<String, OpenStream> streams = new ConcurrentHashMap<>();
+  private final Set<String> recentStreams =
+      Collections.newSetFromMap(
+          Collections.synchronizedMap(
+              new LinkedHashMap<String, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                  return size() > RECENT_STREAMS;
+                }
+              }));
+  private ScheduledFuture<?> sweep;
+
+  /**
+   * Constructor of the class, the streams are aborted after 60 seconds without any chunk.
+   *
+   * @param streamHandler The handler of the streams, null to only count their bytes
+   */
+  public StreamReassembler(StreamHandler streamHandler) {
+    this(streamHandler, 60_000);
+  }
+
+  /**
+   * Constructor of the class.
+   *
+   * @param streamHandler The handler of the streams, null to only count their bytes
+   * @param idleTimeoutMillis How long a stream waits for its next chunk before being aborted
+   */
+  public StreamReassembler(StreamHandler streamHandler, long idleTimeoutMillis) {
+    this(streamHandler, idleTimeoutMillis, System::nanoTime);
+    long period = Math.max(1, idleTimeoutMillis / 2);
+    sweep =
+        SWEEPER.scheduleWithFixedDelay(
+            this::abortIdleStreams, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  StreamReassembler(StreamHandler streamHandler, long idleTimeoutMillis, LongSupplier nanoClock) {
+    if (idleTimeoutMillis < 1) {
+      throw new IllegalArgumentException("The idle timeout must be greater than zero");
+    }
+    this.streamHandler = streamHandler;
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Method responsible for telling whether a message is the chunk of a stream.
+   *
+   * @param message Type: BytesMessage
+   * @return true if the message is a chunk
+   * @throws JMSException It's thrown in case the properties could not be read
+   */
+  public static boolean isChunk(BytesMessage message) throws JMSException {
+    return message.propertyExists(END);
+  }
+
+  /**
+   * Method responsible for writing a chunk to the channel of its stream. The first chunk opens the
+   * channel and the last one closes it. A chunk that was already written is skipped, as well as
+   * the chunks of a stream that recently finished, so the redelivered chunks are harmless, while a
+   * missing chunk aborts the stream.
+   *
+   * @param chunk The chunk of the stream
+   * @throws JMSException It's thrown in case the chunk could not be read
+   * @throws IOException It's thrown in case the channel could not be opened or written
+   */
+  public void onChunk(BytesMessage chunk) throws JMSException, IOException {
+    String streamId = chunk.getStringProperty(GROUP_ID);
+    int sequence = chunk.getIntProperty(GROUP_SEQ);
+    OpenStream stream = streams.get(streamId);
+    if (stream == null) {
+      if (sequence != 1) {
+        LOGGER.error("Dropping the chunk " + sequence + " of the unknown stream " + streamId);
+        return;
+      }
+      if (recentStreams.contains(streamId)) {
+        LOGGER.warn("Dropping the chunk 1 of the finished stream " + streamId);
+        return;
+      }
+      stream =
+          new OpenStream(
+              streamHandler == null ? null : streamHandler.open(streamId),
+              nanoClock.getAsLong());
+      streams.put(streamId, stream);
+    }
+    synchronized (stream) {
+      if (streams.get(streamId) != stream) {
+        LOGGER.error("Dropping the chunk " + sequence + " of the aborted stream " + streamId);
+        return;
+      }
+      stream.lastChunkNanos = nanoClock.getAsLong();
+      write(streamId, sequence, stream, chunk);
+    }
+  }
+
+  /**
+   * Method responsible for aborting the streams that have not received any chunk for the idle
+   * timeout, it's called periodically by a background thread.
+   */
+  public void abortIdleStreams() {
+    long now = nanoClock.getAsLong();
+    for (Map.Entry<String, OpenStream> entry : streams.entrySet()) {
+      OpenStream stream = entry.getValue();
+      synchronized (stream) {
+        if (now - stream.lastChunkNanos >= idleTimeoutNanos
+            && streams.get(entry.getKey()) == stream) {
+          abort(entry.getKey(), stream);
+        }
+      }
+    }
+  }
+
+  /**
+   * Method responsible for stopping the idle timeout and aborting the streams that are still
+   * open, so none of their channels is left open.
+   */
+  public void close() {
+    if (sweep != null) {
+      sweep.cancel(false);
+    }
+    for (Map.Entry<String, OpenStream> entry : streams.entrySet()) {
+      OpenStream stream = entry.getValue();
+      synchronized (stream) {
+        if (streams.get(entry.getKey()) == stream) {
+          abort(entry.getKey(), stream);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the amount of streams whose last chunk has not arrived yet.
+   *
+   * @return int
+   */
+  public int getOpenStreams() {
+    return streams.size();
+  }
+
+  private void write(String streamId, int sequence, OpenStream stream, BytesMessage chunk)
+      throws JMSException, IOException {
+    if (sequence < stream.nextSequence) {
+      return;
+    }
+    if (sequence > stream.nextSequence || chunk.getBooleanProperty(ABORTED)) {
+      abort(streamId, stream);
+      return;
+    }
+    stream.nextSequence++;
+    try {
+      byte[] buffer = BUFFER.get();
+      int length;
+      while ((length = chunk.readBytes(buffer)) > 0) {
+        if (stream.channel != null) {
+          ByteBuffer data = ByteBuffer.wrap(buffer, 0, length);
+          while (data.hasRemaining()) {
+            stream.channel.write(data);
+          }
+        }
+        stream.bytes += length;
+      }
+      if (chunk.getBooleanProperty(END)) {
+        finish(streamId);
+        if (stream.channel != null) {
+          stream.channel.close();
+        }
+        LOGGER.info(
+            "Received the stream " + streamId + " of " + stream.bytes + " bytes in " + sequence
+                + " chunks");
+      }
+    } catch (IOException e) {
+      abort(streamId, stream);
+      throw e;
+    }
+  }
+
+  private void finish(String streamId) {
+    recentStreams.add(streamId);
+    streams.remove(streamId);
+  }
+
+  private void abort(String streamId, OpenStream stream) {
+    finish(streamId);
+    LOGGER.error("The stream " + streamId + " was aborted after " + stream.bytes + " bytes");
+    if (stream.channel != null) {
+      try {
+        stream.channel.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+    if (streamHandler != null) {
+      streamHandler.aborted(streamId);
+    }
+  }
+
+  private static final class OpenStream {
+    private final WritableByteChannel channel;
+    private int nextSequence = 1;
+    private long bytes;
+    private long lastChunkNanos;
+
+    private OpenStream(WritableByteChannel channel, long lastChunkNanos) {
+      this.channel = channel;
+      this.lastChunkNanos = lastChunkNanos;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.mpeixoto.jms.consumer.config;
+
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.store.kahadb.KahaDBPersistenceAdapter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the BrokerSettings class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class BrokerSettingsTest {
+
+    /**
+     * Method responsible for testing if the memory profile creates a broker without a store.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be created
+     */
+    @Test
+    public void memoryProfileShouldCreateANonPersistentBroker() throws Exception {
+        BrokerService broker = new BrokerSettings()
+                .setConnectorUrl(null)
+                .setPersistenceProfile(PersistenceProfile.MEMORY)
+                .createBroker();
+        assertFalse(broker.isPersistent());
+    }
+
+    /**
+     * Method responsible for testing if the default profile syncs every journal write.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be created
+     */
+    @Test
+    public void kahaDbProfileShouldSyncTheJournal() throws Exception {
+        KahaDBPersistenceAdapter kahaDB = (KahaDBPersistenceAdapter) new BrokerSettings()
+                .setConnectorUrl(null)
+                .createBroker()
+                .getPersistenceAdapter();
+        assertTrue(kahaDB.isEnableJournalDiskSyncs());
+    }
+
+    /**
+     * Method responsible for testing if the KahaDB profile sizes the store unlike the KahaDB
+     * defaults.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be created
+     */
+    @Test
+    public void kahaDbProfileShouldTuneTheStore() throws Exception {
+        KahaDBPersistenceAdapter defaults = new KahaDBPersistenceAdapter();
+        KahaDBPersistenceAdapter kahaDB = (KahaDBPersistenceAdapter) new BrokerSettings()
+                .setConnectorUrl(null)
+                .createBroker()
+                .getPersistenceAdapter();
+        assertTrue(kahaDB.getJournalMaxFileLength() > defaults.getJournalMaxFileLength());
+        assertTrue(kahaDB.getIndexCacheSize() > defaults.getIndexCacheSize());
+        assertTrue(kahaDB.getIndexWriteBatchSize() > defaults.getIndexWriteBatchSize());
+        assertTrue(kahaDB.getIndexWriteBatchSize() < kahaDB.getIndexCacheSize());
+    }
+
+    /**
+     * Method responsible for testing if the batched profile applies the tuned store settings.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be created
+     */
+    @Test
+    public void batchedProfileShouldNotSyncTheJournal() throws Exception {
+        KahaDBPersistenceAdapter kahaDB = (KahaDBPersistenceAdapter) new BrokerSettings()
+                .setConnectorUrl(null)
+                .setPersistenceProfile(PersistenceProfile.KAHADB_BATCHED)
+                .setJournalMaxFileLength(1024 * 1024)
+                .setIndexCacheSize(5_000)
+                .createBroker()
+                .getPersistenceAdapter();
+        assertFalse(kahaDB.isEnableJournalDiskSyncs());
+        assertEquals(1024 * 1024, kahaDB.getJournalMaxFileLength());
+        assertEquals(5_000, kahaDB.getIndexCacheSize());
+    }
+
+    /**
+     * Method responsible for testing if an invalid journal size is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setJournalMaxFileLengthShouldRejectZero() {
+        new BrokerSettings().setJournalMaxFileLength(0);
+    }
+
+    /**
+     * Method responsible for testing if the consumers of a group share the messages of the virtual topic.
+     *
+     * @throws Exception Exception that is thrown in case the broker or the clients could not be used
+     */
+    @Test
+    public void virtualTopicShouldShareTheMessagesOfAGroup() throws Exception {
+        BrokerService broker = new BrokerSettings()
+                .setBrokerName("virtual")
+                .setConnectorUrl(null)
+                .setPersistenceProfile(PersistenceProfile.MEMORY)
+                .createBroker();
+        broker.setUseJmx(false);
+        broker.start();
+        Connection connection =
+                new ActiveMQConnectionFactory("vm://virtual?create=false").createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer first = session.createConsumer(session.createQueue("Consumer.a.topicJms"));
+            MessageConsumer second = session.createConsumer(session.createQueue("Consumer.a.topicJms"));
+            session.createProducer(session.createTopic("topicJms"))
+                    .send(session.createTextMessage("test message"));
+            TextMessage received = (TextMessage) first.receive(5_000);
+            if (received == null) {
+                received = (TextMessage) second.receive(5_000);
+            } else {
+                assertNull(second.receive(200));
+            }
+            assertEquals("test message", received.getText());
+        } finally {
+            connection.close();
+            broker.stop();
+        }
+    }
+}
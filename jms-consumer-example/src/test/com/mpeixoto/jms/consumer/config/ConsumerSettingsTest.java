@@ -0,0 +1,82 @@
+package com.mpeixoto.jms.consumer.config;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the ConsumerSettings class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class ConsumerSettingsTest {
+
+    /**
+     * Method responsible for testing if the connection factory gets the prefetch and acknowledge settings.
+     */
+    @Test
+    public void createConnectionFactoryShouldApplyThePrefetchAndAcknowledgeSettings() {
+        ActiveMQConnectionFactory connectionFactory = new ConsumerSettings()
+                .setBrokerUrl("vm://settings")
+                .setQueuePrefetch(1)
+                .setTopicPrefetch(500)
+                .setOptimizeAcknowledge(true)
+                .setOptimizeAcknowledgeTimeOutMillis(50)
+                .createConnectionFactory();
+        assertEquals("vm://settings", connectionFactory.getBrokerURL());
+        assertEquals(1, connectionFactory.getPrefetchPolicy().getQueuePrefetch());
+        assertEquals(500, connectionFactory.getPrefetchPolicy().getTopicPrefetch());
+        assertTrue(connectionFactory.isOptimizeAcknowledge());
+        assertEquals(50, connectionFactory.getOptimizeAcknowledgeTimeOut());
+    }
+
+    /**
+     * Method responsible for testing if a negative prefetch is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setQueuePrefetchShouldRejectANegativeValue() {
+        new ConsumerSettings().setQueuePrefetch(-1);
+    }
+
+    /**
+     * Method responsible for testing if an empty acknowledge batch is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setAcknowledgeBatchSizeShouldRejectZero() {
+        new ConsumerSettings().setAcknowledgeBatchSize(0);
+    }
+
+    /**
+     * Method responsible for testing if an empty reply batch window is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setReplyBatchWindowMicrosShouldRejectZero() {
+        new ConsumerSettings().setReplyBatchWindowMicros(0);
+    }
+
+    /**
+     * Method responsible for testing if a group name that would break the virtual topic queue name is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setTopicConsumerGroupShouldRejectANameWithDots() {
+        new ConsumerSettings().setTopicConsumerGroup("a.b");
+    }
+
+    /**
+     * Method responsible for testing if a deduplication window too short to be split is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setDeduplicationShouldRejectATooShortWindow() {
+        new ConsumerSettings().setDeduplication(1000, 1);
+    }
+
+    /**
+     * Method responsible for testing if a cache without time to live is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setRequestCacheShouldRejectZeroTimeToLive() {
+        new ConsumerSettings().setRequestCache(1000, 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mpeixoto.jms.consumer.dedup;
+
+import com.mpeixoto.jms.consumer.metrics.DeduplicationStats;
+import com.mpeixoto.jms.consumer.metrics.MessageMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the DuplicateFilter class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class DuplicateFilterTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final AtomicLong clock = new AtomicLong();
+    private DeduplicationStats stats;
+
+    /**
+     * Method responsible for creating fresh counters for every test.
+     */
+    @Before
+    public void setUp() {
+        stats = MessageMetrics.get().deduplication("test-" + System.nanoTime());
+    }
+
+    /**
+     * Method responsible for testing if an id seen in the window is a duplicate.
+     */
+    @Test
+    public void isDuplicateShouldRecognizeAnIdAlreadySeen() {
+        DuplicateFilter filter = new DuplicateFilter(stats, 100, 1000, clock::get);
+        assertFalse(filter.isDuplicate("ID:1"));
+        assertFalse(filter.isDuplicate("ID:2"));
+        assertTrue(filter.isDuplicate("ID:1"));
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1.0 / 3, stats.getHitRatio(), 0.0001);
+    }
+
+    /**
+     * Method responsible for testing if an id is forgotten once the window has passed.
+     */
+    @Test
+    public void isDuplicateShouldForgetAnIdOnceTheWindowHasPassed() {
+        DuplicateFilter filter = new DuplicateFilter(stats, 100, 1000, clock::get);
+        assertFalse(filter.isDuplicate("ID:1"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(filter.isDuplicate("ID:1"));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertFalse(filter.isDuplicate("ID:1"));
+    }
+
+    /**
+     * Method responsible for testing if only the last ids are remembered.
+     */
+    @Test
+    public void isDuplicateShouldOnlyRememberTheCapacity() {
+        DuplicateFilter filter = new DuplicateFilter(stats, 2, 1000, clock::get);
+        assertFalse(filter.isDuplicate("ID:1"));
+        assertFalse(filter.isDuplicate("ID:2"));
+        assertFalse(filter.isDuplicate("ID:3"));
+        assertFalse(filter.isDuplicate("ID:1"));
+        assertTrue(filter.isDuplicate("ID:3"));
+    }
+
+    /**
+     * Method responsible for testing if a forgotten id is handled again.
+     */
+    @Test
+    public void forgetShouldLetTheIdThroughAgain() {
+        DuplicateFilter filter = new DuplicateFilter(stats, 100, 1000, clock::get);
+        assertFalse(filter.isDuplicate("ID:1"));
+        filter.forget("ID:1");
+        assertFalse(filter.isDuplicate("ID:1"));
+        assertEquals(2, stats.getMisses());
+    }
+
+    /**
+     * Method responsible for testing if many distinct ids are never taken for duplicates, and if
+     * only the ids of the window are kept.
+     */
+    @Test
+    public void isDuplicateShouldNeverDropADistinctId() {
+        DuplicateFilter filter = new DuplicateFilter(stats, 1000, 1000, clock::get);
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(filter.isDuplicate("ID:" + i));
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(0, stats.getHits());
+        assertEquals(1000, filter.size());
+    }
+
+    /**
+     * Method responsible for testing if an empty capacity is refused.
+     */
+    @Test
+    public void constructorShouldRefuseAnEmptyCapacity() {
+        expectedException.expect(IllegalArgumentException.class);
+        new DuplicateFilter(stats, 0, 1000, clock::get);
+    }
+}
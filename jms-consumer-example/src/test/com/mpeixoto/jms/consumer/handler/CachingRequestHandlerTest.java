@@ -0,0 +1,211 @@
+package com.mpeixoto.jms.consumer.handler;
+
+import com.mpeixoto.jms.consumer.exception.MessageException;
+import com.mpeixoto.jms.consumer.metrics.MessageMetrics;
+import com.mpeixoto.jms.consumer.metrics.RequestCacheStats;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the CachingRequestHandler class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class CachingRequestHandlerTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final RequestHandler delegate = request -> "answer " + calls.incrementAndGet();
+    private RequestCacheStats stats;
+
+    /**
+     * Method responsible for creating fresh counters for every test.
+     */
+    @Before
+    public void setUp() {
+        stats = MessageMetrics.get().requestCache("test-" + System.nanoTime());
+    }
+
+    /**
+     * Method responsible for testing if requests equal once normalized share the same answer.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldReuseTheAnswerOfANormalizedRequest() throws MessageException {
+        CachingRequestHandler handler =
+                new CachingRequestHandler(delegate, 100, 1000, stats, ticker::get);
+        assertEquals("answer 1", handler.handle("get  price"));
+        assertEquals("answer 1", handler.handle(" get price\n"));
+        assertEquals("answer 2", handler.handle("get stock"));
+        assertEquals(2, calls.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1.0 / 3, stats.getHitRatio(), 0.0001);
+    }
+
+    /**
+     * Method responsible for testing if the same request sent by the producer in different minutes
+     * shares the same answer.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldIgnoreTheTimeTheProducerAppended() throws MessageException {
+        DateTimeFormatter producerFormat = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy");
+        CachingRequestHandler handler =
+                new CachingRequestHandler(delegate, 100, 1000, stats, ticker::get);
+        String message = "This is a Request Message to a queue ";
+        assertEquals("answer 1", handler.handle(
+                message + LocalDateTime.of(2026, 10, 17, 9, 59).format(producerFormat)));
+        assertEquals("answer 1", handler.handle(
+                message + LocalDateTime.of(2026, 10, 18, 14, 5).format(producerFormat)));
+        assertEquals("This is a Request Message to a queue", handler.cacheKey(
+                message + LocalDateTime.of(2026, 10, 18, 14, 5).format(producerFormat)));
+        assertEquals(1, stats.getHits());
+    }
+
+    /**
+     * Method responsible for testing if a message without request is answered without the cache.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldAnswerAMissingRequestWithoutTheCache() throws MessageException {
+        CachingRequestHandler handler =
+                new CachingRequestHandler(delegate, 100, 1000, stats, ticker::get);
+        assertEquals("answer 1", handler.handle(null));
+        assertEquals("answer 2", handler.handle(null));
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getMisses());
+    }
+
+    /**
+     * Method responsible for testing if an answer is asked again once its time to live has passed.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldCallTheHandlerOnceTheAnswerHasExpired() throws MessageException {
+        CachingRequestHandler handler =
+                new CachingRequestHandler(delegate, 100, 1000, stats, ticker::get);
+        assertEquals("answer 1", handler.handle("request"));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("answer 1", handler.handle("request"));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+        assertEquals("answer 2", handler.handle("request"));
+    }
+
+    /**
+     * Method responsible for testing if the cache keeps no more answers than its size.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldEvictTheAnswersBeyondTheSize() throws MessageException {
+        CachingRequestHandler handler =
+                new CachingRequestHandler(delegate, 10, 60_000, stats, ticker::get);
+        for (int i = 0; i < 100; i++) {
+            handler.handle("request " + i);
+        }
+        assertTrue(stats.getEvictions() >= 90);
+    }
+
+    /**
+     * Method responsible for testing if a failed request is not kept.
+     *
+     * @throws MessageException It's thrown if the handler failed
+     */
+    @Test
+    public void handleShouldNotKeepAMissingAnswer() throws MessageException {
+        CachingRequestHandler handler =
+                new CachingRequestHandler(request -> null, 100, 1000, stats, ticker::get);
+        handler.handle("request");
+        handler.handle("request");
+        assertEquals(0, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    /**
+     * Method responsible for testing if concurrent misses on the same request call the handler once.
+     *
+     * @throws Exception It's thrown if the handler failed or the test was interrupted
+     */
+    @Test
+    public void handleShouldCallTheHandlerOnceForConcurrentMisses() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CachingRequestHandler handler = new CachingRequestHandler(request -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "answer " + calls.incrementAndGet();
+        }, 100, 1000, stats, ticker::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> answers = new ArrayList<>();
+            answers.add(executor.submit(() -> handler.handle("request")));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                answers.add(executor.submit(() -> handler.handle("request")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> answer : answers) {
+                assertEquals("answer 1", answer.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, stats.getMisses());
+        assertEquals(3, stats.getHits());
+    }
+
+    /**
+     * Method responsible for testing if the failure of the handler reaches the caller.
+     *
+     * @throws MessageException It's the expected failure of the handler
+     */
+    @Test
+    public void handleShouldThrowTheFailureOfTheHandler() throws MessageException {
+        CachingRequestHandler handler = new CachingRequestHandler(request -> {
+            throw new MessageException("Negative test", null);
+        }, 100, 1000, stats, ticker::get);
+        expectedException.expect(MessageException.class);
+        handler.handle("request");
+    }
+
+    /**
+     * Method responsible for testing if a cache without entries is rejected.
+     */
+    @Test
+    public void constructorShouldRejectZeroEntries() {
+        expectedException.expect(IllegalArgumentException.class);
+        new CachingRequestHandler(delegate, 0, 1000, stats, ticker::get);
+    }
+}
@@ -0,0 +1,65 @@
+package com.mpeixoto.jms.consumer.metrics;
+
+import com.mpeixoto.jms.common.metrics.LatencyStats;
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing if the metrics are recorded and exposed as expected.
+ *
+ * @author mpeixoto
+ */
+public class MessageMetricsTest {
+
+    /**
+     * Method responsible for testing if the latencies of an interval are published by the snapshot.
+     *
+     * @throws Exception Exception that is thrown in case the MBean could not be read
+     */
+    @Test
+    public void snapshotShouldPublishTheLatenciesThroughJmx() throws Exception {
+        LatencyStats latency = MessageMetrics.get().latency("test");
+        assertSame(latency, MessageMetrics.get().latency("test"));
+        for (int i = 1; i <= 1_000; i++) {
+            latency.record(i);
+        }
+        MessageMetrics.get().snapshot();
+
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.mpeixoto.jms.consumer:type=Latency,name=\"test\"");
+        assertEquals(1_000L, mbeanServer.getAttribute(objectName, "IntervalCount"));
+        long p50 = (Long) mbeanServer.getAttribute(objectName, "P50Micros");
+        assertTrue(p50 >= 499 && p50 <= 501);
+        assertEquals(1_000L, latency.getMaxMicros());
+    }
+
+    /**
+     * Method responsible for testing if the counter of a destination becomes a rate after the snapshot.
+     */
+    @Test
+    public void snapshotShouldComputeTheRateOfADestination() {
+        ThroughputStats throughput = MessageMetrics.get().throughput("test.queue");
+        MessageMetrics.get().snapshot();
+        throughput.add(10);
+        throughput.increment();
+        MessageMetrics.get().snapshot();
+        assertEquals(11, throughput.getTotalMessages());
+        assertTrue(throughput.getMessagesPerSecond() > 0);
+    }
+
+    /**
+     * Method responsible for testing if the clock follows the wall clock.
+     */
+    @Test
+    public void epochMicrosShouldFollowTheWallClock() {
+        long wallClock = System.currentTimeMillis() * 1_000;
+        assertTrue(Math.abs(MessageMetrics.epochMicros() - wallClock) < 1_000_000);
+    }
+}
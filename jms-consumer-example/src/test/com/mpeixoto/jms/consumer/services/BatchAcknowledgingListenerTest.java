@@ -0,0 +1,116 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Class responsible for testing the BatchAcknowledgingListener class and its methods.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BatchAcknowledgingListenerTest {
+    @Mock
+    private MessageListener delegate;
+    @Mock
+    private Message first;
+    @Mock
+    private Message second;
+    @Mock
+    private Message third;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private BatchAcknowledgingListener batchAcknowledgingListener;
+
+    /**
+     * Method responsible for creating a listener that acknowledges every three messages or every
+     * second.
+     */
+    @Before
+    public void setUp() {
+        batchAcknowledgingListener = new BatchAcknowledgingListener(delegate, 3, 1000, ticker::get);
+    }
+
+    /**
+     * Method responsible for testing if only the last message of a batch is acknowledged.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'acknowledge' has failed
+     */
+    @Test
+    public void onMessageShouldAcknowledgeOnlyTheLastMessageOfABatch() throws JMSException {
+        batchAcknowledgingListener.onMessage(first);
+        batchAcknowledgingListener.onMessage(second);
+        assertEquals(2, batchAcknowledgingListener.getUnacknowledged());
+        batchAcknowledgingListener.onMessage(third);
+        verify(delegate, times(1)).onMessage(first);
+        verify(delegate, times(1)).onMessage(third);
+        verify(first, never()).acknowledge();
+        verify(second, never()).acknowledge();
+        verify(third, times(1)).acknowledge();
+        assertEquals(0, batchAcknowledgingListener.getUnacknowledged());
+    }
+
+    /**
+     * Method responsible for testing if a message that failed to be handled is not counted.
+     */
+    @Test
+    public void onMessageShouldNotCountAMessageThatFailed() {
+        doThrow(new RuntimeException("Negative test")).when(delegate).onMessage(first);
+        try {
+            batchAcknowledgingListener.onMessage(first);
+        } catch (RuntimeException e) {
+            assertEquals("Negative test", e.getMessage());
+        }
+        assertEquals(0, batchAcknowledgingListener.getUnacknowledged());
+    }
+
+    /**
+     * Method responsible for testing if a batch that isn't full is acknowledged once its oldest
+     * message has waited for the maximum delay.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'acknowledge' has failed
+     */
+    @Test
+    public void flushExpiredShouldAcknowledgeAnOldBatch() throws JMSException {
+        batchAcknowledgingListener.onMessage(first);
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        batchAcknowledgingListener.onMessage(second);
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(499));
+        batchAcknowledgingListener.flushExpired();
+        verify(second, never()).acknowledge();
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        batchAcknowledgingListener.flushExpired();
+        verify(first, never()).acknowledge();
+        verify(second, times(1)).acknowledge();
+        assertEquals(0, batchAcknowledgingListener.getUnacknowledged());
+        batchAcknowledgingListener.flushExpired();
+        verify(second, times(1)).acknowledge();
+    }
+
+    /**
+     * Method responsible for testing if closing the listener acknowledges the messages handled.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'acknowledge' has failed
+     */
+    @Test
+    public void closeShouldAcknowledgeTheMessagesHandled() throws JMSException {
+        batchAcknowledgingListener.onMessage(first);
+        batchAcknowledgingListener.close();
+        verify(first, times(1)).acknowledge();
+        assertEquals(0, batchAcknowledgingListener.getUnacknowledged());
+    }
+}
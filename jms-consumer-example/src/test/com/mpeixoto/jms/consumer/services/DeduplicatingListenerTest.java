@@ -0,0 +1,90 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.consumer.config.DeduplicationKey;
+import com.mpeixoto.jms.consumer.dedup.DuplicateFilter;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing the DeduplicatingListener class and its methods.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DeduplicatingListenerTest {
+    @Mock
+    private MessageListener delegate;
+    @Mock
+    private Message message;
+    @Mock
+    private Message resent;
+
+    /**
+     * Method responsible for testing if a redelivered message is handed to the delegate only once.
+     *
+     * @throws JMSException Exception that is thrown in case the message id can't be read
+     */
+    @Test
+    public void onMessageShouldDropARedeliveredMessage() throws JMSException {
+        when(message.getJMSMessageID()).thenReturn("ID:1");
+        DeduplicatingListener listener = new DeduplicatingListener(delegate,
+                new DuplicateFilter("dedup-message-id", 10, 1000), DeduplicationKey.MESSAGE_ID);
+        listener.onMessage(message);
+        listener.onMessage(message);
+        verify(delegate, times(1)).onMessage(message);
+    }
+
+    /**
+     * Method responsible for testing if a request sent again as a new message is dropped by its
+     * correlation id.
+     *
+     * @throws JMSException Exception that is thrown in case the correlation id can't be read
+     */
+    @Test
+    public void onMessageShouldDropARequestSentAgain() throws JMSException {
+        when(message.getJMSCorrelationID()).thenReturn("request-1");
+        when(resent.getJMSCorrelationID()).thenReturn("request-1");
+        DeduplicatingListener listener = new DeduplicatingListener(delegate,
+                new DuplicateFilter("dedup-correlation-id", 10, 1000),
+                DeduplicationKey.CORRELATION_ID);
+        listener.onMessage(message);
+        listener.onMessage(resent);
+        verify(delegate, times(1)).onMessage(message);
+        verify(delegate, times(0)).onMessage(resent);
+    }
+
+    /**
+     * Method responsible for testing if a message whose handling failed is handled when it's
+     * delivered again.
+     *
+     * @throws JMSException Exception that is thrown in case the message id can't be read
+     */
+    @Test
+    public void onMessageShouldHandleAgainAMessageThatFailed() throws JMSException {
+        when(message.getJMSMessageID()).thenReturn("ID:1");
+        doThrow(new RuntimeException("Negative test")).doNothing()
+                .when(delegate).onMessage(message);
+        DeduplicatingListener listener = new DeduplicatingListener(delegate,
+                new DuplicateFilter("dedup-failure", 10, 1000), DeduplicationKey.MESSAGE_ID);
+        try {
+            listener.onMessage(message);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Negative test", e.getMessage());
+        }
+        listener.onMessage(message);
+        verify(delegate, times(2)).onMessage(message);
+    }
+}
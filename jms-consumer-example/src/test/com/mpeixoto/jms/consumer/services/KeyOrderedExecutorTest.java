@@ -0,0 +1,131 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the KeyOrderedExecutor class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class KeyOrderedExecutorTest {
+    private KeyOrderedExecutor keyOrderedExecutor;
+
+    /**
+     * Method responsible for creating the executor before each test.
+     */
+    @Before
+    public void setUp() {
+        keyOrderedExecutor = new KeyOrderedExecutor(Executors.newFixedThreadPool(4), 100);
+    }
+
+    /**
+     * Method responsible for releasing the executor after each test.
+     */
+    @After
+    public void tearDown() {
+        keyOrderedExecutor.close();
+    }
+
+    /**
+     * Method responsible for testing if the tasks of the same key run in the order they were submitted.
+     *
+     * @throws InterruptedException Exception that is thrown in case the wait was interrupted
+     */
+    @Test
+    public void executeShouldKeepTheOrderOfTheSameKey() throws InterruptedException {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            keyOrderedExecutor.execute("customer", () -> {
+                if (value % 7 == 0) {
+                    sleep(5);
+                }
+                order.add(value);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    /**
+     * Method responsible for testing if a task failing with an Error doesn't stop the next tasks of
+     * its key, nor keep its permit.
+     *
+     * @throws InterruptedException Exception that is thrown in case the wait was interrupted
+     */
+    @Test
+    public void executeShouldRunTheNextTasksAfterAnError() throws InterruptedException {
+        KeyOrderedExecutor single = new KeyOrderedExecutor(Executors.newFixedThreadPool(2), 1);
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            single.execute("customer", () -> {
+                throw new AssertionError("Negative test");
+            });
+            single.execute("customer", done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            single.close();
+        }
+    }
+
+    /**
+     * Method responsible for testing if a slow key doesn't hold the tasks of other keys.
+     *
+     * @throws InterruptedException Exception that is thrown in case the wait was interrupted
+     */
+    @Test
+    public void executeShouldNotBlockOtherKeys() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+        keyOrderedExecutor.execute("slow", () -> await(release));
+        keyOrderedExecutor.execute("fast", other::countDown);
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    /**
+     * Method responsible for testing if a failing task doesn't stop the next tasks of the same key.
+     *
+     * @throws InterruptedException Exception that is thrown in case the wait was interrupted
+     */
+    @Test
+    public void executeShouldContinueAfterAFailure() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        keyOrderedExecutor.execute("customer", () -> {
+            throw new IllegalStateException("Negative test");
+        });
+        keyOrderedExecutor.execute("customer", done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.mpeixoto.jms.consumer.services;
 
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.BinaryFrame;
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.DeflateCompressor;
 import com.mpeixoto.jms.consumer.exception.MessageException;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
@@ -7,16 +11,23 @@ import javax.jms.MapMessage;
 import javax.jms.MessageProducer;
 import javax.jms.TextMessage;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMapMessage;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -128,4 +139,103 @@ public class MapMessageListenerTest {
         expectedException.expectCause(is(instanceOf(MessageException.class)));
         mapMessageListener.onMessage(textMessage);
     }
+
+    /**
+     * Method responsible for testing if the correlation id of the request is echoed in the response.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'getString' has failed
+     */
+    @Test
+    public void onMessageShouldEchoTheCorrelationId() throws JMSException {
+        when(mapMessage.getString("Request")).thenReturn(REPLY);
+        when(mapMessage.getJMSCorrelationID()).thenReturn("correlation");
+        mapMessageListener.onMessage(mapMessage);
+        verify(responseMessage, times(1)).setJMSCorrelationID("correlation");
+        verify(producer, times(1)).send(responseMessage);
+    }
+
+    /**
+     * Method responsible for testing if the instant the request was sent is echoed in the response.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'getLongProperty' has failed
+     */
+    @Test
+    public void onMessageShouldEchoTheInstantTheRequestWasSent() throws JMSException {
+        when(mapMessage.getString("Request")).thenReturn(REPLY);
+        when(mapMessage.propertyExists("SentAt")).thenReturn(true);
+        when(mapMessage.getLongProperty("SentAt")).thenReturn(42L);
+        mapMessageListener.onMessage(mapMessage);
+        verify(responseMessage, times(1)).setLongProperty("SentAt", 42L);
+        verify(producer, times(1)).send(responseMessage);
+    }
+
+    /**
+     * Method responsible for testing if a binary request is answered with a binary reply.
+     *
+     * @throws JMSException Exception that is thrown in case the messages could not be written or read
+     */
+    @Test
+    public void onMessageGivenABinaryMessageShouldAnswerInTheSameFormat() throws JMSException {
+        MessageReceiver.setAnswer("test answer");
+        ActiveMQBytesMessage request = new ActiveMQBytesMessage();
+        BinaryCodec.write(request, 42L, REPLY);
+        request.reset();
+        request.setJMSCorrelationID("correlation");
+        mapMessageListener.onMessage(request);
+        loggerTest.verifyMessages("test request");
+        ArgumentCaptor<ActiveMQBytesMessage> reply = ArgumentCaptor.forClass(ActiveMQBytesMessage.class);
+        verify(producer, times(1)).send(reply.capture());
+        reply.getValue().reset();
+        BinaryFrame frame = BinaryCodec.read(reply.getValue());
+        assertEquals(42L, frame.getTimestamp());
+        assertTrue(frame.getField(0).startsWith("Request : " + REPLY));
+        assertTrue(frame.getField(1).startsWith("Response : test answer"));
+        assertEquals("correlation", reply.getValue().getJMSCorrelationID());
+    }
+
+    /**
+     * Method responsible for testing if a compressed request is read and answered with a compressed reply.
+     *
+     * @throws JMSException Exception that is thrown in case the messages could not be written or read
+     */
+    @Test
+    public void onMessageGivenACompressedRequestShouldAnswerCompressed() throws JMSException {
+        ActiveMQMapMessage request = new ActiveMQMapMessage();
+        Compression.writeText(request, "Request", REPLY, new DeflateCompressor(), 0);
+        request.setStringProperty(Compression.PROPERTY, DeflateCompressor.NAME);
+        mapMessageListener.onMessage(request);
+        loggerTest.verifyMessages("test request");
+        verify(responseMessage, times(1)).setBytes(eq("Request"), any(byte[].class));
+        verify(responseMessage, times(1)).setStringProperty(Compression.PROPERTY, DeflateCompressor.NAME);
+        verify(producer, times(1)).send(responseMessage);
+    }
+
+    /**
+     * Method responsible for testing if the replies are coalesced into a single message when the batch is full.
+     *
+     * @throws JMSException Exception that is thrown in case the messages could not be written or read
+     */
+    @Test
+    public void onMessageShouldCoalesceTheRepliesWhenTheBatchIsFull() throws JMSException {
+        MessageReceiver.setAnswer("test answer");
+        mapMessageListener.coalesceReplies(2, 60_000_000L);
+        ActiveMQMapMessage first = new ActiveMQMapMessage();
+        first.setString("Request", REPLY);
+        first.setJMSCorrelationID("first");
+        first.setLongProperty("SentAt", 42L);
+        ActiveMQMapMessage second = new ActiveMQMapMessage();
+        second.setString("Request", REPLY);
+        second.setJMSCorrelationID("second");
+        mapMessageListener.onMessage(first);
+        verify(producer, times(0)).send(any(MapMessage.class));
+        mapMessageListener.onMessage(second);
+        ArgumentCaptor<MapMessage> reply = ArgumentCaptor.forClass(MapMessage.class);
+        verify(producer, times(1)).send(reply.capture());
+        assertEquals(2, reply.getValue().getIntProperty(ReplyBatch.ENTRIES));
+        assertEquals("first", reply.getValue().getString("CorrelationID.0"));
+        assertEquals("second", reply.getValue().getString("CorrelationID.1"));
+        assertEquals(42L, reply.getValue().getLong("SentAt.0"));
+        assertTrue(reply.getValue().getString("Response.1").startsWith("Response : test answer"));
+        mapMessageListener.close();
+    }
 }
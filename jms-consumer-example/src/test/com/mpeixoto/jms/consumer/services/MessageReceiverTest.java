@@ -1,10 +1,14 @@
 package com.mpeixoto.jms.consumer.services;
 
+import com.mpeixoto.jms.consumer.config.ConsumerSettings;
 import com.mpeixoto.jms.consumer.exception.MessageException;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
+import javax.jms.MapMessage;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.junit.Before;
 import org.junit.Rule;
@@ -16,6 +20,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -106,4 +112,43 @@ public class MessageReceiverTest {
         expectedException.expectMessage("It was not possible to receive the message from a topic");
         messageReceiver.receiveMessageFromTopic();
     }
+
+    /**
+     * Method responsible for verifying if every concurrent consumer answers the requests of the queue.
+     *
+     * @throws Exception Exception that is thrown in case the communication with the broker has failed
+     */
+    @Test
+    public void receiveMessageFromQueueWithConcurrentConsumers() throws Exception {
+        String brokerUrl = "vm://concurrent?broker.persistent=false";
+        MessageReceiver concurrentReceiver =
+                new MessageReceiver(new ConsumerSettings().setBrokerUrl(brokerUrl).setConcurrentConsumers(3));
+        assertEquals(3, concurrentReceiver.getConcurrentConsumers());
+        concurrentReceiver.receiveMessageFromQueue();
+
+        Connection client = new ActiveMQConnectionFactory(brokerUrl).createConnection();
+        client.start();
+        Session session = client.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer requests = session.createProducer(session.createQueue("request.message.queue"));
+        MessageConsumer replies = session.createConsumer(session.createQueue("response.message.queue"));
+        for (int i = 0; i < 30; i++) {
+            MapMessage request = session.createMapMessage();
+            request.setString("Request", "test " + i);
+            requests.send(request);
+        }
+        for (int i = 0; i < 30; i++) {
+            assertNotNull(replies.receive(2_000));
+        }
+        client.close();
+        concurrentReceiver.close();
+    }
+
+    /**
+     * Method responsible for testing if the assigned shards are consumed as one composite queue.
+     */
+    @Test
+    public void shardQueueNamesShouldNameEveryAssignedShard() {
+        assertEquals("request.message.queue.0,request.message.queue.2",
+                MessageReceiver.shardQueueNames(0, 2));
+    }
 }
@@ -0,0 +1,82 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.util.concurrent.Executors;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.MessageListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing if the requests are handled and acknowledged as expected outside the dispatch thread.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class OffloadingMessageListenerTest {
+    @Mock
+    private MessageListener delegate;
+    @Mock
+    private MapMessage mapMessage;
+
+    private KeyOrderedExecutor keyOrderedExecutor;
+    private OffloadingMessageListener offloadingMessageListener;
+
+    /**
+     * Method responsible for creating the listener before each test.
+     */
+    @Before
+    public void setUp() {
+        keyOrderedExecutor = new KeyOrderedExecutor(Executors.newSingleThreadExecutor(), 10);
+        offloadingMessageListener = new OffloadingMessageListener(delegate, keyOrderedExecutor);
+    }
+
+    /**
+     * Method responsible for releasing the executor after each test.
+     */
+    @After
+    public void tearDown() {
+        keyOrderedExecutor.close();
+    }
+
+    /**
+     * Method responsible for testing if the message is acknowledged only after it was handled.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'acknowledge' has failed
+     */
+    @Test
+    public void onMessageShouldAcknowledgeAfterHandling() throws JMSException {
+        when(mapMessage.getStringProperty("JMSXGroupID")).thenReturn("customer");
+        offloadingMessageListener.onMessage(mapMessage);
+        verify(mapMessage, timeout(1_000)).acknowledge();
+        InOrder inOrder = inOrder(delegate, mapMessage);
+        inOrder.verify(delegate).onMessage(mapMessage);
+        inOrder.verify(mapMessage).acknowledge();
+    }
+
+    /**
+     * Method responsible for testing if the message is not acknowledged when the handling has failed.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'acknowledge' has failed
+     */
+    @Test
+    public void onMessageShouldNotAcknowledgeWhenTheHandlingHasFailed() throws JMSException {
+        doThrow(new RuntimeException("Negative test")).when(delegate).onMessage(mapMessage);
+        offloadingMessageListener.onMessage(mapMessage);
+        keyOrderedExecutor.close();
+        verify(delegate).onMessage(mapMessage);
+        verify(mapMessage, never()).acknowledge();
+    }
+}
@@ -0,0 +1,160 @@
+package com.mpeixoto.jms.consumer.services;
+
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.Compressor;
+import com.mpeixoto.jms.common.codec.DeflateCompressor;
+import java.util.ArrayList;
+import java.util.List;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Session;
+import org.apache.activemq.command.ActiveMQMapMessage;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing the ReplyBatch class and its methods.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReplyBatchTest {
+    private final List<Destination> destinations = new ArrayList<>();
+    private final List<MapMessage> replies = new ArrayList<>();
+    @Mock
+    private Session session;
+
+    /**
+     * Method responsible for making the session create a new message for every batch.
+     *
+     * @throws JMSException Exception that is thrown in case the method 'createMapMessage' has failed
+     */
+    @Before
+    public void setUp() throws JMSException {
+        when(session.createMapMessage()).thenAnswer(invocation -> new ActiveMQMapMessage());
+    }
+
+    /**
+     * Method responsible for testing if the replies are batched per destination.
+     *
+     * @throws JMSException Exception that is thrown in case the batch could not be written
+     */
+    @Test
+    public void addShouldBatchTheRepliesPerDestination() throws JMSException {
+        ReplyBatch replyBatch = new ReplyBatch(session, this::send, 2, 60_000_000L);
+        ActiveMQQueue replyTo = new ActiveMQQueue("reply.queue");
+        replyBatch.add(null, "first", "request", "response", 0, null);
+        replyBatch.add(replyTo, "second", "request", "response", 0, null);
+        assertEquals(0, replies.size());
+        assertEquals(2, replyBatch.getPending());
+        replyBatch.add(replyTo, "third", "request", "response", 0, null);
+        assertEquals(1, replies.size());
+        assertEquals(replyTo, destinations.get(0));
+        assertEquals(2, replies.get(0).getIntProperty(ReplyBatch.ENTRIES));
+        assertEquals("third", replies.get(0).getString("CorrelationID.1"));
+        assertEquals(1, replyBatch.getPending());
+    }
+
+    /**
+     * Method responsible for testing if a batch that waited for too long is sent when it's not full.
+     *
+     * @throws Exception Exception that is thrown in case the batch could not be written
+     */
+    @Test
+    public void flushExpiredShouldSendTheBatchesThatWaitedForTooLong() throws Exception {
+        ReplyBatch replyBatch = new ReplyBatch(session, this::send, 10, 1_000L);
+        replyBatch.add(null, "first", "request", "response", 42L, null);
+        Thread.sleep(5);
+        replyBatch.flushExpired();
+        assertEquals(1, replies.size());
+        assertNull(destinations.get(0));
+        assertEquals(1, replies.get(0).getIntProperty(ReplyBatch.ENTRIES));
+        assertEquals(42L, replies.get(0).getLong("SentAt.0"));
+        assertEquals(0, replyBatch.getPending());
+    }
+
+    /**
+     * Method responsible for testing if a batch that is still within its window is kept.
+     *
+     * @throws JMSException Exception that is thrown in case the batch could not be written
+     */
+    @Test
+    public void flushExpiredShouldKeepTheBatchesWithinTheirWindow() throws JMSException {
+        ReplyBatch replyBatch = new ReplyBatch(session, this::send, 10, 60_000_000L);
+        replyBatch.add(null, "first", "request", "response", 0, null);
+        replyBatch.flushExpired();
+        assertEquals(0, replies.size());
+        replyBatch.flush();
+        assertEquals(1, replies.size());
+    }
+
+    /**
+     * Method responsible for testing if a reply compressed with another codec sends the batch of
+     * its destination first, so every batch names the codec of all its compressed entries.
+     *
+     * @throws JMSException Exception that is thrown in case the batch could not be written
+     */
+    @Test
+    public void addShouldSendTheBatchFirstWhenTheCodecChanges() throws JMSException {
+        Compressor reversing = new ReversingCompressor();
+        Compression.register(reversing);
+        ReplyBatch replyBatch = new ReplyBatch(session, this::send, 10, 60_000_000L);
+        replyBatch.add(null, "first", "first request", "first response", 0, new DeflateCompressor());
+        replyBatch.add(null, "plain", "plain request", "plain response", 0, null);
+        replyBatch.add(null, "second", "second request", "second response", 0, reversing);
+        assertEquals(1, replies.size());
+        replyBatch.flush();
+        assertEquals(2, replies.size());
+
+        MapMessage deflated = replies.get(0);
+        assertEquals(DeflateCompressor.NAME, deflated.getStringProperty(Compression.PROPERTY));
+        assertEquals(2, deflated.getIntProperty(ReplyBatch.ENTRIES));
+        assertEquals("first request", Compression.readText(deflated, "Request.0"));
+        assertEquals("plain response", Compression.readText(deflated, "Response.1"));
+        MapMessage reversed = replies.get(1);
+        assertEquals(ReversingCompressor.NAME, reversed.getStringProperty(Compression.PROPERTY));
+        assertEquals(1, reversed.getIntProperty(ReplyBatch.ENTRIES));
+        assertEquals("second", reversed.getString("CorrelationID.0"));
+        assertEquals("second response", Compression.readText(reversed, "Response.0"));
+    }
+
+    private void send(Destination destination, MapMessage reply, int entries) {
+        destinations.add(destination);
+        replies.add(reply);
+    }
+
+    /**
+     * Codec that only reverses the bytes, so the batches compressed with it can be told apart.
+     */
+    private static final class ReversingCompressor implements Compressor {
+        private static final String NAME = "reverse";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public byte[] compress(byte[] data) {
+            byte[] reversed = new byte[data.length];
+            for (int i = 0; i < data.length; i++) {
+                reversed[i] = data[data.length - 1 - i];
+            }
+            return reversed;
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) {
+            return compress(data);
+        }
+    }
+}
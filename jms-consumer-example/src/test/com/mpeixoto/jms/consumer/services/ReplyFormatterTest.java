@@ -0,0 +1,89 @@
+package com.mpeixoto.jms.consumer.services;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.util.function.Supplier;
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the texts of the response and how much they allocate.
+ *
+ * @author mpeixoto
+ */
+public class ReplyFormatterTest {
+    private static final int ITERATIONS = 200_000;
+
+    /**
+     * Method responsible for testing if the texts of the response are built as expected.
+     */
+    @Test
+    public void requestAndResponseShouldBeFormattedAsBefore() {
+        ReplyFormatter replyFormatter = new ReplyFormatter();
+        assertEquals("Request : test", replyFormatter.request("test"));
+        assertTrue(replyFormatter.response("answer ").matches("Response : answer \\d{2}:\\d{2} \\d{2}/\\d{2}/\\d{4}"));
+    }
+
+    /**
+     * Method responsible for testing if the timestamp is only formatted again when the minute changes.
+     */
+    @Test
+    public void formatShouldReuseTheTimestampOfTheSameMinute() {
+        TimestampCache timestampCache = new TimestampCache("HH:mm dd/MM/yyyy", ZoneOffset.UTC);
+        String first = timestampCache.format(60_000);
+        assertEquals("00:01 01/01/1970", first);
+        assertSame(first, timestampCache.format(119_999));
+        assertEquals("00:02 01/01/1970", timestampCache.format(120_000));
+    }
+
+    /**
+     * Method responsible for testing if the cached timestamp doesn't allocate and if the response allocates
+     * much less than the previous concatenation with a SimpleDateFormat.
+     */
+    @Test
+    public void responseShouldAllocateLessThanBefore() {
+        com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+        TimestampCache timestampCache = new TimestampCache("HH:mm dd/MM/yyyy", ZoneOffset.UTC);
+        ReplyFormatter replyFormatter = new ReplyFormatter();
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm dd/MM/yyyy");
+
+        double cached = bytesPerCall(threadMXBean, timestampCache::current);
+        double current = bytesPerCall(threadMXBean, () -> replyFormatter.response("This is a Response Message "));
+        double previous = bytesPerCall(threadMXBean, () -> "Response : " + "This is a Response Message "
+                + simpleDateFormat.format(Clock.systemDefaultZone().millis()));
+
+        assertTrue("The cached timestamp allocates " + cached + " bytes per call", cached < 1);
+        assertTrue("The response allocates " + current + " bytes per call against " + previous,
+                current * 2 < previous);
+    }
+
+    private static double bytesPerCall(com.sun.management.ThreadMXBean threadMXBean, Supplier<String> supplier) {
+        long threadId = Thread.currentThread().getId();
+        int length = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            length += supplier.get().length();
+        }
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            length += supplier.get().length();
+        }
+        long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        assertTrue(length > 0);
+        return (after - before) / (double) ITERATIONS;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+}
@@ -0,0 +1,168 @@
+package com.mpeixoto.jms.consumer.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Class responsible for testing the StreamReassembler class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class StreamReassemblerTest {
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final List<String> aborted = new ArrayList<>();
+    private final AtomicLong ticker = new AtomicLong();
+    private StreamReassembler streamReassembler;
+
+    /**
+     * Method responsible for creating a reassembler that writes every stream to the same buffer.
+     */
+    @Before
+    public void setUp() {
+        streamReassembler = new StreamReassembler(new StreamHandler() {
+            @Override
+            public WritableByteChannel open(String streamId) {
+                return Channels.newChannel(received);
+            }
+
+            @Override
+            public void aborted(String streamId) {
+                aborted.add(streamId);
+            }
+        }, 1000, ticker::get);
+    }
+
+    /**
+     * Method responsible for testing if the chunks are written in order and the stream is closed by the last one.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void onChunkShouldWriteTheChunksToTheChannel() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1, 2}));
+        streamReassembler.onChunk(chunk(2, false, new byte[] {3}));
+        assertEquals(1, streamReassembler.getOpenStreams());
+        streamReassembler.onChunk(chunk(3, true, new byte[] {4}));
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, received.toByteArray());
+        assertEquals(0, streamReassembler.getOpenStreams());
+    }
+
+    /**
+     * Method responsible for testing if a redelivered chunk is skipped.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void onChunkShouldSkipARedeliveredChunk() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        streamReassembler.onChunk(chunk(2, true, new byte[] {2}));
+        assertArrayEquals(new byte[] {1, 2}, received.toByteArray());
+    }
+
+    /**
+     * Method responsible for testing if a missing chunk aborts the stream.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void onChunkShouldAbortTheStreamWhenAChunkIsMissing() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        streamReassembler.onChunk(chunk(3, true, new byte[] {3}));
+        assertEquals(1, aborted.size());
+        assertEquals(0, streamReassembler.getOpenStreams());
+    }
+
+    /**
+     * Method responsible for testing if the producer can abort a stream.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void onChunkShouldAbortTheStreamWhenTheProducerAsksTo() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        ActiveMQBytesMessage abort = new ActiveMQBytesMessage();
+        abort.setStringProperty("JMSXGroupID", "stream");
+        abort.setIntProperty("JMSXGroupSeq", 2);
+        abort.setBooleanProperty(StreamReassembler.END, true);
+        abort.setBooleanProperty(StreamReassembler.ABORTED, true);
+        abort.reset();
+        streamReassembler.onChunk(abort);
+        assertEquals(1, aborted.size());
+    }
+
+    /**
+     * Method responsible for testing if a stream without chunks for the idle timeout is aborted and
+     * its channel closed.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void abortIdleStreamsShouldAbortAStreamWithoutChunks() throws Exception {
+        WritableByteChannel channel = Channels.newChannel(received);
+        streamReassembler = new StreamReassembler(streamId -> channel, 1000, ticker::get);
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        streamReassembler.abortIdleStreams();
+        assertEquals(1, streamReassembler.getOpenStreams());
+        streamReassembler.onChunk(chunk(2, false, new byte[] {2}));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        streamReassembler.abortIdleStreams();
+        assertEquals(0, streamReassembler.getOpenStreams());
+        assertFalse(channel.isOpen());
+        streamReassembler.onChunk(chunk(3, true, new byte[] {3}));
+        assertArrayEquals(new byte[] {1, 2}, received.toByteArray());
+    }
+
+    /**
+     * Method responsible for testing if the first chunk delivered again after the end of its stream
+     * doesn't open the stream again.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void onChunkShouldSkipTheFirstChunkOfAFinishedStream() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        streamReassembler.onChunk(chunk(2, true, new byte[] {2}));
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        assertEquals(0, streamReassembler.getOpenStreams());
+        assertArrayEquals(new byte[] {1, 2}, received.toByteArray());
+    }
+
+    /**
+     * Method responsible for testing if closing the reassembler aborts the streams still open.
+     *
+     * @throws Exception Exception that is thrown in case the chunks could not be written
+     */
+    @Test
+    public void closeShouldAbortTheOpenStreams() throws Exception {
+        streamReassembler.onChunk(chunk(1, false, new byte[] {1}));
+        streamReassembler.close();
+        assertEquals(0, streamReassembler.getOpenStreams());
+        assertEquals(1, aborted.size());
+    }
+
+    private static BytesMessage chunk(int sequence, boolean end, byte[] data) throws JMSException {
+        ActiveMQBytesMessage chunk = new ActiveMQBytesMessage();
+        chunk.writeBytes(data);
+        chunk.setStringProperty("JMSXGroupID", "stream");
+        chunk.setIntProperty("JMSXGroupSeq", sequence);
+        chunk.setBooleanProperty(StreamReassembler.END, end);
+        chunk.reset();
+        return chunk;
+    }
+}
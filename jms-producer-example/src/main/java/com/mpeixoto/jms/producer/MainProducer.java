@@ -1,7 +1,20 @@
 package com.mpeixoto.jms.producer;
 
+import com.mpeixoto.jms.producer.config.SenderSettings;
 import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.governor.AdaptiveGovernor;
+import com.mpeixoto.jms.producer.governor.OverloadPolicy;
+import com.mpeixoto.jms.producer.governor.SendGovernor;
+import com.mpeixoto.jms.producer.governor.TokenBucketGovernor;
+import com.mpeixoto.jms.producer.load.LoadGenerator;
+import com.mpeixoto.jms.producer.load.LoadMode;
+import com.mpeixoto.jms.producer.load.LoadSettings;
+import com.mpeixoto.jms.producer.load.PayloadSizes;
 import com.mpeixoto.jms.producer.services.MessageSender;
+import com.mpeixoto.jms.producer.services.PooledMessageSender;
+import javax.jms.DeliveryMode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The main class.
@@ -9,18 +22,101 @@ import com.mpeixoto.jms.producer.services.MessageSender;
  * @author mpeixoto
  */
 public class MainProducer {
+  private static final Logger LOGGER = LogManager.getLogger(MainProducer.class);
+  private static final long GOVERNOR_MAX_WAIT_MILLIS = 30_000;
 
   /**
    * The main method.
    *
    * @param args Type: Array of String
    * @throws MessageException It's thrown if an error occurred during a communication
+   * @throws InterruptedException It's thrown if the load run is interrupted
    */
-  public static void main(String[] args) throws MessageException {
+  public static void main(String[] args) throws MessageException, InterruptedException {
 
-    MessageSender messageSender = new MessageSender();
+    SenderSettings settings =
+        new SenderSettings()
+            .setTopicDeliveryMode(
+                Boolean.parseBoolean(System.getProperty("jms.topic.persistent", "true"))
+                    ? DeliveryMode.PERSISTENT
+                    : DeliveryMode.NON_PERSISTENT)
+            .setSendGovernor(createGovernor())
+            .setSpoolDirectory(System.getProperty("jms.producer.spool"))
+            .setSpoolMaxSize(
+                Long.getLong("jms.producer.spoolMaxMegabytes", 1024) * 1024 * 1024)
+            .setSpoolOverloadPolicy(overloadPolicy())
+            .setShards(Integer.getInteger("jms.producer.shards", 0))
+            .setResendRequestsOnFailover(Boolean.getBoolean("jms.producer.resendOnFailover"));
+    String brokerUrls = System.getProperty("jms.broker.urls");
+    if (brokerUrls != null) {
+      settings.setFailoverUrls(brokerUrls.split(","));
+    }
+    Long loadDuration = Long.getLong("jms.load.durationSeconds");
+    if (loadDuration != null) {
+      runLoad(settings, loadDuration);
+      return;
+    }
+    MessageSender messageSender = new MessageSender(settings);
     messageSender.receiveMessageFromQueue();
     messageSender.sendMessageToAQueue("This is a Request Message to a queue ");
     messageSender.sendMessageToATopic("This is a Request Message to a topic ");
   }
+
+  /**
+   * Method responsible for sending requests as asked by the system properties and logging the
+   * throughput and the round-trip latencies that were achieved.
+   *
+   * @param settings The settings of the sender, every load thread gets a pooled session
+   * @param durationSeconds Type: long
+   * @throws MessageException It's thrown if the session pool could not be opened
+   * @throws InterruptedException It's thrown if the run is interrupted
+   */
+  private static void runLoad(SenderSettings settings, long durationSeconds)
+      throws MessageException, InterruptedException {
+    LoadSettings loadSettings =
+        new LoadSettings()
+            .setMode(LoadMode.valueOf(System.getProperty("jms.load.mode", "CLOSED_LOOP")))
+            .setRatePerSecond(Double.parseDouble(System.getProperty("jms.load.rate", "0")))
+            .setThreads(Integer.getInteger("jms.load.threads", 1))
+            .setDurationSeconds(durationSeconds)
+            .setKeys(Integer.getInteger("jms.load.keys", 0))
+            .setPayloadSizes(
+                PayloadSizes.parse(System.getProperty("jms.load.payloadSizes", "128")));
+    settings.setPoolSessions(Math.max(settings.getPoolSessions(), loadSettings.getThreads()));
+    try (PooledMessageSender messageSender = new PooledMessageSender(settings)) {
+      LOGGER.info("Load report: {}", new LoadGenerator(messageSender, loadSettings).run());
+    }
+  }
+
+  /**
+   * Method responsible for creating the send governor asked by the system properties. A maximum
+   * rate alone creates a token bucket, together with a maximum of outstanding requests it creates
+   * an adaptive governor.
+   *
+   * @return SendGovernor, null when no maximum rate was given
+   */
+  private static SendGovernor createGovernor() {
+    String maxRate = System.getProperty("jms.producer.maxRate");
+    if (maxRate == null) {
+      return null;
+    }
+    double ratePerSecond = Double.parseDouble(maxRate);
+    OverloadPolicy policy = overloadPolicy();
+    Integer maxOutstanding = Integer.getInteger("jms.producer.maxOutstanding");
+    if (maxOutstanding == null) {
+      return new TokenBucketGovernor(
+          ratePerSecond, (int) Math.max(1, ratePerSecond / 100), policy, GOVERNOR_MAX_WAIT_MILLIS);
+    }
+    return new AdaptiveGovernor(
+        ratePerSecond / 100,
+        ratePerSecond,
+        maxOutstanding,
+        Long.getLong("jms.producer.targetRoundTripMicros", 10_000),
+        policy,
+        GOVERNOR_MAX_WAIT_MILLIS);
+  }
+
+  private static OverloadPolicy overloadPolicy() {
+    return OverloadPolicy.valueOf(System.getProperty("jms.producer.overloadPolicy", "BLOCK"));
+  }
 }
@@ -0,0 +1,596 @@
+package com.mpeixoto.jms.producer.config;
+
+import com.mpeixoto.jms.common.codec.Compressor;
+import com.mpeixoto.jms.producer.governor.OverloadPolicy;
+import com.mpeixoto.jms.producer.governor.SendGovernor;
+import javax.jms.DeliveryMode;
+import org.apache.activemq.ActiveMQConnectionFactory;
+
+/**
+ * Class responsible for holding the settings used by the producer to talk to the broker.
+ *
+ * @author mpeixoto
+ */
+public class SenderSettings {
+  private String brokerUrl = "tcp://localhost:61616";
+  private String[] failoverUrls;
+  private long initialReconnectDelayMillis = 10;
+  private long maxReconnectDelayMillis = 1000;
+  private boolean resendRequestsOnFailover;
+  private boolean copyMessageOnSend = true;
+  private int asyncWindowSize = 1000;
+  private long asyncWindowTimeoutMillis = 30_000;
+  private int poolConnections = 1;
+  private int poolSessions = Runtime.getRuntime().availableProcessors();
+  private long poolLeaseTimeoutMillis = 30_000;
+  private long requestTimeoutMillis = 30_000;
+  private int queueDeliveryMode = DeliveryMode.PERSISTENT;
+  private int topicDeliveryMode = DeliveryMode.PERSISTENT;
+  private WireFormat wireFormat = WireFormat.MAP;
+  private Compressor compressor;
+  private int compressionThreshold = 1024;
+  private SendGovernor sendGovernor;
+  private int streamChunkSize = 64 * 1024;
+  private String spoolDirectory;
+  private int spoolSegmentSize = 64 * 1024 * 1024;
+  private long spoolMaxSize = 1024L * 1024 * 1024;
+  private OverloadPolicy spoolOverloadPolicy = OverloadPolicy.BLOCK;
+  private int shards;
+
+  /**
+   * Get the URL of the broker, a failover URL when the failover URLs are set.
+   *
+   * @return String
+   */
+  public String getBrokerUrl() {
+    if (failoverUrls == null) {
+      return brokerUrl;
+    }
+    return "failover:("
+        + String.join(",", failoverUrls)
+        + ")?randomize=false&trackMessages=true&useExponentialBackOff=true"
+        + "&initialReconnectDelay="
+        + initialReconnectDelayMillis
+        + "&maxReconnectDelay="
+        + maxReconnectDelayMillis;
+  }
+
+  /**
+   * Set the URL of the broker, it replaces the failover URLs.
+   *
+   * @param brokerUrl The URL of the broker
+   * @return SenderSettings
+   */
+  public SenderSettings setBrokerUrl(String brokerUrl) {
+    this.brokerUrl = brokerUrl;
+    this.failoverUrls = null;
+    return this;
+  }
+
+  /**
+   * Set the URLs of several brokers, the connection goes to the first one that answers and moves
+   * to the next one when it's lost. While the connection is lost the sends wait for it to come
+   * back, and the messages the broker had not acknowledged yet are sent again to the new broker.
+   *
+   * @param brokerUrls The URLs of the brokers, in the order they are tried
+   * @return SenderSettings
+   */
+  public SenderSettings setFailoverUrls(String... brokerUrls) {
+    if (brokerUrls.length == 0) {
+      throw new IllegalArgumentException("At least one broker URL is needed");
+    }
+    this.failoverUrls = brokerUrls.clone();
+    return this;
+  }
+
+  /**
+   * Get the delay in milliseconds before the first attempt to reconnect to a failover URL.
+   *
+   * @return long
+   */
+  public long getInitialReconnectDelayMillis() {
+    return initialReconnectDelayMillis;
+  }
+
+  /**
+   * Get the longest delay in milliseconds between two attempts to reconnect to a failover URL.
+   *
+   * @return long
+   */
+  public long getMaxReconnectDelayMillis() {
+    return maxReconnectDelayMillis;
+  }
+
+  /**
+   * Set the delays between the attempts to reconnect to a failover URL, the delay doubles after
+   * every failed attempt until it reaches the maximum.
+   *
+   * @param initialReconnectDelayMillis The delay before the first attempt
+   * @param maxReconnectDelayMillis The longest delay between two attempts
+   * @return SenderSettings
+   */
+  public SenderSettings setReconnectDelays(
+      long initialReconnectDelayMillis, long maxReconnectDelayMillis) {
+    if (initialReconnectDelayMillis < 1 || maxReconnectDelayMillis < initialReconnectDelayMillis) {
+      throw new IllegalArgumentException("The reconnect delays must be positive and in order");
+    }
+    this.initialReconnectDelayMillis = initialReconnectDelayMillis;
+    this.maxReconnectDelayMillis = maxReconnectDelayMillis;
+    return this;
+  }
+
+  /**
+   * Get whether the requests still waiting for a reply are sent again once a failover connection
+   * is back.
+   *
+   * @return boolean
+   */
+  public boolean isResendRequestsOnFailover() {
+    return resendRequestsOnFailover;
+  }
+
+  /**
+   * Set whether the requests the lost broker had acknowledged, and that are still waiting for a
+   * reply, are sent again once the connection moved to another broker. It's only safe when the
+   * brokers don't share their store: a broker that took over the store of the lost one still holds
+   * the requests, and the copy gets another JMSMessageID, so the consumers must then deduplicate
+   * by JMSCorrelationID or they answer both.
+   *
+   * @param resendRequestsOnFailover true to send the unanswered requests again, false by default
+   * @return SenderSettings
+   */
+  public SenderSettings setResendRequestsOnFailover(boolean resendRequestsOnFailover) {
+    this.resendRequestsOnFailover = resendRequestsOnFailover;
+    return this;
+  }
+
+  /**
+   * Get whether the client copies every message before sending it.
+   *
+   * @return boolean
+   */
+  public boolean isCopyMessageOnSend() {
+    return copyMessageOnSend;
+  }
+
+  /**
+   * Set whether the client copies every message before sending it. The senders never touch a
+   * message after sending it, so the copy can be skipped, which saves a full copy per message when
+   * the broker runs in the same JVM and is reached through the vm:// transport.
+   *
+   * @param copyMessageOnSend false to send the message itself
+   * @return SenderSettings
+   */
+  public SenderSettings setCopyMessageOnSend(boolean copyMessageOnSend) {
+    this.copyMessageOnSend = copyMessageOnSend;
+    return this;
+  }
+
+  /**
+   * Method responsible for creating the connection factory described by the settings.
+   *
+   * @return ActiveMQConnectionFactory
+   */
+  public ActiveMQConnectionFactory createConnectionFactory() {
+    ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(getBrokerUrl());
+    connectionFactory.setCopyMessageOnSend(copyMessageOnSend);
+    return connectionFactory;
+  }
+
+  /**
+   * Get the maximum amount of asynchronous sends that may wait for the broker acknowledgement.
+   *
+   * @return int
+   */
+  public int getAsyncWindowSize() {
+    return asyncWindowSize;
+  }
+
+  /**
+   * Set the maximum amount of asynchronous sends that may wait for the broker acknowledgement.
+   *
+   * @param asyncWindowSize The size of the window
+   * @return SenderSettings
+   */
+  public SenderSettings setAsyncWindowSize(int asyncWindowSize) {
+    if (asyncWindowSize < 1) {
+      throw new IllegalArgumentException("The window size must be greater than zero");
+    }
+    this.asyncWindowSize = asyncWindowSize;
+    return this;
+  }
+
+  /**
+   * Get how long an asynchronous send waits for a free slot in the window.
+   *
+   * @return long
+   */
+  public long getAsyncWindowTimeoutMillis() {
+    return asyncWindowTimeoutMillis;
+  }
+
+  /**
+   * Set how long an asynchronous send waits for a free slot in the window.
+   *
+   * @param asyncWindowTimeoutMillis The timeout in milliseconds
+   * @return SenderSettings
+   */
+  public SenderSettings setAsyncWindowTimeoutMillis(long asyncWindowTimeoutMillis) {
+    this.asyncWindowTimeoutMillis = asyncWindowTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Get the amount of connections shared by the pooled sender.
+   *
+   * @return int
+   */
+  public int getPoolConnections() {
+    return poolConnections;
+  }
+
+  /**
+   * Set the amount of connections shared by the pooled sender.
+   *
+   * @param poolConnections The amount of connections
+   * @return SenderSettings
+   */
+  public SenderSettings setPoolConnections(int poolConnections) {
+    if (poolConnections < 1) {
+      throw new IllegalArgumentException("The amount of connections must be greater than zero");
+    }
+    this.poolConnections = poolConnections;
+    return this;
+  }
+
+  /**
+   * Get the amount of sessions, each one with its own producers, kept by the pooled sender.
+   *
+   * @return int
+   */
+  public int getPoolSessions() {
+    return poolSessions;
+  }
+
+  /**
+   * Set the amount of sessions, each one with its own producers, kept by the pooled sender.
+   *
+   * @param poolSessions The amount of sessions
+   * @return SenderSettings
+   */
+  public SenderSettings setPoolSessions(int poolSessions) {
+    if (poolSessions < 1) {
+      throw new IllegalArgumentException("The amount of sessions must be greater than zero");
+    }
+    this.poolSessions = poolSessions;
+    return this;
+  }
+
+  /**
+   * Get how long a thread waits for a free session of the pool.
+   *
+   * @return long
+   */
+  public long getPoolLeaseTimeoutMillis() {
+    return poolLeaseTimeoutMillis;
+  }
+
+  /**
+   * Set how long a thread waits for a free session of the pool.
+   *
+   * @param poolLeaseTimeoutMillis The timeout in milliseconds
+   * @return SenderSettings
+   */
+  public SenderSettings setPoolLeaseTimeoutMillis(long poolLeaseTimeoutMillis) {
+    this.poolLeaseTimeoutMillis = poolLeaseTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Get how long a request waits for its reply.
+   *
+   * @return long
+   */
+  public long getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
+  /**
+   * Set how long a request waits for its reply.
+   *
+   * @param requestTimeoutMillis The timeout in milliseconds
+   * @return SenderSettings
+   */
+  public SenderSettings setRequestTimeoutMillis(long requestTimeoutMillis) {
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    return this;
+  }
+
+  /**
+   * Get the delivery mode of the messages sent to the request queue.
+   *
+   * @return int
+   */
+  public int getQueueDeliveryMode() {
+    return queueDeliveryMode;
+  }
+
+  /**
+   * Set the delivery mode of the messages sent to the request queue.
+   *
+   * @param queueDeliveryMode DeliveryMode.PERSISTENT or DeliveryMode.NON_PERSISTENT
+   * @return SenderSettings
+   */
+  public SenderSettings setQueueDeliveryMode(int queueDeliveryMode) {
+    this.queueDeliveryMode = checkDeliveryMode(queueDeliveryMode);
+    return this;
+  }
+
+  /**
+   * Get the delivery mode of the messages sent to the topic.
+   *
+   * @return int
+   */
+  public int getTopicDeliveryMode() {
+    return topicDeliveryMode;
+  }
+
+  /**
+   * Set the delivery mode of the messages sent to the topic. The topic has no durable
+   * subscribers, so a persistent message is written to the journal only to be dropped by the
+   * subscribers that are not connected anyway.
+   *
+   * @param topicDeliveryMode DeliveryMode.PERSISTENT or DeliveryMode.NON_PERSISTENT
+   * @return SenderSettings
+   */
+  public SenderSettings setTopicDeliveryMode(int topicDeliveryMode) {
+    this.topicDeliveryMode = checkDeliveryMode(topicDeliveryMode);
+    return this;
+  }
+
+  /**
+   * Get how the requests are written on the wire.
+   *
+   * @return WireFormat
+   */
+  public WireFormat getWireFormat() {
+    return wireFormat;
+  }
+
+  /**
+   * Set how the requests are written on the wire. The consumer answers in the format of the
+   * request and the reply listener reads both, so the binary format must only be enabled once
+   * every consumer understands it.
+   *
+   * @param wireFormat Type: WireFormat
+   * @return SenderSettings
+   */
+  public SenderSettings setWireFormat(WireFormat wireFormat) {
+    this.wireFormat = wireFormat;
+    return this;
+  }
+
+  /**
+   * Get the codec that compresses the big requests, null when they are never compressed.
+   *
+   * @return Compressor
+   */
+  public Compressor getCompressor() {
+    return compressor;
+  }
+
+  /**
+   * Set the codec that compresses the requests that reach the compression threshold. The consumer
+   * must know a codec with the same name, see {@link
+   * com.mpeixoto.jms.common.codec.Compression#register(Compressor)}. The topic requests of the
+   * MAP wire format carry the text in a property, so they are never compressed.
+   *
+   * @param compressor The codec, null to never compress
+   * @return SenderSettings
+   */
+  public SenderSettings setCompressor(Compressor compressor) {
+    this.compressor = compressor;
+    return this;
+  }
+
+  /**
+   * Get the size in bytes from which the requests are compressed.
+   *
+   * @return int
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Set the size in bytes from which the requests are compressed. Small payloads barely shrink and
+   * still pay the CPU time of the codec on both sides.
+   *
+   * @param compressionThreshold The size in bytes
+   * @return SenderSettings
+   */
+  public SenderSettings setCompressionThreshold(int compressionThreshold) {
+    if (compressionThreshold < 0) {
+      throw new IllegalArgumentException("The compression threshold must not be negative");
+    }
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Get the governor that paces the sends, null when the producer sends as fast as it's called.
+   *
+   * @return SendGovernor
+   */
+  public SendGovernor getSendGovernor() {
+    return sendGovernor;
+  }
+
+  /**
+   * Set the governor that paces the sends. Every message sent to the queue or the topic asks the
+   * governor first, and the requests tell it when their replies arrive. A sender built from these
+   * settings shares the governor with any other sender built from them.
+   *
+   * @param sendGovernor The governor, null to send without limits
+   * @return SenderSettings
+   */
+  public SenderSettings setSendGovernor(SendGovernor sendGovernor) {
+    this.sendGovernor = sendGovernor;
+    return this;
+  }
+
+  /**
+   * Get the size in bytes of the chunks a stream is split into.
+   *
+   * @return int
+   */
+  public int getStreamChunkSize() {
+    return streamChunkSize;
+  }
+
+  /**
+   * Set the size in bytes of the chunks a stream is split into. It's the memory a stream takes on
+   * each side, whatever the size of the stream, while every chunk costs one broker round trip.
+   *
+   * @param streamChunkSize The size in bytes
+   * @return SenderSettings
+   */
+  public SenderSettings setStreamChunkSize(int streamChunkSize) {
+    if (streamChunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be greater than zero");
+    }
+    this.streamChunkSize = streamChunkSize;
+    return this;
+  }
+
+  /**
+   * Get the directory of the local spool, null when the spool is disabled.
+   *
+   * @return String
+   */
+  public String getSpoolDirectory() {
+    return spoolDirectory;
+  }
+
+  /**
+   * Set the directory of the local spool. With a spool, the messages sent to the queue or the
+   * topic that the broker doesn't take, or that find the asynchronous send window full, are
+   * written to the spool instead of failing, and a background thread sends them in order once the
+   * broker is back. The messages left in the spool are sent when the next sender starts.
+   *
+   * @param spoolDirectory The directory, null to disable the spool
+   * @return SenderSettings
+   */
+  public SenderSettings setSpoolDirectory(String spoolDirectory) {
+    this.spoolDirectory = spoolDirectory;
+    return this;
+  }
+
+  /**
+   * Get the size in bytes of the segments of the spool.
+   *
+   * @return int
+   */
+  public int getSpoolSegmentSize() {
+    return spoolSegmentSize;
+  }
+
+  /**
+   * Set the size in bytes of the segments of the spool, it's also the biggest message the spool
+   * takes. A segment is mapped in memory while it holds messages that were not sent.
+   *
+   * @param spoolSegmentSize The size in bytes
+   * @return SenderSettings
+   */
+  public SenderSettings setSpoolSegmentSize(int spoolSegmentSize) {
+    if (spoolSegmentSize < 64) {
+      throw new IllegalArgumentException("The segment size must be at least 64 bytes");
+    }
+    this.spoolSegmentSize = spoolSegmentSize;
+    return this;
+  }
+
+  /**
+   * Get the most bytes the spool holds.
+   *
+   * @return long
+   */
+  public long getSpoolMaxSize() {
+    return spoolMaxSize;
+  }
+
+  /**
+   * Set the most bytes the spool holds, rounded down to whole segments. It must hold at least two
+   * segments. Once the spool is full, the overload policy of the spool decides what happens to a
+   * new message.
+   *
+   * @param spoolMaxSize The size in bytes
+   * @return SenderSettings
+   */
+  public SenderSettings setSpoolMaxSize(long spoolMaxSize) {
+    if (spoolMaxSize < 1) {
+      throw new IllegalArgumentException("The maximum size must be greater than zero");
+    }
+    this.spoolMaxSize = spoolMaxSize;
+    return this;
+  }
+
+  /**
+   * Get what happens to a message sent while the spool is full.
+   *
+   * @return OverloadPolicy
+   */
+  public OverloadPolicy getSpoolOverloadPolicy() {
+    return spoolOverloadPolicy;
+  }
+
+  /**
+   * Set what happens to a message sent while the spool is full: BLOCK makes the sender wait for
+   * the oldest messages to be sent, up to the asynchronous send window timeout, and then fail,
+   * FAIL_FAST fails at once, and SHED drops the message, failing the future of an asynchronous
+   * send.
+   *
+   * @param spoolOverloadPolicy Type: OverloadPolicy
+   * @return SenderSettings
+   */
+  public SenderSettings setSpoolOverloadPolicy(OverloadPolicy spoolOverloadPolicy) {
+    if (spoolOverloadPolicy == null) {
+      throw new IllegalArgumentException("The overload policy must not be null");
+    }
+    this.spoolOverloadPolicy = spoolOverloadPolicy;
+    return this;
+  }
+
+  /**
+   * Get the amount of shards of the request queue.
+   *
+   * @return int, 0 when the request queue is not sharded
+   */
+  public int getShards() {
+    return shards;
+  }
+
+  /**
+   * Set the amount of shards of the request queue. The requests sent with a key then go to the
+   * queue request.message.queue.N of the shard the key is mapped to by consistent hashing, and
+   * carry the key as their JMSXGroupID, so the requests of a key are handled in order. The
+   * requests sent without a key still go to request.message.queue.
+   *
+   * @param shards The amount of shards, 0 to send every request to request.message.queue
+   * @return SenderSettings
+   */
+  public SenderSettings setShards(int shards) {
+    if (shards < 0) {
+      throw new IllegalArgumentException("The amount of shards can't be negative");
+    }
+    this.shards = shards;
+    return this;
+  }
+
+  private static int checkDeliveryMode(int deliveryMode) {
+    if (deliveryMode != DeliveryMode.PERSISTENT && deliveryMode != DeliveryMode.NON_PERSISTENT) {
+      throw new IllegalArgumentException("Unsupported delivery mode " + deliveryMode);
+    }
+    return deliveryMode;
+  }
+}
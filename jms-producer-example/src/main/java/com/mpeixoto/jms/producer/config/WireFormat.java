@@ -0,0 +1,13 @@
+package com.mpeixoto.jms.producer.config;
+
+/**
+ * Enum responsible for describing how the requests are written on the wire.
+ *
+ * @author mpeixoto
+ */
+public enum WireFormat {
+  /** The request is a MapMessage, or a TextMessage on the topic, understood by every consumer. */
+  MAP,
+  /** The request is a BytesMessage written by the BinaryCodec, it's answered in the same format. */
+  BINARY
+}
@@ -0,0 +1,161 @@
+package com.mpeixoto.jms.producer.governor;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for adapting the send rate to how fast the consumers answer. It caps the amount
+ * of requests waiting for a reply, a request taking its place under the cap as soon as it's
+ * admitted, and every {@value #ADJUST_INTERVAL_MILLIS} ms it cuts the rate by {@value
+ * #DECREASE_FACTOR} when the smoothed round trip is over the target or the cap was reached, and
+ * raises it by a twentieth of the rate range otherwise. The rate starts at the maximum, and the
+ * token bucket holds 10 ms of messages at the maximum rate.
+ *
+ * @author mpeixoto
+ */
+public class AdaptiveGovernor extends TokenBucketGovernor {
+  private static final long ADJUST_INTERVAL_MILLIS = 100;
+  private static final double DECREASE_FACTOR = 0.7;
+  private static final double SMOOTHING = 0.2;
+  private final double minRatePerSecond;
+  private final double maxRatePerSecond;
+  private final int maxOutstanding;
+  private final long targetRoundTripMicros;
+  private int outstanding;
+  private double roundTripMicros;
+  private boolean capReached;
+  private long lastAdjustNanos = System.nanoTime();
+
+  /**
+   * Constructor of the class.
+   *
+   * @param minRatePerSecond The lowest amount of messages per second the rate is cut to
+   * @param maxRatePerSecond The highest amount of messages per second the rate is raised to
+   * @param maxOutstanding The maximum amount of requests waiting for a reply
+   * @param targetRoundTripMicros The round trip in microseconds above which the rate is cut
+   * @param policy What happens to a message that exceeds the rate or the outstanding requests
+   * @param maxWaitMillis How long a blocked sender waits before failing
+   */
+  public AdaptiveGovernor(
+      double minRatePerSecond,
+      double maxRatePerSecond,
+      int maxOutstanding,
+      long targetRoundTripMicros,
+      OverloadPolicy policy,
+      long maxWaitMillis) {
+    super(maxRatePerSecond, (int) Math.max(1, maxRatePerSecond / 100), policy, maxWaitMillis);
+    if (minRatePerSecond <= 0 || minRatePerSecond > maxRatePerSecond) {
+      throw new IllegalArgumentException("The minimum rate must be between zero and the maximum");
+    }
+    if (maxOutstanding < 1 || targetRoundTripMicros < 1) {
+      throw new IllegalArgumentException("The limits must be greater than zero");
+    }
+    this.minRatePerSecond = minRatePerSecond;
+    this.maxRatePerSecond = maxRatePerSecond;
+    this.maxOutstanding = maxOutstanding;
+    this.targetRoundTripMicros = targetRoundTripMicros;
+  }
+
+  @Override
+  public boolean acquire(int permits) throws MessageException {
+    synchronized (this) {
+      if (!awaitBelowCap()) {
+        return false;
+      }
+    }
+    return super.acquire(permits);
+  }
+
+  @Override
+  public boolean acquireRequest() throws MessageException {
+    synchronized (this) {
+      if (!awaitBelowCap()) {
+        return false;
+      }
+      // Reserved under the same lock as the check, so concurrent senders can't overshoot the cap
+      outstanding++;
+    }
+    boolean admitted = false;
+    try {
+      admitted = super.acquire(1);
+      return admitted;
+    } finally {
+      if (!admitted) {
+        release();
+      }
+    }
+  }
+
+  private boolean awaitBelowCap() throws MessageException {
+    if (outstanding < maxOutstanding) {
+      return true;
+    }
+    capReached = true;
+    if (getPolicy() != OverloadPolicy.BLOCK) {
+      return reject(maxOutstanding + " requests are waiting for a reply");
+    }
+    long deadline = System.nanoTime() + getMaxWaitNanos();
+    try {
+      while (outstanding >= maxOutstanding) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return reject(maxOutstanding + " requests are waiting for a reply");
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MessageException("Interrupted while waiting for the replies", e);
+    }
+    return true;
+  }
+
+  private synchronized void release() {
+    if (outstanding > 0) {
+      outstanding--;
+    }
+    notifyAll();
+  }
+
+  @Override
+  public synchronized void requestSent() {
+    outstanding++;
+  }
+
+  @Override
+  public synchronized void replyReceived(long roundTripMicros) {
+    if (outstanding > 0) {
+      outstanding--;
+    }
+    this.roundTripMicros =
+        this.roundTripMicros == 0
+            ? roundTripMicros
+            : this.roundTripMicros + SMOOTHING * (roundTripMicros - this.roundTripMicros);
+    notifyAll();
+    long now = System.nanoTime();
+    if (now - lastAdjustNanos >= TimeUnit.MILLISECONDS.toNanos(ADJUST_INTERVAL_MILLIS)) {
+      lastAdjustNanos = now;
+      adjust();
+    }
+  }
+
+  /**
+   * Get the amount of requests waiting for a reply.
+   *
+   * @return int
+   */
+  public synchronized int getOutstanding() {
+    return outstanding;
+  }
+
+  private void adjust() {
+    double rate = getRatePerSecond();
+    if (capReached || roundTripMicros > targetRoundTripMicros) {
+      rate = Math.max(minRatePerSecond, rate * DECREASE_FACTOR);
+    } else {
+      rate = Math.min(maxRatePerSecond, rate + (maxRatePerSecond - minRatePerSecond) / 20);
+    }
+    capReached = false;
+    setRatePerSecond(rate);
+  }
+}
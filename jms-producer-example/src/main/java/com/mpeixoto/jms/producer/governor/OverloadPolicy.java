@@ -0,0 +1,15 @@
+package com.mpeixoto.jms.producer.governor;
+
+/**
+ * Enum responsible for holding what a {@link SendGovernor} does with a message it can't send yet.
+ *
+ * @author mpeixoto
+ */
+public enum OverloadPolicy {
+  /** The sender waits until the message may be sent, or fails once the maximum wait is over. */
+  BLOCK,
+  /** The sender fails at once with a MessageException. */
+  FAIL_FAST,
+  /** The message is dropped without blocking the sender. */
+  SHED
+}
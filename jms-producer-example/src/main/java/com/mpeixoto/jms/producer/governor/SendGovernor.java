@@ -0,0 +1,66 @@
+package com.mpeixoto.jms.producer.governor;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+
+/**
+ * Interface responsible for deciding when the producer may send a message, so the producer slows
+ * down before the broker fills up and its flow control stalls every sender at once.
+ *
+ * @author mpeixoto
+ */
+public interface SendGovernor {
+
+  /**
+   * Method responsible for taking the permission to send a message, applying the overload policy
+   * of the governor when the message can't be sent yet.
+   *
+   * @return true if the message may be sent, false if it was shed
+   * @throws MessageException It's thrown in case the message was refused or the wait was too long
+   */
+  default boolean acquire() throws MessageException {
+    return acquire(1);
+  }
+
+  /**
+   * Method responsible for taking at once the permission to send several messages, so a batch is
+   * either admitted as a whole or not at all.
+   *
+   * @param permits The amount of messages
+   * @return true if every message may be sent, false if all of them were shed
+   * @throws MessageException It's thrown in case the messages were refused or the wait was too long
+   */
+  boolean acquire(int permits) throws MessageException;
+
+  /**
+   * Method responsible for taking the permission to send a request that will wait for its reply.
+   * Once admitted, the request counts as waiting until {@link #replyReceived(long)} is called,
+   * also when its send fails.
+   *
+   * @return true if the request may be sent, false if it was shed
+   * @throws MessageException It's thrown in case the request was refused or the wait was too long
+   */
+  default boolean acquireRequest() throws MessageException {
+    if (!acquire()) {
+      return false;
+    }
+    requestSent();
+    return true;
+  }
+
+  /** Method responsible for telling the governor a request is waiting for its reply. */
+  default void requestSent() {}
+
+  /**
+   * Method responsible for telling the governor a request was answered, or gave up waiting.
+   *
+   * @param roundTripMicros The time in microseconds the request waited
+   */
+  default void replyReceived(long roundTripMicros) {}
+
+  /**
+   * Get the amount of messages per second the governor currently allows.
+   *
+   * @return double
+   */
+  double getRatePerSecond();
+}
@@ -0,0 +1,138 @@
+package com.mpeixoto.jms.producer.governor;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.metrics.GovernorStats;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for limiting the send rate with a token bucket. The bucket is refilled at the
+ * allowed rate and holds up to {@code burst} tokens, every message takes one. A blocked sender
+ * reserves its tokens before waiting, so the senders are served in the order they arrived. A
+ * batch takes its tokens at once, waiting for them even beyond the burst.
+ *
+ * @author mpeixoto
+ */
+public class TokenBucketGovernor implements SendGovernor {
+  private final GovernorStats stats = MessageMetrics.get().governor(getClass().getSimpleName());
+  private final int burst;
+  private final OverloadPolicy policy;
+  private final long maxWaitNanos;
+  private double ratePerSecond;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+
+  /**
+   * Constructor of the class.
+   *
+   * @param ratePerSecond The amount of messages per second
+   * @param burst The amount of messages that may be sent at once after an idle period
+   * @param policy What happens to a message that exceeds the rate
+   * @param maxWaitMillis How long a blocked sender waits before failing
+   */
+  public TokenBucketGovernor(
+      double ratePerSecond, int burst, OverloadPolicy policy, long maxWaitMillis) {
+    if (ratePerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("The rate and the burst must be greater than zero");
+    }
+    if (maxWaitMillis < 0) {
+      throw new IllegalArgumentException("The maximum wait must not be negative");
+    }
+    this.burst = burst;
+    this.policy = policy;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    this.tokens = burst;
+    setRatePerSecond(ratePerSecond);
+  }
+
+  @Override
+  public boolean acquire(int permits) throws MessageException {
+    if (permits < 1) {
+      throw new IllegalArgumentException("The amount of permits must be greater than zero");
+    }
+    long waitNanos;
+    synchronized (this) {
+      refill(System.nanoTime());
+      if (tokens >= permits) {
+        tokens -= permits;
+        stats.admitted(permits);
+        return true;
+      }
+      waitNanos = (long) ((permits - tokens) * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+      if (policy != OverloadPolicy.BLOCK || waitNanos > maxWaitNanos) {
+        return reject(String.format("The send rate of %.1f msg/s was exceeded", ratePerSecond));
+      }
+      tokens -= permits;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      synchronized (this) {
+        tokens += permits;
+      }
+      throw new MessageException("Interrupted while waiting for the send rate limit", e);
+    }
+    stats.admitted(permits);
+    return true;
+  }
+
+  @Override
+  public synchronized double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  /**
+   * Set the amount of messages per second the governor allows from now on.
+   *
+   * @param ratePerSecond The amount of messages per second
+   */
+  protected synchronized void setRatePerSecond(double ratePerSecond) {
+    refill(System.nanoTime());
+    this.ratePerSecond = ratePerSecond;
+    stats.setRatePerSecond(ratePerSecond);
+  }
+
+  /**
+   * Method responsible for applying the overload policy to a message that can't be sent.
+   *
+   * @param reason Why the message can't be sent
+   * @return false when the message is shed
+   * @throws MessageException It's thrown in case the policy doesn't shed the message
+   */
+  protected boolean reject(String reason) throws MessageException {
+    stats.rejected();
+    if (policy == OverloadPolicy.SHED) {
+      return false;
+    }
+    throw new MessageException(
+        "The message was refused by the send governor", new RejectedExecutionException(reason));
+  }
+
+  /**
+   * Get the overload policy of the governor.
+   *
+   * @return OverloadPolicy
+   */
+  protected OverloadPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Get how long a blocked sender waits before failing.
+   *
+   * @return long
+   */
+  protected long getMaxWaitNanos() {
+    return maxWaitNanos;
+  }
+
+  private void refill(long now) {
+    tokens =
+        Math.min(
+            burst,
+            tokens + (now - lastRefillNanos) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+    lastRefillNanos = now;
+  }
+}
@@ -0,0 +1,166 @@
+package com.mpeixoto.jms.producer.load;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.services.PooledMessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Class responsible for driving a {@link PooledMessageSender} with requests and measuring their
+ * round trips. Every thread sends through a session leased from the pool, since a JMS session can't
+ * be shared between threads. In an open loop every thread sends at its share of the target rate and
+ * the latency of a request counts from the instant it was due, so the requests a stalled system
+ * kept from being sent still show up in the percentiles. In a closed loop every thread waits for
+ * each reply.
+ *
+ * @author mpeixoto
+ */
+public class LoadGenerator {
+  private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+  private final PooledMessageSender messageSender;
+  private final LoadSettings settings;
+  private final Recorder latencies = new Recorder(HIGHEST_MICROS, 3);
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final Object drained = new Object();
+  private long outstanding;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param messageSender The sender of the requests
+   * @param settings The settings of the run
+   */
+  public LoadGenerator(PooledMessageSender messageSender, LoadSettings settings) {
+    if (settings.getMode() == LoadMode.OPEN_LOOP && settings.getRatePerSecond() == 0) {
+      throw new IllegalArgumentException("An open loop needs a target rate");
+    }
+    this.messageSender = messageSender;
+    this.settings = settings;
+  }
+
+  /**
+   * Method responsible for sending the requests for the duration of the run and then waiting for
+   * the replies still missing.
+   *
+   * @return LoadReport
+   * @throws InterruptedException It's thrown if the thread is interrupted while waiting
+   */
+  public LoadReport run() throws InterruptedException {
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+    Thread[] threads = new Thread[settings.getThreads()];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> send(start, deadline), "load-generator-" + i);
+      threads[i].start();
+    }
+    try {
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      synchronized (drained) {
+        while (outstanding > 0) {
+          drained.wait();
+        }
+      }
+    } finally {
+      for (Thread thread : threads) {
+        thread.interrupt();
+      }
+    }
+    return new LoadReport(
+        sent.sum(), errors.sum(), System.nanoTime() - start, latencies.getIntervalHistogram());
+  }
+
+  private void send(long start, long deadline) {
+    long intervalNanos =
+        settings.getRatePerSecond() == 0
+            ? 0
+            : (long) (TimeUnit.SECONDS.toNanos(1) * settings.getThreads()
+                / settings.getRatePerSecond());
+    long intended = start;
+    while (!Thread.currentThread().isInterrupted()) {
+      long now = System.nanoTime();
+      if (intervalNanos > 0) {
+        intended += intervalNanos;
+        while (now < intended) {
+          LockSupport.parkNanos(intended - now);
+          now = System.nanoTime();
+        }
+      }
+      if (now >= deadline) {
+        return;
+      }
+      if (settings.getMode() == LoadMode.OPEN_LOOP) {
+        request(intended);
+      } else {
+        requestAndWait(now);
+      }
+    }
+  }
+
+  private void request(long intended) {
+    CompletableFuture<Reply> future = send();
+    if (future == null) {
+      return;
+    }
+    synchronized (drained) {
+      outstanding++;
+    }
+    future.whenComplete(
+        (reply, error) -> {
+          record(intended, error);
+          synchronized (drained) {
+            if (--outstanding == 0) {
+              drained.notifyAll();
+            }
+          }
+        });
+  }
+
+  private void requestAndWait(long start) {
+    CompletableFuture<Reply> future = send();
+    if (future == null) {
+      return;
+    }
+    try {
+      future.get();
+      record(start, null);
+    } catch (ExecutionException e) {
+      record(start, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private CompletableFuture<Reply> send() {
+    try {
+      String payload = settings.getPayloadSizes().next();
+      CompletableFuture<Reply> future =
+          settings.getKeys() == 0
+              ? messageSender.request(payload)
+              : messageSender.request(
+                  "key-" + ThreadLocalRandom.current().nextInt(settings.getKeys()), payload);
+      sent.increment();
+      return future;
+    } catch (MessageException e) {
+      errors.increment();
+      return null;
+    }
+  }
+
+  private void record(long start, Throwable error) {
+    if (error != null) {
+      errors.increment();
+      return;
+    }
+    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+    latencies.recordValue(Math.min(Math.max(micros, 0), HIGHEST_MICROS));
+  }
+}
@@ -0,0 +1,20 @@
+package com.mpeixoto.jms.producer.load;
+
+/**
+ * Enum responsible for holding how a {@link LoadGenerator} paces its requests.
+ *
+ * @author mpeixoto
+ */
+public enum LoadMode {
+  /**
+   * Every thread sends at its share of the target rate whatever the replies do, and the latency
+   * is measured from the instant the request was due, so a slow system is not hidden by a sender
+   * that waits for it.
+   */
+  OPEN_LOOP,
+  /**
+   * Every thread waits for the reply of a request before sending the next one, optionally capped
+   * by the target rate, and the latency is measured from the actual send.
+   */
+  CLOSED_LOOP
+}
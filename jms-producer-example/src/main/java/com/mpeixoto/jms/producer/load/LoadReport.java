@@ -0,0 +1,92 @@
+package com.mpeixoto.jms.producer.load;
+
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Class responsible for holding the outcome of a load run.
+ *
+ * @author mpeixoto
+ */
+public class LoadReport {
+  private final long sent;
+  private final long errors;
+  private final long elapsedNanos;
+  private final Histogram latencies;
+
+  LoadReport(long sent, long errors, long elapsedNanos, Histogram latencies) {
+    this.sent = sent;
+    this.errors = errors;
+    this.elapsedNanos = elapsedNanos;
+    this.latencies = latencies;
+  }
+
+  /**
+   * Get the amount of requests that were sent.
+   *
+   * @return long
+   */
+  public long getSent() {
+    return sent;
+  }
+
+  /**
+   * Get the amount of requests that got a reply.
+   *
+   * @return long
+   */
+  public long getCompleted() {
+    return latencies.getTotalCount();
+  }
+
+  /**
+   * Get the amount of requests that could not be sent, were shed or got no reply in time.
+   *
+   * @return long
+   */
+  public long getErrors() {
+    return errors;
+  }
+
+  /**
+   * Get the replies received per second over the whole run.
+   *
+   * @return double
+   */
+  public double getThroughput() {
+    return getCompleted() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+  }
+
+  /**
+   * Get the round-trip latency of the given percentile.
+   *
+   * @param percentile The percentile, between 0 and 100
+   * @return long the latency in microseconds
+   */
+  public long getLatencyMicros(double percentile) {
+    return latencies.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Get the longest round-trip latency.
+   *
+   * @return long the latency in microseconds
+   */
+  public long getMaxLatencyMicros() {
+    return latencies.getMaxValue();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "sent=%d completed=%d errors=%d throughput=%.1f/s p50=%dus p99=%dus p99.9=%dus max=%dus",
+        sent,
+        getCompleted(),
+        errors,
+        getThroughput(),
+        getLatencyMicros(50),
+        getLatencyMicros(99),
+        getLatencyMicros(99.9),
+        getMaxLatencyMicros());
+  }
+}
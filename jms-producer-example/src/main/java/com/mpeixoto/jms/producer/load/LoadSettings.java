@@ -0,0 +1,155 @@
+package com.mpeixoto.jms.producer.load;
+
+/**
+ * Class responsible for holding the settings of a load run.
+ *
+ * @author mpeixoto
+ */
+public class LoadSettings {
+  private LoadMode mode = LoadMode.CLOSED_LOOP;
+  private double ratePerSecond;
+  private int threads = 1;
+  private long durationSeconds = 60;
+  private PayloadSizes payloadSizes = PayloadSizes.parse("128");
+  private int keys;
+
+  /**
+   * Get how the requests are paced.
+   *
+   * @return LoadMode
+   */
+  public LoadMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Set how the requests are paced, an open loop needs a target rate.
+   *
+   * @param mode The pacing of the requests
+   * @return LoadSettings
+   */
+  public LoadSettings setMode(LoadMode mode) {
+    if (mode == null) {
+      throw new IllegalArgumentException("The load mode is needed");
+    }
+    this.mode = mode;
+    return this;
+  }
+
+  /**
+   * Get the target rate of requests per second of all the threads together.
+   *
+   * @return double, 0 when a closed loop sends as fast as the replies arrive
+   */
+  public double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  /**
+   * Set the target rate of requests per second of all the threads together, it's shared evenly
+   * between the threads.
+   *
+   * @param ratePerSecond The target rate, 0 to send as fast as the replies arrive
+   * @return LoadSettings
+   */
+  public LoadSettings setRatePerSecond(double ratePerSecond) {
+    if (ratePerSecond < 0) {
+      throw new IllegalArgumentException("The rate can't be negative");
+    }
+    this.ratePerSecond = ratePerSecond;
+    return this;
+  }
+
+  /**
+   * Get the amount of threads that send the requests.
+   *
+   * @return int
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Set the amount of threads that send the requests.
+   *
+   * @param threads The amount of threads, at least 1
+   * @return LoadSettings
+   */
+  public LoadSettings setThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is needed");
+    }
+    this.threads = threads;
+    return this;
+  }
+
+  /**
+   * Get how long the requests are sent for, in seconds.
+   *
+   * @return long
+   */
+  public long getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  /**
+   * Set how long the requests are sent for, the run then waits for the replies still missing.
+   *
+   * @param durationSeconds The duration in seconds, at least 1
+   * @return LoadSettings
+   */
+  public LoadSettings setDurationSeconds(long durationSeconds) {
+    if (durationSeconds < 1) {
+      throw new IllegalArgumentException("The duration must be at least one second");
+    }
+    this.durationSeconds = durationSeconds;
+    return this;
+  }
+
+  /**
+   * Get the distribution of the payload sizes.
+   *
+   * @return PayloadSizes
+   */
+  public PayloadSizes getPayloadSizes() {
+    return payloadSizes;
+  }
+
+  /**
+   * Set the distribution of the payload sizes.
+   *
+   * @param payloadSizes The distribution, see {@link PayloadSizes#parse(String)}
+   * @return LoadSettings
+   */
+  public LoadSettings setPayloadSizes(PayloadSizes payloadSizes) {
+    if (payloadSizes == null) {
+      throw new IllegalArgumentException("The payload sizes are needed");
+    }
+    this.payloadSizes = payloadSizes;
+    return this;
+  }
+
+  /**
+   * Get the amount of distinct keys the requests are sent with.
+   *
+   * @return int, 0 when the requests are sent without a key
+   */
+  public int getKeys() {
+    return keys;
+  }
+
+  /**
+   * Set the amount of distinct keys the requests are sent with, every request takes one of them
+   * at random. With a sharded request queue the keys spread the requests over the shards.
+   *
+   * @param keys The amount of keys, 0 to send the requests without a key
+   * @return LoadSettings
+   */
+  public LoadSettings setKeys(int keys) {
+    if (keys < 0) {
+      throw new IllegalArgumentException("The amount of keys can't be negative");
+    }
+    this.keys = keys;
+    return this;
+  }
+}
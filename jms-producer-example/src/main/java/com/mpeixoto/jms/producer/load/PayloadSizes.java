@@ -0,0 +1,86 @@
+package com.mpeixoto.jms.producer.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Class responsible for drawing the payload sizes of a load run from a weighted distribution. The
+ * distribution is written as {@code size[:weight],...}, e.g. {@code 128:90,4096:9,65536:1} sends
+ * 90% of small payloads, and a single size sends every payload with that size.
+ *
+ * @author mpeixoto
+ */
+public final class PayloadSizes {
+  private final int[] sizes;
+  private final long[] cumulativeWeights;
+  private final String[] payloads;
+
+  private PayloadSizes(int[] sizes, long[] cumulativeWeights) {
+    this.sizes = sizes;
+    this.cumulativeWeights = cumulativeWeights;
+    this.payloads = new String[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      char[] characters = new char[sizes[i]];
+      Arrays.fill(characters, 'x');
+      payloads[i] = new String(characters);
+    }
+  }
+
+  /**
+   * Method responsible for reading a distribution.
+   *
+   * @param distribution The distribution as {@code size[:weight],...}, the weight is 1 by default
+   * @return PayloadSizes
+   */
+  public static PayloadSizes parse(String distribution) {
+    String[] entries = distribution.split(",");
+    int[] sizes = new int[entries.length];
+    long[] cumulativeWeights = new long[entries.length];
+    long total = 0;
+    for (int i = 0; i < entries.length; i++) {
+      String[] entry = entries[i].trim().split(":");
+      if (entry.length > 2) {
+        throw new IllegalArgumentException("Invalid payload size: " + entries[i]);
+      }
+      sizes[i] = Integer.parseInt(entry[0].trim());
+      int weight = entry.length == 2 ? Integer.parseInt(entry[1].trim()) : 1;
+      if (sizes[i] < 0 || weight < 1) {
+        throw new IllegalArgumentException("Invalid payload size: " + entries[i]);
+      }
+      total += weight;
+      cumulativeWeights[i] = total;
+    }
+    return new PayloadSizes(sizes, cumulativeWeights);
+  }
+
+  /**
+   * Method responsible for drawing the payload of the next request.
+   *
+   * @return String a payload with one of the sizes of the distribution
+   */
+  public String next() {
+    long total = cumulativeWeights[cumulativeWeights.length - 1];
+    long draw = ThreadLocalRandom.current().nextLong(total);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (draw < cumulativeWeights[i]) {
+        return payloads[i];
+      }
+    }
+    return payloads[payloads.length - 1];
+  }
+
+  /**
+   * Get the mean payload size in bytes of the distribution.
+   *
+   * @return double
+   */
+  public double getMeanSize() {
+    double sum = 0;
+    long previous = 0;
+    for (int i = 0; i < sizes.length; i++) {
+      sum += (double) sizes[i] * (cumulativeWeights[i] - previous);
+      previous = cumulativeWeights[i];
+    }
+    return sum / previous;
+  }
+}
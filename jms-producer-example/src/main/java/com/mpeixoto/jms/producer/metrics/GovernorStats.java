@@ -0,0 +1,68 @@
+package com.mpeixoto.jms.producer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class responsible for keeping the rate a send governor currently allows and counting the
+ * messages it admitted and rejected.
+ *
+ * @author mpeixoto
+ */
+public class GovernorStats implements GovernorStatsMBean {
+  private final String name;
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile double ratePerSecond;
+
+  GovernorStats(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Set the rate the governor currently allows.
+   *
+   * @param ratePerSecond The amount of messages per second
+   */
+  public void setRatePerSecond(double ratePerSecond) {
+    this.ratePerSecond = ratePerSecond;
+  }
+
+  /** Method responsible for counting a message that was allowed to be sent. */
+  public void admitted() {
+    admitted.increment();
+  }
+
+  /**
+   * Method responsible for counting several messages that were allowed to be sent at once.
+   *
+   * @param messages The amount of messages
+   */
+  public void admitted(int messages) {
+    admitted.add(messages);
+  }
+
+  /** Method responsible for counting a message that was refused or shed. */
+  public void rejected() {
+    rejected.increment();
+  }
+
+  String summary() {
+    return String.format(
+        "%s %.1f msg/s allowed, %d rejected", name, ratePerSecond, rejected.sum());
+  }
+
+  @Override
+  public double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  @Override
+  public long getAdmittedMessages() {
+    return admitted.sum();
+  }
+
+  @Override
+  public long getRejectedMessages() {
+    return rejected.sum();
+  }
+}
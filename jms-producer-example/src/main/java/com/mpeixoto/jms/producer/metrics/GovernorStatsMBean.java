@@ -0,0 +1,15 @@
+package com.mpeixoto.jms.producer.metrics;
+
+/**
+ * Interface responsible for exposing the state of a send governor through JMX.
+ *
+ * @author mpeixoto
+ */
+public interface GovernorStatsMBean {
+
+  double getRatePerSecond();
+
+  long getAdmittedMessages();
+
+  long getRejectedMessages();
+}
@@ -0,0 +1,157 @@
+package com.mpeixoto.jms.producer.metrics;
+
+import com.mpeixoto.jms.common.metrics.LatencyStats;
+import com.mpeixoto.jms.common.metrics.MessageLog;
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Class responsible for keeping the latency histograms, the throughput counters and the send
+ * governor states of the producer. Every metric is exposed as an MBean under {@value #DOMAIN},
+ * and a snapshot of all of them is logged every {@code jms.metrics.snapshot.seconds} seconds (60
+ * by default).
+ *
+ * @author mpeixoto
+ */
+public final class MessageMetrics {
+  /** Name of the long property holding the instant, in epoch microseconds, a request was sent. */
+  public static final String SENT_AT = "SentAt";
+
+  private static final Logger LOGGER = LogManager.getLogger(MessageMetrics.class);
+  private static final String DOMAIN = "com.mpeixoto.jms.producer";
+  private static final long EPOCH_MICROS_AT_START =
+      TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+  private static final long NANOS_AT_START = System.nanoTime();
+  private static final MessageMetrics INSTANCE =
+      new MessageMetrics(
+          Long.getLong("jms.metrics.snapshot.seconds", 60),
+          Integer.getInteger("jms.log.sampleEvery", 1));
+  private final Map<String, LatencyStats> latencies = new ConcurrentHashMap<>();
+  private final Map<String, ThroughputStats> throughputs = new ConcurrentHashMap<>();
+  private final Map<String, MessageLog> messageLogs = new ConcurrentHashMap<>();
+  private final Map<String, GovernorStats> governors = new ConcurrentHashMap<>();
+  private final int sampleEvery;
+  private long lastRollNanos = System.nanoTime();
+
+  private MessageMetrics(long snapshotSeconds, int sampleEvery) {
+    this.sampleEvery = sampleEvery;
+    ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "message-metrics");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleAtFixedRate(
+        this::snapshot, snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Get the metrics of the process.
+   *
+   * @return MessageMetrics
+   */
+  public static MessageMetrics get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get the current instant in microseconds since the epoch. It's anchored to the wall clock once
+   * and then follows System.nanoTime(), so it has microsecond resolution on every JDK.
+   *
+   * @return long
+   */
+  public static long epochMicros() {
+    return EPOCH_MICROS_AT_START
+        + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - NANOS_AT_START);
+  }
+
+  /**
+   * Get the latency histogram with the given name, it's created the first time it's asked for.
+   *
+   * @param name The name of the histogram
+   * @return LatencyStats
+   */
+  public LatencyStats latency(String name) {
+    return latencies.computeIfAbsent(name, key -> register("Latency", key, new LatencyStats(key)));
+  }
+
+  /**
+   * Get the message counter of the given destination, it's created the first time it's asked for.
+   *
+   * @param destination The name of the destination
+   * @return ThroughputStats
+   */
+  public ThroughputStats throughput(String destination) {
+    return throughputs.computeIfAbsent(
+        destination, key -> register("Throughput", key, new ThroughputStats(key)));
+  }
+
+  /**
+   * Get the state of the send governor with the given name, it's created the first time it's
+   * asked for.
+   *
+   * @param name The name of the governor
+   * @return GovernorStats
+   */
+  public GovernorStats governor(String name) {
+    return governors.computeIfAbsent(
+        name, key -> register("Governor", key, new GovernorStats(key)));
+  }
+
+  /**
+   * Get the sampling of the per message logs with the given name, it's created the first time it's
+   * asked for.
+   *
+   * @param name The name of the logged messages
+   * @return MessageLog
+   */
+  public MessageLog messageLog(String name) {
+    return messageLogs.computeIfAbsent(name, key -> new MessageLog(key, sampleEvery));
+  }
+
+  /** Method responsible for closing the current interval of every metric and logging it. */
+  public synchronized void snapshot() {
+    long now = System.nanoTime();
+    latencies.values().forEach(LatencyStats::roll);
+    throughputs.values().forEach(stats -> stats.roll(now - lastRollNanos));
+    messageLogs.values().forEach(MessageLog::roll);
+    lastRollNanos = now;
+    if (!latencies.isEmpty() || !throughputs.isEmpty() || !governors.isEmpty()) {
+      LOGGER.info(
+          Stream.of(
+                  latencies.values().stream().map(LatencyStats::summary),
+                  throughputs.values().stream().map(ThroughputStats::summary),
+                  governors.values().stream().map(GovernorStats::summary),
+                  messageLogs.values().stream().map(MessageLog::summary))
+              .flatMap(summaries -> summaries)
+              .collect(Collectors.joining(" | ")));
+    }
+  }
+
+  private static <T> T register(String type, String name, T mbean) {
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName objectName =
+          new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+      if (!mbeanServer.isRegistered(objectName)) {
+        mbeanServer.registerMBean(mbean, objectName);
+      }
+    } catch (JMException e) {
+      LOGGER.warn("It was not possible to register the metric " + name, e);
+    }
+    return mbean;
+  }
+}
@@ -0,0 +1,91 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.common.metrics.LatencyStats;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.activemq.transport.TransportListener;
+
+/**
+ * Class responsible for following the connection of a failover transport. It records in the
+ * {@code failoverRecovery} histogram how long every reconnection took and, once the connection is
+ * back, runs the callback that resumes the work left waiting. The callback runs on its own thread,
+ * since the transport thread that resumes the connection must not send.
+ *
+ * @author mpeixoto
+ */
+class FailoverTracker implements TransportListener {
+  private final LatencyStats recovery = MessageMetrics.get().latency("failoverRecovery");
+  private final Runnable onResume;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "failover-resume");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private long interruptedAt;
+  private long lastRecoveryMicros = -1;
+  private int reconnections;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param onResume The callback that runs every time the connection is back
+   */
+  FailoverTracker(Runnable onResume) {
+    this.onResume = onResume;
+  }
+
+  @Override
+  public void onCommand(Object command) {}
+
+  @Override
+  public void onException(IOException error) {}
+
+  @Override
+  public synchronized void transportInterupted() {
+    if (interruptedAt == 0) {
+      interruptedAt = System.nanoTime();
+    }
+  }
+
+  @Override
+  public void transportResumed() {
+    synchronized (this) {
+      if (interruptedAt == 0) {
+        return;
+      }
+      lastRecoveryMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - interruptedAt);
+      recovery.record(lastRecoveryMicros);
+      interruptedAt = 0;
+      reconnections++;
+    }
+    executor.execute(onResume);
+  }
+
+  /**
+   * Get how long the last reconnection took, in microseconds.
+   *
+   * @return long, -1 when the connection was never lost
+   */
+  synchronized long getLastRecoveryMicros() {
+    return lastRecoveryMicros;
+  }
+
+  /**
+   * Get how many times the connection was resumed.
+   *
+   * @return int
+   */
+  synchronized int getReconnections() {
+    return reconnections;
+  }
+
+  /** Method responsible for stopping the thread of the callback. */
+  void close() {
+    executor.shutdownNow();
+  }
+}
@@ -1,5 +1,13 @@
 package com.mpeixoto.jms.producer.services;
 
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.BinaryFrame;
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.metrics.LatencyStats;
+import com.mpeixoto.jms.common.metrics.MessageLog;
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.MapMessage;
 import javax.jms.Message;
@@ -8,13 +16,36 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Class responsible for implementing the method that will be listening to a queue.
+ * Class responsible for implementing the method that will be listening to a queue. The replies
+ * are read both as a MapMessage and as a BytesMessage written by the {@link BinaryCodec}. A
+ * MapMessage with the {@value #ENTRIES} property holds a batch of coalesced replies, where the
+ * reply i is written as the entries "CorrelationID.i", "Request.i", "Response.i" and "SentAt.i".
  *
  * @author mpeixoto
  */
 public class MapMessageListener implements MessageListener {
 
+  static final String ENTRIES = "Entries";
   private static final Logger LOGGER = LogManager.getLogger(MapMessageListener.class);
+  private final LatencyStats roundTrip = MessageMetrics.get().latency("roundTrip");
+  private final ThroughputStats replyThroughput =
+      MessageMetrics.get().throughput(RequestMessages.QUEUE_NAME_RESPONSE);
+  private final MessageLog replyLog = MessageMetrics.get().messageLog("replies");
+  private final PendingRequests pendingRequests;
+
+  /** Default constructor of the class. */
+  public MapMessageListener() {
+    this(null);
+  }
+
+  /**
+   * Constructor of the class that hands the replies to the requests waiting for them.
+   *
+   * @param pendingRequests Type: PendingRequests
+   */
+  MapMessageListener(PendingRequests pendingRequests) {
+    this.pendingRequests = pendingRequests;
+  }
 
   /**
    * Method that will be listening to a queue waiting for a given message.
@@ -26,8 +57,30 @@ public class MapMessageListener implements MessageListener {
     if (message instanceof MapMessage) {
       MapMessage mapMessage = (MapMessage) message;
       try {
-        LOGGER.info(mapMessage.getString("Request"));
-        LOGGER.info(mapMessage.getString("Response"));
+        if (mapMessage.propertyExists(ENTRIES)) {
+          handleBatch(mapMessage);
+          return;
+        }
+        replyThroughput.increment();
+        if (mapMessage.propertyExists(MessageMetrics.SENT_AT)) {
+          roundTrip.record(
+              MessageMetrics.epochMicros() - mapMessage.getLongProperty(MessageMetrics.SENT_AT));
+        }
+        handleReply(
+            mapMessage,
+            Compression.readText(mapMessage, "Request"),
+            Compression.readText(mapMessage, "Response"));
+      } catch (JMSException e) {
+        throw new RuntimeException("error", e);
+      }
+    } else if (message instanceof BytesMessage) {
+      try {
+        BinaryFrame frame = BinaryCodec.read((BytesMessage) message);
+        replyThroughput.increment();
+        if (frame.getTimestamp() != 0) {
+          roundTrip.record(MessageMetrics.epochMicros() - frame.getTimestamp());
+        }
+        handleReply(message, frame.getField(0), frame.getField(1));
       } catch (JMSException e) {
         throw new RuntimeException("error", e);
       }
@@ -35,4 +88,33 @@ public class MapMessageListener implements MessageListener {
       LOGGER.error("Invalid Message Received");
     }
   }
+
+  private void handleBatch(MapMessage message) throws JMSException {
+    int entries = message.getIntProperty(ENTRIES);
+    long now = MessageMetrics.epochMicros();
+    for (int i = 0; i < entries; i++) {
+      if (message.itemExists("SentAt." + i)) {
+        roundTrip.record(now - message.getLong("SentAt." + i));
+      }
+      handleReply(
+          message.getString("CorrelationID." + i),
+          Compression.readText(message, "Request." + i),
+          Compression.readText(message, "Response." + i));
+    }
+    replyThroughput.add(entries);
+  }
+
+  private void handleReply(Message message, String request, String response) throws JMSException {
+    handleReply(message.getJMSCorrelationID(), request, response);
+  }
+
+  private void handleReply(String correlationId, String request, String response) {
+    if (replyLog.sample()) {
+      LOGGER.info(request);
+      LOGGER.info(response);
+    }
+    if (pendingRequests != null && correlationId != null) {
+      pendingRequests.complete(new Reply(correlationId, request, response));
+    }
+  }
 }
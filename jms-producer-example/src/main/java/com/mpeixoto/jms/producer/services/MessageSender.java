@@ -1,38 +1,156 @@
 package com.mpeixoto.jms.producer.services;
 
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.producer.config.SenderSettings;
 import com.mpeixoto.jms.producer.exception.MessageException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.mpeixoto.jms.producer.governor.SendGovernor;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import com.mpeixoto.jms.producer.shard.ShardRing;
+import com.mpeixoto.jms.producer.spool.MessageSpool;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
-import javax.jms.MapMessage;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
-import javax.jms.TextMessage;
 import javax.jms.Topic;
-import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.ActiveMQMessageProducer;
+import org.apache.activemq.AsyncCallback;
 
 /**
- * Class responsible for implementing the methods that will establish a communication.
+ * Class responsible for implementing the methods that will establish a communication. When the
+ * settings hold a {@link SendGovernor}, every message asks it before being sent: a message shed by
+ * the governor is dropped, and the future of an asynchronous send or a request fails at once.
+ *
+ * <p>When the settings hold a spool directory, a message to the queue or the topic that the broker
+ * doesn't take, or that finds the asynchronous send window full, is written to a
+ * {@link MessageSpool} and sent later, in order, by a background thread. While the spool holds
+ * messages every new one goes to the spool too, so the order of the messages is kept: the senders
+ * only take the lock of the spool while it holds messages, and a message never overtakes one that
+ * is already in the spool. An asynchronous send the broker refuses after taking it is spooled as
+ * well, behind the messages sent meanwhile. Once the spool is full, its overload policy blocks the
+ * sender, fails the send or sheds the message. A failed send marks the connection as lost, and
+ * once the spool has been emptied, which means the broker is back, the connection, its sessions
+ * and producers are built again before the next direct send.
+ *
+ * <p>With failover URLs the connection moves to another broker when its broker is lost. The sends
+ * the broker had not acknowledged are sent again by the failover transport. When the settings ask
+ * for it, once the connection is back the acknowledged requests still waiting for a reply are sent
+ * again too, since the broker they went to may be gone. A broker sharing the store of the lost one
+ * still holds them, so a consumer may answer a request twice, the second reply is ignored; the
+ * consumers drop the copy itself only when they deduplicate by JMSCorrelationID. Without it, such
+ * a request is answered once the broker that holds it is reached, or times out.
+ *
+ * <p>When the settings shard the request queue, the messages and requests sent with a key go to
+ * the queue of the shard of the key, chosen by a {@link ShardRing}, and are never spooled.
  *
  * @author mpeixoto
  */
 public class MessageSender {
-  private final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm dd/MM/yyyy");
+  private static final String SPOOL_FULL = "The message was shed by the full spool";
+  private final ThroughputStats queueThroughput =
+      MessageMetrics.get().throughput(RequestMessages.QUEUE_NAME_REQUEST);
+  private final ThroughputStats topicThroughput =
+      MessageMetrics.get().throughput(RequestMessages.TOPIC_NAME);
+  private final ThroughputStats spoolThroughput = MessageMetrics.get().throughput("spool");
+  private final SendWindow sendWindow;
+  private final PendingRequests pendingRequests;
+  private final int queueDeliveryMode;
+  private final int topicDeliveryMode;
+  private final RequestMessages requestMessages;
+  private final SendGovernor sendGovernor;
+  private final int streamChunkSize;
+  private final MessageSpool spool;
+  private final SpoolReplayer spoolReplayer;
+  private final Object spoolLock = new Object();
+  private final ConnectionFactory connectionFactory;
+  private volatile boolean connectionLost;
+  private final ShardRing shardRing;
+  private final ThroughputStats[] shardThroughputs;
+  private final boolean resendRequests;
+  private final ConcurrentMap<String, UnansweredRequest> unansweredRequests =
+      new ConcurrentHashMap<>();
+  private final FailoverTracker failoverTracker = new FailoverTracker(this::resendRequests);
   private Connection connection = null;
   private MessageConsumer consumer;
   private MessageProducer producer;
   private Session session;
   private MessageProducer messageProducer;
+  private Session transactedSession;
+  private MessageProducer batchProducer;
+  private Destination request;
+  private Destination response;
+  private Destination[] shardQueues;
+  private MessageProducer shardProducer;
+  private boolean listening;
 
   /** Default constructor of the class. */
   public MessageSender() {
-    ConnectionFactory activeMQConnectionFactory =
-        new ActiveMQConnectionFactory("tcp://localhost:61616");
-    createConnection(activeMQConnectionFactory);
+    this(new SenderSettings());
+  }
+
+  /**
+   * Constructor of the class that uses the given settings.
+   *
+   * @param settings Type: SenderSettings
+   */
+  public MessageSender(SenderSettings settings) {
+    sendWindow =
+        new SendWindow(settings.getAsyncWindowSize(), settings.getAsyncWindowTimeoutMillis());
+    pendingRequests = new PendingRequests(settings.getRequestTimeoutMillis());
+    queueDeliveryMode = settings.getQueueDeliveryMode();
+    topicDeliveryMode = settings.getTopicDeliveryMode();
+    requestMessages = new RequestMessages(settings);
+    sendGovernor = settings.getSendGovernor();
+    streamChunkSize = settings.getStreamChunkSize();
+    shardRing = settings.getShards() == 0 ? null : new ShardRing(settings.getShards());
+    resendRequests = settings.isResendRequestsOnFailover();
+    shardThroughputs = new ThroughputStats[settings.getShards()];
+    for (int shard = 0; shard < shardThroughputs.length; shard++) {
+      shardThroughputs[shard] = MessageMetrics.get().throughput(ShardRing.queueName(shard));
+    }
+    if (settings.getSpoolDirectory() == null) {
+      spool = null;
+      spoolReplayer = null;
+    } else {
+      try {
+        spool =
+            new MessageSpool(
+                Paths.get(settings.getSpoolDirectory()),
+                settings.getSpoolSegmentSize(),
+                settings.getSpoolMaxSize(),
+                settings.getSpoolOverloadPolicy(),
+                settings.getAsyncWindowTimeoutMillis());
+      } catch (IOException e) {
+        throw new UncheckedIOException("It was not possible to open the spool", e);
+      }
+      spoolReplayer =
+          new SpoolReplayer(
+              spool,
+              settings.createConnectionFactory(),
+              requestMessages,
+              queueDeliveryMode,
+              topicDeliveryMode);
+    }
+    connectionFactory = settings.createConnectionFactory();
+    createConnection(connectionFactory);
+    createShardProducer();
   }
 
   /**
@@ -50,6 +168,21 @@ public class MessageSender {
       MessageConsumer consumer,
       Connection connection,
       MessageProducer messageProducer) {
+    SenderSettings settings = new SenderSettings();
+    sendWindow =
+        new SendWindow(settings.getAsyncWindowSize(), settings.getAsyncWindowTimeoutMillis());
+    pendingRequests = new PendingRequests(settings.getRequestTimeoutMillis());
+    queueDeliveryMode = settings.getQueueDeliveryMode();
+    topicDeliveryMode = settings.getTopicDeliveryMode();
+    requestMessages = new RequestMessages(settings);
+    sendGovernor = settings.getSendGovernor();
+    streamChunkSize = settings.getStreamChunkSize();
+    shardRing = null;
+    resendRequests = false;
+    shardThroughputs = new ThroughputStats[0];
+    spool = null;
+    spoolReplayer = null;
+    connectionFactory = activeMQConnectionFactory;
     createConnection(activeMQConnectionFactory);
     this.producer = producer;
     this.consumer = consumer;
@@ -65,14 +198,76 @@ public class MessageSender {
   private void createConnection(ConnectionFactory activeMQConnectionFactory) {
 
     try {
-      connection = activeMQConnectionFactory.createConnection();
+      openConnection(activeMQConnectionFactory);
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private void openConnection(ConnectionFactory activeMQConnectionFactory) throws JMSException {
+    connection = activeMQConnectionFactory.createConnection();
+    try {
+      if (connection instanceof ActiveMQConnection) {
+        ((ActiveMQConnection) connection).addTransportListener(failoverTracker);
+      }
       session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-      Destination request = session.createQueue("request.message.queue");
-      Destination response = session.createQueue("response.message.queue");
+      request = session.createQueue(RequestMessages.QUEUE_NAME_REQUEST);
+      response = session.createQueue(RequestMessages.QUEUE_NAME_RESPONSE);
       consumer = session.createConsumer(response);
       producer = session.createProducer(request);
-      Topic topic = session.createTopic("topicJms");
+      producer.setDeliveryMode(queueDeliveryMode);
+      Topic topic = session.createTopic(RequestMessages.TOPIC_NAME);
       messageProducer = session.createProducer(topic);
+      messageProducer.setDeliveryMode(topicDeliveryMode);
+      transactedSession = connection.createSession(true, Session.SESSION_TRANSACTED);
+      batchProducer = transactedSession.createProducer(request);
+      batchProducer.setDeliveryMode(queueDeliveryMode);
+    } catch (JMSException | RuntimeException e) {
+      closeQuietly(connection);
+      throw e;
+    }
+  }
+
+  /**
+   * Method responsible for building the connection, its sessions and producers again, and
+   * listening to the replies again, after the connection was lost. The lost connection is closed
+   * first.
+   *
+   * @throws JMSException It's thrown in case the broker is still unavailable
+   */
+  private synchronized void reconnect() throws JMSException {
+    closeQuietly(connection);
+    openConnection(connectionFactory);
+    createShardProducer();
+    if (listening) {
+      consumer.setMessageListener(new MapMessageListener(pendingRequests));
+      connection.start();
+    }
+    connectionLost = false;
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private void createShardProducer() {
+    if (shardRing == null || session == null) {
+      return;
+    }
+    try {
+      shardQueues = new Destination[shardThroughputs.length];
+      for (int shard = 0; shard < shardQueues.length; shard++) {
+        shardQueues[shard] = session.createQueue(ShardRing.queueName(shard));
+      }
+      shardProducer = session.createProducer(null);
+      shardProducer.setDeliveryMode(queueDeliveryMode);
     } catch (JMSException e) {
       e.printStackTrace();
     }
@@ -85,33 +280,603 @@ public class MessageSender {
    * @throws MessageException It's thrown in case it wasn't possible to send the message
    */
   public void sendMessageToAQueue(String message) throws MessageException {
+    if (admit()) {
+      sendOrSpool(MessageSpool.QUEUE, message);
+    }
+  }
 
+  /**
+   * Method responsible for sending a message to the queue of the shard of its key. Without shards
+   * it's sent like a message without a key.
+   *
+   * @param key The key of the message, the messages of a key are handled in order
+   * @param message The message that will be sent to the queue
+   * @throws MessageException It's thrown in case it wasn't possible to send the message
+   */
+  public void sendMessageToAQueue(String key, String message) throws MessageException {
+    if (shardRing == null) {
+      sendMessageToAQueue(message);
+      return;
+    }
+    if (!admit()) {
+      return;
+    }
     try {
-      MapMessage mapMessage = session.createMapMessage();
-      mapMessage.setString(
-          "Request", message + simpleDateFormat.format(new Date(System.currentTimeMillis())));
-      producer.send(mapMessage);
+      sendToShard(shardProducer, key, createRequestMessage(session, message));
     } catch (Exception e) {
       throw new MessageException("It was not possible to send the message to the queue", e);
     }
   }
 
+  private void sendToShard(MessageProducer target, String key, Message message)
+      throws JMSException {
+    int shard = shardRing.shardOf(key);
+    message.setStringProperty("JMSXGroupID", key);
+    target.send(shardQueues[shard], message);
+    shardThroughputs[shard].increment();
+    queueThroughput.increment();
+  }
+
+  /**
+   * Method responsible for sending a message to a queue without waiting for the broker
+   * acknowledgement. It only blocks while the asynchronous send window is full.
+   *
+   * @param message The message that will be sent to the queue
+   * @return CompletableFuture that is completed once the broker has acknowledged the message
+   * @throws MessageException It's thrown in case it wasn't possible to start the send
+   */
+  public CompletableFuture<Void> sendMessageToAQueueAsync(String message) throws MessageException {
+    return admit() ? sendAsyncOrSpool(MessageSpool.QUEUE, message) : shed();
+  }
+
+  /**
+   * Method responsible for sending several messages to a queue inside a single transaction, so the
+   * broker is only synced once for the whole batch.
+   *
+   * @param messages The messages that will be sent to the queue
+   * @throws MessageException It's thrown in case it wasn't possible to send the batch, or the send
+   *     governor refused or shed it, nothing of the batch is delivered in this case
+   */
+  public synchronized void sendBatchToQueue(Collection<String> messages) throws MessageException {
+    // The permits are taken before the transaction, which never waits on the governor
+    if (sendGovernor != null
+        && !messages.isEmpty()
+        && !sendGovernor.acquire(messages.size())) {
+      throw new MessageException(
+          "It was not possible to send the batch to the queue",
+          new RejectedExecutionException("The batch was shed by the send governor"));
+    }
+    try {
+      for (String message : messages) {
+        batchProducer.send(createRequestMessage(transactedSession, message));
+      }
+      transactedSession.commit();
+      queueThroughput.add(messages.size());
+    } catch (Exception e) {
+      rollback(transactedSession);
+      throw new MessageException("It was not possible to send the batch to the queue", e);
+    }
+  }
+
+  /**
+   * Method responsible for opening a batch that commits every {@code maxMessages} messages or every
+   * {@code maxDelayMillis} milliseconds, whichever comes first.
+   *
+   * @param maxMessages The amount of messages that triggers a commit
+   * @param maxDelayMillis The maximum time in milliseconds a message waits before being committed
+   * @return QueueBatch
+   * @throws MessageException It's thrown in case it wasn't possible to open the batch
+   */
+  public QueueBatch openBatch(int maxMessages, long maxDelayMillis) throws MessageException {
+
+    try {
+      Session batchSession = connection.createSession(true, Session.SESSION_TRANSACTED);
+      MessageProducer queueProducer = batchSession.createProducer(request);
+      queueProducer.setDeliveryMode(queueDeliveryMode);
+      return new QueueBatch(
+          this,
+          batchSession,
+          queueProducer,
+          maxMessages,
+          maxDelayMillis);
+    } catch (JMSException e) {
+      throw new MessageException("It was not possible to open a batch to the queue", e);
+    }
+  }
+
+  /**
+   * Method responsible for sending a stream to the queue as chunks of the stream chunk size, so
+   * only one chunk is held in memory whatever the size of the stream. The chunks form a message
+   * group, which makes the broker hand all of them, in order, to the same consumer. If the stream
+   * can't be read, the consumer is told to drop what it received.
+   *
+   * @param data The stream that will be sent, it's read until its end but not closed
+   * @return String the id of the stream, null if it was shed by the send governor
+   * @throws MessageException It's thrown in case it wasn't possible to read or send the stream
+   */
+  public String sendStream(InputStream data) throws MessageException {
+    if (!admit()) {
+      return null;
+    }
+    String streamId = UUID.randomUUID().toString();
+    byte[] buffer = new byte[streamChunkSize];
+    int sequence = 0;
+    try {
+      boolean end;
+      do {
+        int length = readChunk(data, buffer);
+        end = length < buffer.length;
+        BytesMessage chunk = createChunk(streamId, ++sequence);
+        chunk.writeBytes(buffer, 0, length);
+        chunk.setBooleanProperty(StreamChunks.END, end);
+        producer.send(chunk);
+        queueThroughput.increment();
+      } while (!end);
+    } catch (IOException e) {
+      abortStream(streamId, sequence + 1);
+      throw new MessageException("It was not possible to read the stream", e);
+    } catch (JMSException e) {
+      throw new MessageException("It was not possible to send the stream to the queue", e);
+    }
+    return streamId;
+  }
+
+  private BytesMessage createChunk(String streamId, int sequence) throws JMSException {
+    BytesMessage chunk = session.createBytesMessage();
+    chunk.setStringProperty(StreamChunks.GROUP_ID, streamId);
+    chunk.setIntProperty(StreamChunks.GROUP_SEQ, sequence);
+    return chunk;
+  }
+
+  private void abortStream(String streamId, int sequence) {
+    try {
+      BytesMessage chunk = createChunk(streamId, sequence);
+      chunk.setBooleanProperty(StreamChunks.END, true);
+      chunk.setBooleanProperty(StreamChunks.ABORTED, true);
+      producer.send(chunk);
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private static int readChunk(InputStream data, byte[] buffer) throws IOException {
+    int length = 0;
+    while (length < buffer.length) {
+      int read = data.read(buffer, length, buffer.length - length);
+      if (read == -1) {
+        break;
+      }
+      length += read;
+    }
+    return length;
+  }
+
+  /**
+   * Method responsible for creating the request message that is sent to the queue.
+   *
+   * @param session The session used to create the message
+   * @param message The message that will be sent to the queue
+   * @return Message
+   * @throws JMSException It's thrown in case it wasn't possible to create the message
+   */
+  Message createRequestMessage(Session session, String message) throws JMSException {
+    return requestMessages.createQueueMessage(session, message);
+  }
+
+  /**
+   * Method responsible for creating the request message that is sent to the topic.
+   *
+   * @param session The session used to create the message
+   * @param message The message that will be sent to the topic
+   * @return Message
+   * @throws JMSException It's thrown in case it wasn't possible to create the message
+   */
+  Message createTopicMessage(Session session, String message) throws JMSException {
+    return requestMessages.createTopicMessage(session, message);
+  }
+
+  /**
+   * Method responsible for asking the send governor whether a message may be sent.
+   *
+   * @return true if the message may be sent, false if it was shed
+   * @throws MessageException It's thrown in case the governor refused the message
+   */
+  boolean admit() throws MessageException {
+    return sendGovernor == null || sendGovernor.acquire();
+  }
+
+  private static <T> CompletableFuture<T> shed() {
+    return shed("The message was shed by the send governor");
+  }
+
+  private static <T> CompletableFuture<T> shed(String reason) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(
+        new MessageException(reason, new RejectedExecutionException("The producer is overloaded")));
+    return future;
+  }
+
+  /**
+   * Method responsible for sending a message to the queue or the topic, or spooling it when the
+   * spool holds messages or the broker doesn't take it. The lock of the spool is only taken while
+   * the spool holds messages or the connection is lost, so the senders run in parallel while the
+   * broker is healthy, and a message never overtakes one that is already in the spool.
+   */
+  private void sendOrSpool(byte destination, String message) throws MessageException {
+    if (spool == null) {
+      try {
+        send(destination, message);
+      } catch (JMSException | RuntimeException e) {
+        throw new MessageException(
+            "It was not possible to send the message to the " + nameOf(destination), e);
+      }
+      return;
+    }
+    if (!connectionLost && spool.getPending() == 0 && trySend(destination, message)) {
+      return;
+    }
+    synchronized (spoolLock) {
+      if (spool.getPending() == 0 && reconnectIfLost() && trySend(destination, message)) {
+        return;
+      }
+      // a message shed by the full spool is dropped, like one shed by the send governor
+      spool(destination, message);
+    }
+  }
+
+  private boolean trySend(byte destination, String message) {
+    try {
+      send(destination, message);
+      return true;
+    } catch (JMSException | RuntimeException e) {
+      connectionLost = true;
+      return false;
+    }
+  }
+
+  /**
+   * Method responsible for building the connection again when it was lost. It's only called once
+   * the spool is empty, so the replayer has reached the broker since the connection was lost.
+   *
+   * @return false when the broker is still unavailable
+   */
+  private boolean reconnectIfLost() {
+    if (!connectionLost) {
+      return true;
+    }
+    try {
+      reconnect();
+      return true;
+    } catch (JMSException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private void send(byte destination, String message) throws JMSException {
+    if (destination == MessageSpool.QUEUE) {
+      producer.send(createRequestMessage(session, message));
+      queueThroughput.increment();
+    } else {
+      messageProducer.send(createTopicMessage(session, message));
+      topicThroughput.increment();
+    }
+  }
+
+  /**
+   * Method responsible for starting the asynchronous send of a message to the queue or the topic,
+   * or spooling it when the spool holds messages or the send window is full. A message the broker
+   * refuses afterwards is spooled by the callback of the send.
+   */
+  private CompletableFuture<Void> sendAsyncOrSpool(byte destination, String message)
+      throws MessageException {
+    if (spool == null) {
+      try {
+        Message outgoing = createMessage(destination, message);
+        sendWindow.acquire();
+        return sendAsync(destination, outgoing, null);
+      } catch (JMSException | RuntimeException e) {
+        throw new MessageException(
+            "It was not possible to send the message to the " + nameOf(destination), e);
+      }
+    }
+    if (!connectionLost && spool.getPending() == 0) {
+      CompletableFuture<Void> future = trySendAsync(destination, message);
+      if (future != null) {
+        return future;
+      }
+    }
+    synchronized (spoolLock) {
+      if (spool.getPending() == 0 && reconnectIfLost()) {
+        CompletableFuture<Void> future = trySendAsync(destination, message);
+        if (future != null) {
+          return future;
+        }
+      }
+      return spool(destination, message)
+          ? CompletableFuture.completedFuture(null)
+          : shed(SPOOL_FULL);
+    }
+  }
+
+  /**
+   * Method responsible for starting an asynchronous send when the send window has a free slot.
+   *
+   * @return CompletableFuture of the send, null when the message must be spooled
+   */
+  private CompletableFuture<Void> trySendAsync(byte destination, String message) {
+    try {
+      Message outgoing = createMessage(destination, message);
+      return sendWindow.tryAcquire() ? sendAsync(destination, outgoing, message) : null;
+    } catch (JMSException | RuntimeException e) {
+      connectionLost = true;
+      return null;
+    }
+  }
+
+  private Message createMessage(byte destination, String message) throws JMSException {
+    return destination == MessageSpool.QUEUE
+        ? createRequestMessage(session, message)
+        : createTopicMessage(session, message);
+  }
+
+  private static String nameOf(byte destination) {
+    return destination == MessageSpool.QUEUE ? "queue" : "topic";
+  }
+
+  /**
+   * Method responsible for writing a message to the spool.
+   *
+   * @return false when the spool is full and its overload policy sheds the message
+   */
+  private boolean spool(byte destination, String message) throws MessageException {
+    try {
+      if (!spool.append(destination, message)) {
+        return false;
+      }
+      spoolThroughput.increment();
+      return true;
+    } catch (IOException e) {
+      throw new MessageException("It was not possible to write the message to the spool", e);
+    }
+  }
+
+  /**
+   * Method responsible for sending a message with a slot of the send window already taken, the
+   * slot is given back once the broker answers. When the broker refuses a message that has its
+   * text, the message is spooled instead of failing the future.
+   */
+  private CompletableFuture<Void> sendAsync(byte destination, Message message, String spoolable)
+      throws JMSException {
+    boolean queue = destination == MessageSpool.QUEUE;
+    MessageProducer target = queue ? producer : messageProducer;
+    ThroughputStats throughput = queue ? queueThroughput : topicThroughput;
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      if (target instanceof ActiveMQMessageProducer) {
+        ((ActiveMQMessageProducer) target)
+            .send(
+                message,
+                new AsyncCallback() {
+                  @Override
+                  public void onSuccess() {
+                    sendWindow.release();
+                    throughput.increment();
+                    future.complete(null);
+                  }
+
+                  @Override
+                  public void onException(JMSException exception) {
+                    sendWindow.release();
+                    if (spoolable == null) {
+                      future.completeExceptionally(
+                          new MessageException("The broker has refused the message", exception));
+                      return;
+                    }
+                    // Not under the spool lock, the sender holding it may wait on this thread
+                    try {
+                      if (spool(destination, spoolable)) {
+                        future.complete(null);
+                      } else {
+                        future.completeExceptionally(new MessageException(SPOOL_FULL, exception));
+                      }
+                    } catch (MessageException e) {
+                      e.addSuppressed(exception);
+                      future.completeExceptionally(e);
+                    }
+                  }
+                });
+      } else {
+        target.send(message);
+        sendWindow.release();
+        throughput.increment();
+        future.complete(null);
+      }
+    } catch (JMSException | RuntimeException e) {
+      sendWindow.release();
+      throw e;
+    }
+    return future;
+  }
+
+  static void rollback(Session session) {
+    try {
+      session.rollback();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+
   /**
    * Method responsible for receive messages from a queue.
    *
    * @throws MessageException It's thrown in case it wasn't possible to receive the message
    */
-  public void receiveMessageFromQueue() throws MessageException {
-
+  public synchronized void receiveMessageFromQueue() throws MessageException {
+    if (listening) {
+      return;
+    }
     try {
-      MapMessageListener mapMessageListener = new MapMessageListener();
+      MapMessageListener mapMessageListener = new MapMessageListener(pendingRequests);
       consumer.setMessageListener(mapMessageListener);
       connection.start();
+      listening = true;
     } catch (Exception e) {
       throw new MessageException("It was not possible to receive the message", e);
     }
   }
 
+  /**
+   * Method responsible for sending a request to the queue and handing back its reply. Many
+   * requests may wait for their replies at the same time, each reply is matched to its request by
+   * the JMSCorrelationID.
+   *
+   * @param message The message that will be sent to the queue
+   * @return CompletableFuture that is completed by the reply, or fails if no reply arrives in time
+   * @throws MessageException It's thrown in case it wasn't possible to send the request
+   */
+  public CompletableFuture<Reply> request(String message) throws MessageException {
+    return request(null, message);
+  }
+
+  /**
+   * Method responsible for sending a request to the queue of the shard of its key and handing back
+   * its reply. Without shards, or without a key, it's sent to the request queue.
+   *
+   * @param key The key of the request, the requests of a key are handled in order
+   * @param message The message that will be sent to the queue
+   * @return CompletableFuture that is completed by the reply, or fails if no reply arrives in time
+   * @throws MessageException It's thrown in case it wasn't possible to send the request
+   */
+  public CompletableFuture<Reply> request(String key, String message) throws MessageException {
+    receiveMessageFromQueue();
+    if (sendGovernor != null && !sendGovernor.acquireRequest()) {
+      return shed();
+    }
+    String correlationId = UUID.randomUUID().toString();
+    CompletableFuture<Reply> future = pendingRequests.register(correlationId);
+    if (sendGovernor != null) {
+      long start = System.nanoTime();
+      future.whenComplete(
+          (reply, error) ->
+              sendGovernor.replyReceived(
+                  TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+    }
+    UnansweredRequest unanswered = null;
+    if (resendRequests) {
+      unanswered = new UnansweredRequest(key, message);
+      unansweredRequests.put(correlationId, unanswered);
+      future.whenComplete((reply, error) -> unansweredRequests.remove(correlationId));
+    }
+    try {
+      sendRequest(correlationId, key, message);
+      if (unanswered != null) {
+        unanswered.acknowledged = true;
+      }
+    } catch (Exception e) {
+      MessageException exception =
+          new MessageException("It was not possible to send the request to the queue", e);
+      pendingRequests.fail(correlationId, exception);
+      throw exception;
+    }
+    return future;
+  }
+
+  private void sendRequest(String correlationId, String key, String message)
+      throws JMSException {
+    Message requestMessage = createRequestMessage(session, message);
+    requestMessage.setJMSCorrelationID(correlationId);
+    requestMessage.setJMSReplyTo(response);
+    if (shardRing == null || key == null) {
+      producer.send(requestMessage);
+      queueThroughput.increment();
+    } else {
+      sendToShard(shardProducer, key, requestMessage);
+    }
+  }
+
+  /**
+   * Method responsible for sending again the requests still waiting for a reply, once the
+   * connection is back, when the settings ask for it. It runs on the thread of the {@link
+   * FailoverTracker}, so it sends through a session of its own. Only the requests the lost broker
+   * had acknowledged are sent again, the sends still in flight are sent again by the failover
+   * transport. A request that can't be sent again fails at once.
+   *
+   * <p>The new broker may already hold a request sent again, when it shares the store of the lost
+   * one. The copy gets another JMSMessageID, so the consumers must drop the duplicates by their
+   * JMSCorrelationID.
+   */
+  private void resendRequests() {
+    if (unansweredRequests.isEmpty()) {
+      return;
+    }
+    Session resendSession;
+    MessageProducer resendProducer;
+    try {
+      resendSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      resendProducer = resendSession.createProducer(null);
+      resendProducer.setDeliveryMode(queueDeliveryMode);
+    } catch (JMSException e) {
+      e.printStackTrace();
+      return;
+    }
+    try {
+      for (Map.Entry<String, UnansweredRequest> entry : unansweredRequests.entrySet()) {
+        UnansweredRequest unanswered = entry.getValue();
+        if (!unanswered.acknowledged) {
+          continue;
+        }
+        try {
+          Message requestMessage = createRequestMessage(resendSession, unanswered.message);
+          requestMessage.setJMSCorrelationID(entry.getKey());
+          requestMessage.setJMSReplyTo(response);
+          if (shardRing == null || unanswered.key == null) {
+            resendProducer.send(request, requestMessage);
+            queueThroughput.increment();
+          } else {
+            sendToShard(resendProducer, unanswered.key, requestMessage);
+          }
+        } catch (JMSException e) {
+          pendingRequests.fail(
+              entry.getKey(),
+              new MessageException("It was not possible to send the request again", e));
+        }
+      }
+    } finally {
+      try {
+        resendSession.close();
+      } catch (JMSException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Get how long the last reconnection to a failover URL took.
+   *
+   * @return long the time in microseconds, -1 when the connection was never lost
+   */
+  public long getLastRecoveryMicros() {
+    return failoverTracker.getLastRecoveryMicros();
+  }
+
+  /**
+   * Get how many times the connection to a failover URL was lost and resumed.
+   *
+   * @return int
+   */
+  public int getReconnections() {
+    return failoverTracker.getReconnections();
+  }
+
+  /**
+   * Get the amount of requests waiting for a reply.
+   *
+   * @return int
+   */
+  public int getPendingRequests() {
+    return pendingRequests.size();
+  }
+
   /**
    * Method responsible for sending a message to a topic.
    *
@@ -119,14 +884,83 @@ public class MessageSender {
    * @throws MessageException It's thrown in case it wasn't possible to send the message
    */
   public void sendMessageToATopic(String message) throws MessageException {
+    if (admit()) {
+      sendOrSpool(MessageSpool.TOPIC, message);
+    }
+  }
 
+  /**
+   * Method responsible for sending a message to a topic without waiting for the broker
+   * acknowledgement. It only blocks while the asynchronous send window is full.
+   *
+   * @param message The message that will be sent to the topic
+   * @return CompletableFuture that is completed once the broker has acknowledged the message
+   * @throws MessageException It's thrown in case it wasn't possible to start the send
+   */
+  public CompletableFuture<Void> sendMessageToATopicAsync(String message) throws MessageException {
+    return admit() ? sendAsyncOrSpool(MessageSpool.TOPIC, message) : shed();
+  }
+
+  /**
+   * Method responsible for failing the requests still waiting and closing the connection. The
+   * messages left in the spool are kept on the disk.
+   */
+  public void close() {
+    pendingRequests.close();
+    failoverTracker.close();
+    if (spoolReplayer != null) {
+      spoolReplayer.close();
+      spool.close();
+    }
+    if (connection == null) {
+      return;
+    }
     try {
-      TextMessage textMessage = session.createTextMessage();
-      textMessage.setStringProperty(
-          "Request", message + simpleDateFormat.format(new Date(System.currentTimeMillis())));
-      messageProducer.send(textMessage);
+      connection.close();
     } catch (JMSException e) {
-      throw new MessageException("It was not possible to send the message to the topic", e);
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Get the amount of asynchronous sends that are waiting for the broker acknowledgement.
+   *
+   * @return int
+   */
+  public int getInFlightSends() {
+    return sendWindow.getInFlight();
+  }
+
+  /**
+   * Get the amount of messages in the spool waiting to be sent.
+   *
+   * @return int
+   */
+  public int getSpooledMessages() {
+    return spool == null ? 0 : spool.getPending();
+  }
+
+  boolean isConnectionLost() {
+    return connectionLost;
+  }
+
+  void setTransactedSession(Session transactedSession) {
+    this.transactedSession = transactedSession;
+  }
+
+  void setBatchProducer(MessageProducer batchProducer) {
+    this.batchProducer = batchProducer;
+  }
+
+  /** A request waiting for its reply, as it must be sent again after a failover. */
+  private static class UnansweredRequest {
+    private final String key;
+    private final String message;
+    private volatile boolean acknowledged;
+
+    UnansweredRequest(String key, String message) {
+      this.key = key;
+      this.message = message;
     }
   }
 }
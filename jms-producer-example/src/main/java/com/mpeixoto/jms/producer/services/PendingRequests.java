@@ -0,0 +1,126 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Class responsible for keeping the requests that are waiting for a reply, so every reply is
+ * handed to the request with the same correlation id. Requests without a reply are failed once
+ * their timeout expires. The timeout of a request is cancelled and taken off the timer as soon as
+ * the request ends, so the timer only holds the requests still waiting.
+ *
+ * @author mpeixoto
+ */
+class PendingRequests implements AutoCloseable {
+  private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+  private final ConcurrentMap<String, CompletableFuture<Reply>> requests =
+      new ConcurrentHashMap<>();
+  private final long timeoutMillis;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param timeoutMillis How long a request waits for its reply
+   */
+  PendingRequests(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Method responsible for registering a request that will wait for its reply.
+   *
+   * @param correlationId The correlation id of the request
+   * @return CompletableFuture that is completed by the reply
+   */
+  CompletableFuture<Reply> register(String correlationId) {
+    CompletableFuture<Reply> future = new CompletableFuture<>();
+    requests.put(correlationId, future);
+    ScheduledFuture<?> timeout =
+        TIMER.schedule(
+            () -> {
+              if (requests.remove(correlationId, future)) {
+                future.completeExceptionally(
+                    new MessageException(
+                        "No reply was received for the request " + correlationId,
+                        new TimeoutException(timeoutMillis + " ms have passed")));
+              }
+            },
+            timeoutMillis,
+            TimeUnit.MILLISECONDS);
+    future.whenComplete((reply, throwable) -> timeout.cancel(false));
+    return future;
+  }
+
+  /**
+   * Method responsible for handing a reply to the request that is waiting for it.
+   *
+   * @param reply The reply received from the consumer
+   * @return true if a request was waiting for the reply
+   */
+  boolean complete(Reply reply) {
+    CompletableFuture<Reply> future = requests.remove(reply.getCorrelationId());
+    return future != null && future.complete(reply);
+  }
+
+  /**
+   * Method responsible for failing a request that could not be sent.
+   *
+   * @param correlationId The correlation id of the request
+   * @param throwable The cause of the failure
+   */
+  void fail(String correlationId, Throwable throwable) {
+    CompletableFuture<Reply> future = requests.remove(correlationId);
+    if (future != null) {
+      future.completeExceptionally(throwable);
+    }
+  }
+
+  /**
+   * Get the amount of requests waiting for a reply.
+   *
+   * @return int
+   */
+  int size() {
+    return requests.size();
+  }
+
+  /**
+   * Get the amount of timeouts the shared timer still holds, for every sender.
+   *
+   * @return int
+   */
+  static int scheduledTimeouts() {
+    return TIMER.getQueue().size();
+  }
+
+  /** Method responsible for failing every request that is still waiting. */
+  @Override
+  public void close() {
+    for (String correlationId : requests.keySet()) {
+      fail(
+          correlationId,
+          new MessageException(
+              "No reply was received for the request " + correlationId,
+              new IllegalStateException("The sender was closed")));
+    }
+  }
+
+  private static ScheduledThreadPoolExecutor createTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "pending-requests-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+}
@@ -0,0 +1,242 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.governor.SendGovernor;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import com.mpeixoto.jms.producer.shard.ShardRing;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Class responsible for sending messages from many threads at the same time. Unlike {@link
+ * MessageSender}, it can be shared by every thread of the application. A message shed by the send
+ * governor of the settings is dropped. The requests are sent through the pooled sessions, while
+ * their replies are all received by a single consumer on a connection of its own.
+ *
+ * <p>With failover URLs the pooled connections move to another broker like the one of {@link
+ * MessageSender}, and the sends the lost broker had not acknowledged are sent again by the
+ * failover transport. Unlike {@link MessageSender}, the acknowledged requests still waiting for a
+ * reply are never sent again, whatever the settings ask: they are answered once a broker that
+ * holds them is reached, or time out.
+ *
+ * @author mpeixoto
+ */
+public class PooledMessageSender implements AutoCloseable {
+  private final ThroughputStats queueThroughput =
+      MessageMetrics.get().throughput(RequestMessages.QUEUE_NAME_REQUEST);
+  private final ThroughputStats topicThroughput =
+      MessageMetrics.get().throughput(RequestMessages.TOPIC_NAME);
+  private final SessionPool sessionPool;
+  private final RequestMessages requestMessages;
+  private final SendGovernor sendGovernor;
+  private final ConnectionFactory connectionFactory;
+  private final PendingRequests pendingRequests;
+  private final ShardRing shardRing;
+  private Connection replyConnection;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param settings Type: SenderSettings
+   * @throws MessageException It's thrown in case it wasn't possible to open the pool
+   */
+  public PooledMessageSender(SenderSettings settings) throws MessageException {
+    this(settings.createConnectionFactory(), settings);
+  }
+
+  /**
+   * Constructor of the class that uses the given connection factory.
+   *
+   * @param connectionFactory Type: ConnectionFactory
+   * @param settings Type: SenderSettings
+   * @throws MessageException It's thrown in case it wasn't possible to open the pool
+   */
+  PooledMessageSender(ConnectionFactory connectionFactory, SenderSettings settings)
+      throws MessageException {
+    this.connectionFactory = connectionFactory;
+    requestMessages = new RequestMessages(settings);
+    sendGovernor = settings.getSendGovernor();
+    pendingRequests = new PendingRequests(settings.getRequestTimeoutMillis());
+    shardRing = settings.getShards() == 0 ? null : new ShardRing(settings.getShards());
+    try {
+      sessionPool = new SessionPool(connectionFactory, settings);
+    } catch (JMSException e) {
+      throw new MessageException("It was not possible to open the session pool", e);
+    }
+  }
+
+  /**
+   * Method responsible for sending a message to a queue.
+   *
+   * @param message The message that will be sent to the queue
+   * @throws MessageException It's thrown in case it wasn't possible to send the message
+   */
+  public void sendMessageToAQueue(String message) throws MessageException {
+    if (sendGovernor != null && !sendGovernor.acquire()) {
+      return;
+    }
+    PooledSession pooledSession = sessionPool.lease();
+    try {
+      pooledSession
+          .getQueueProducer()
+          .send(requestMessages.createQueueMessage(pooledSession.getSession(), message));
+      queueThroughput.increment();
+    } catch (JMSException e) {
+      throw new MessageException("It was not possible to send the message to the queue", e);
+    } finally {
+      sessionPool.release(pooledSession);
+    }
+  }
+
+  /**
+   * Method responsible for sending a message to a topic.
+   *
+   * @param message The message that will be sent to the topic
+   * @throws MessageException It's thrown in case it wasn't possible to send the message
+   */
+  public void sendMessageToATopic(String message) throws MessageException {
+    if (sendGovernor != null && !sendGovernor.acquire()) {
+      return;
+    }
+    PooledSession pooledSession = sessionPool.lease();
+    try {
+      pooledSession
+          .getTopicProducer()
+          .send(requestMessages.createTopicMessage(pooledSession.getSession(), message));
+      topicThroughput.increment();
+    } catch (JMSException e) {
+      throw new MessageException("It was not possible to send the message to the topic", e);
+    } finally {
+      sessionPool.release(pooledSession);
+    }
+  }
+
+  /**
+   * Method responsible for sending a request to the queue and handing back its reply.
+   *
+   * @param message The message that will be sent to the queue
+   * @return CompletableFuture that is completed by the reply, or fails if no reply arrives in time
+   * @throws MessageException It's thrown in case it wasn't possible to send the request
+   */
+  public CompletableFuture<Reply> request(String message) throws MessageException {
+    return request(null, message);
+  }
+
+  /**
+   * Method responsible for sending a request through a pooled session and handing back its reply.
+   * Every thread may wait for its own requests at the same time, each reply is matched to its
+   * request by the JMSCorrelationID. With shards, a request with a key is sent to the queue of the
+   * shard of its key.
+   *
+   * @param key The key of the request, null to send it to the request queue
+   * @param message The message that will be sent to the queue
+   * @return CompletableFuture that is completed by the reply, or fails if no reply arrives in time
+   * @throws MessageException It's thrown in case it wasn't possible to send the request
+   */
+  public CompletableFuture<Reply> request(String key, String message) throws MessageException {
+    listenForReplies();
+    if (sendGovernor != null && !sendGovernor.acquireRequest()) {
+      CompletableFuture<Reply> shed = new CompletableFuture<>();
+      shed.completeExceptionally(
+          new MessageException(
+              "The message was shed by the send governor",
+              new RejectedExecutionException("The producer is overloaded")));
+      return shed;
+    }
+    String correlationId = UUID.randomUUID().toString();
+    CompletableFuture<Reply> future = pendingRequests.register(correlationId);
+    if (sendGovernor != null) {
+      long start = System.nanoTime();
+      future.whenComplete(
+          (reply, error) ->
+              sendGovernor.replyReceived(
+                  TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+    }
+    PooledSession pooledSession = sessionPool.lease();
+    try {
+      Session session = pooledSession.getSession();
+      Message request = requestMessages.createQueueMessage(session, message);
+      request.setJMSCorrelationID(correlationId);
+      request.setJMSReplyTo(session.createQueue(RequestMessages.QUEUE_NAME_RESPONSE));
+      if (shardRing == null || key == null) {
+        pooledSession.getQueueProducer().send(request);
+      } else {
+        request.setStringProperty("JMSXGroupID", key);
+        pooledSession
+            .getShardProducer()
+            .send(session.createQueue(ShardRing.queueName(shardRing.shardOf(key))), request);
+      }
+      queueThroughput.increment();
+    } catch (JMSException e) {
+      MessageException exception =
+          new MessageException("It was not possible to send the request to the queue", e);
+      pendingRequests.fail(correlationId, exception);
+      throw exception;
+    } finally {
+      sessionPool.release(pooledSession);
+    }
+    return future;
+  }
+
+  private synchronized void listenForReplies() throws MessageException {
+    if (replyConnection != null) {
+      return;
+    }
+    Connection connection = null;
+    try {
+      connection = connectionFactory.createConnection();
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      session
+          .createConsumer(session.createQueue(RequestMessages.QUEUE_NAME_RESPONSE))
+          .setMessageListener(new MapMessageListener(pendingRequests));
+      connection.start();
+      replyConnection = connection;
+    } catch (JMSException e) {
+      closeQuietly(connection);
+      throw new MessageException("It was not possible to receive the replies", e);
+    }
+  }
+
+  /**
+   * Get the amount of requests waiting for a reply.
+   *
+   * @return int
+   */
+  public int getPendingRequests() {
+    return pendingRequests.size();
+  }
+
+  /**
+   * Method responsible for failing the requests still waiting and closing every pooled session and
+   * connection.
+   */
+  @Override
+  public void close() {
+    pendingRequests.close();
+    sessionPool.close();
+    synchronized (this) {
+      closeQuietly(replyConnection);
+      replyConnection = null;
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+}
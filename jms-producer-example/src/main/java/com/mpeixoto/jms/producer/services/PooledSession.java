@@ -0,0 +1,61 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * Class responsible for keeping a session together with the producers created from it, so they
+ * are always leased as a whole by a single thread.
+ *
+ * @author mpeixoto
+ */
+class PooledSession {
+  private final Session session;
+  private final MessageProducer queueProducer;
+  private final MessageProducer topicProducer;
+  private final MessageProducer shardProducer;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param connection The connection that owns the session
+   * @param settings The settings that hold the delivery mode of each destination
+   * @throws JMSException It's thrown in case it wasn't possible to create the session
+   */
+  PooledSession(Connection connection, SenderSettings settings) throws JMSException {
+    session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    queueProducer = session.createProducer(session.createQueue(RequestMessages.QUEUE_NAME_REQUEST));
+    queueProducer.setDeliveryMode(settings.getQueueDeliveryMode());
+    topicProducer = session.createProducer(session.createTopic(RequestMessages.TOPIC_NAME));
+    topicProducer.setDeliveryMode(settings.getTopicDeliveryMode());
+    shardProducer = session.createProducer(null);
+    shardProducer.setDeliveryMode(settings.getQueueDeliveryMode());
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  MessageProducer getQueueProducer() {
+    return queueProducer;
+  }
+
+  MessageProducer getTopicProducer() {
+    return topicProducer;
+  }
+
+  MessageProducer getShardProducer() {
+    return shardProducer;
+  }
+
+  void close() {
+    try {
+      session.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * Class responsible for streaming messages to a queue on a transacted session, committing every
+ * time the batch is full or the oldest pending message has waited for too long. The age of the
+ * oldest message is checked four times per maximum delay, and when a commit made in the background
+ * fails, its messages are lost, so the failure is thrown by the next call to the batch.
+ *
+ * @author mpeixoto
+ */
+public class QueueBatch implements AutoCloseable {
+  private final ThroughputStats queueThroughput =
+      MessageMetrics.get().throughput(RequestMessages.QUEUE_NAME_REQUEST);
+  private final MessageSender messageSender;
+  private final Session session;
+  private final MessageProducer producer;
+  private final int maxMessages;
+  private final long maxDelayNanos;
+  private final ScheduledExecutorService scheduler;
+  private int pending;
+  private long firstPendingAt;
+  private boolean closed;
+  private MessageException backgroundFailure;
+
+  /**
+   * Constructor of the class, it's created by {@link MessageSender#openBatch(int, long)}.
+   *
+   * @param messageSender Type: MessageSender
+   * @param session Type: Session, it must be transacted
+   * @param producer Type: MessageProducer
+   * @param maxMessages The amount of messages that triggers a commit
+   * @param maxDelayMillis The maximum time in milliseconds a message waits before being committed
+   */
+  QueueBatch(
+      MessageSender messageSender,
+      Session session,
+      MessageProducer producer,
+      int maxMessages,
+      long maxDelayMillis) {
+    if (maxMessages < 1 || maxDelayMillis < 1) {
+      throw new IllegalArgumentException("The batch limits must be greater than zero");
+    }
+    this.messageSender = messageSender;
+    this.session = session;
+    this.producer = producer;
+    this.maxMessages = maxMessages;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "queue-batch-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long checkPeriodNanos = Math.max(1, maxDelayNanos / 4);
+    scheduler.scheduleWithFixedDelay(
+        this::flushIfExpired, checkPeriodNanos, checkPeriodNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Method responsible for adding a message to the batch, the batch is committed when it's full. A
+   * message shed by the send governor is dropped.
+   *
+   * @param message The message that will be sent to the queue
+   * @throws MessageException It's thrown in case it wasn't possible to send or commit the batch,
+   *     or a commit made in the background has failed since the last call
+   */
+  public synchronized void add(String message) throws MessageException {
+    if (closed) {
+      throw new MessageException(
+          "It was not possible to add the message to the batch",
+          new IllegalStateException("The batch is closed"));
+    }
+    throwBackgroundFailure();
+    if (!messageSender.admit()) {
+      return;
+    }
+    try {
+      producer.send(messageSender.createRequestMessage(session, message));
+    } catch (JMSException e) {
+      MessageSender.rollback(session);
+      pending = 0;
+      throw new MessageException("It was not possible to add the message to the batch", e);
+    }
+    if (pending++ == 0) {
+      firstPendingAt = System.nanoTime();
+    }
+    if (pending >= maxMessages) {
+      flush();
+    }
+  }
+
+  /**
+   * Method responsible for committing every pending message of the batch.
+   *
+   * @throws MessageException It's thrown in case it wasn't possible to commit the batch, or a
+   *     commit made in the background has failed since the last call
+   */
+  public synchronized void flush() throws MessageException {
+    throwBackgroundFailure();
+    commit();
+  }
+
+  private void commit() throws MessageException {
+    if (pending == 0) {
+      return;
+    }
+    try {
+      session.commit();
+      queueThroughput.add(pending);
+    } catch (JMSException e) {
+      MessageSender.rollback(session);
+      throw new MessageException("It was not possible to commit the batch to the queue", e);
+    } finally {
+      pending = 0;
+    }
+  }
+
+  /**
+   * Method responsible for committing the pending messages and releasing the batch resources.
+   *
+   * @throws MessageException It's thrown in case it wasn't possible to commit the last messages,
+   *     or a commit made in the background has failed since the last call
+   */
+  @Override
+  public synchronized void close() throws MessageException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    scheduler.shutdownNow();
+    try {
+      commit();
+      throwBackgroundFailure();
+    } finally {
+      try {
+        session.close();
+      } catch (JMSException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Get the amount of messages waiting for the next commit.
+   *
+   * @return int
+   */
+  public synchronized int getPending() {
+    return pending;
+  }
+
+  private synchronized void flushIfExpired() {
+    if (pending > 0 && System.nanoTime() - firstPendingAt >= maxDelayNanos) {
+      try {
+        commit();
+      } catch (MessageException e) {
+        if (backgroundFailure == null) {
+          backgroundFailure = e;
+        } else {
+          backgroundFailure.addSuppressed(e);
+        }
+      }
+    }
+  }
+
+  private void throwBackgroundFailure() throws MessageException {
+    if (backgroundFailure != null) {
+      MessageException failure = backgroundFailure;
+      backgroundFailure = null;
+      throw new MessageException(
+          "The messages of a batch committed in the background were lost", failure);
+    }
+  }
+}
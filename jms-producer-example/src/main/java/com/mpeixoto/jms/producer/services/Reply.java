@@ -0,0 +1,52 @@
+package com.mpeixoto.jms.producer.services;
+
+/**
+ * Class responsible for holding the reply the consumer has sent to a request.
+ *
+ * @author mpeixoto
+ */
+public class Reply {
+  private final String correlationId;
+  private final String request;
+  private final String response;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param correlationId The correlation id of the request
+   * @param request The request echoed by the consumer
+   * @param response The response of the consumer
+   */
+  public Reply(String correlationId, String request, String response) {
+    this.correlationId = correlationId;
+    this.request = request;
+    this.response = response;
+  }
+
+  /**
+   * Get the correlation id of the request.
+   *
+   * @return String
+   */
+  public String getCorrelationId() {
+    return correlationId;
+  }
+
+  /**
+   * Get the request echoed by the consumer.
+   *
+   * @return String
+   */
+  public String getRequest() {
+    return request;
+  }
+
+  /**
+   * Get the response of the consumer.
+   *
+   * @return String
+   */
+  public String getResponse() {
+    return response;
+  }
+}
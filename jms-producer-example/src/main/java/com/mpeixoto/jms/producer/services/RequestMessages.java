@@ -0,0 +1,98 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.Compressor;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.config.WireFormat;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+/**
+ * Class responsible for building the request messages understood by the consumer, in the wire
+ * format and with the compression chosen in the settings.
+ *
+ * @author mpeixoto
+ */
+final class RequestMessages {
+  static final String QUEUE_NAME_REQUEST = "request.message.queue";
+  static final String QUEUE_NAME_RESPONSE = "response.message.queue";
+  static final String TOPIC_NAME = "topicJms";
+  private static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy");
+  private final WireFormat wireFormat;
+  private final Compressor compressor;
+  private final int compressionThreshold;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param settings The settings that hold the wire format and the compression
+   */
+  RequestMessages(SenderSettings settings) {
+    wireFormat = settings.getWireFormat();
+    compressor = settings.getCompressor();
+    compressionThreshold = settings.getCompressionThreshold();
+  }
+
+  /**
+   * Method responsible for creating the request message that is sent to the queue.
+   *
+   * @param session The session used to create the message
+   * @param message The message that will be sent to the queue
+   * @return Message
+   * @throws JMSException It's thrown in case it wasn't possible to create the message
+   */
+  Message createQueueMessage(Session session, String message) throws JMSException {
+    if (wireFormat == WireFormat.BINARY) {
+      return createBinaryMessage(session, message);
+    }
+    MapMessage mapMessage = session.createMapMessage();
+    if (Compression.writeText(
+        mapMessage,
+        "Request",
+        message + LocalDateTime.now().format(DATE_FORMATTER),
+        compressor,
+        compressionThreshold)) {
+      mapMessage.setStringProperty(Compression.PROPERTY, compressor.getName());
+    }
+    mapMessage.setLongProperty(MessageMetrics.SENT_AT, MessageMetrics.epochMicros());
+    return mapMessage;
+  }
+
+  /**
+   * Method responsible for creating the request message that is sent to the topic.
+   *
+   * @param session The session used to create the message
+   * @param message The message that will be sent to the topic
+   * @return Message
+   * @throws JMSException It's thrown in case it wasn't possible to create the message
+   */
+  Message createTopicMessage(Session session, String message) throws JMSException {
+    if (wireFormat == WireFormat.BINARY) {
+      return createBinaryMessage(session, message);
+    }
+    TextMessage textMessage = session.createTextMessage();
+    textMessage.setStringProperty("Request", message + LocalDateTime.now().format(DATE_FORMATTER));
+    textMessage.setLongProperty(MessageMetrics.SENT_AT, MessageMetrics.epochMicros());
+    return textMessage;
+  }
+
+  private BytesMessage createBinaryMessage(Session session, String message) throws JMSException {
+    BytesMessage bytesMessage = session.createBytesMessage();
+    BinaryCodec.write(
+        bytesMessage,
+        MessageMetrics.epochMicros(),
+        compressor,
+        compressionThreshold,
+        message + LocalDateTime.now().format(DATE_FORMATTER));
+    return bytesMessage;
+  }
+}
@@ -0,0 +1,70 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for limiting the amount of sends that are waiting for the broker
+ * acknowledgement.
+ *
+ * @author mpeixoto
+ */
+class SendWindow {
+  private final int size;
+  private final long timeoutMillis;
+  private final Semaphore permits;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param size The maximum amount of sends in flight
+   * @param timeoutMillis How long a send waits for a free slot
+   */
+  SendWindow(int size, long timeoutMillis) {
+    this.size = size;
+    this.timeoutMillis = timeoutMillis;
+    this.permits = new Semaphore(size);
+  }
+
+  /**
+   * Method responsible for taking a slot of the window, waiting for one if the window is full.
+   *
+   * @throws MessageException It's thrown in case no slot was released in time
+   */
+  void acquire() throws MessageException {
+    try {
+      if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new MessageException(
+            "The asynchronous send window is full",
+            new IllegalStateException(size + " sends are waiting for the broker"));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MessageException("Interrupted while waiting for the send window", e);
+    }
+  }
+
+  /**
+   * Method responsible for taking a slot of the window without waiting.
+   *
+   * @return true if a slot was taken
+   */
+  boolean tryAcquire() {
+    return permits.tryAcquire();
+  }
+
+  /** Method responsible for giving a slot back to the window. */
+  void release() {
+    permits.release();
+  }
+
+  /**
+   * Get the amount of sends that are waiting for the broker acknowledgement.
+   *
+   * @return int
+   */
+  int getInFlight() {
+    return size - permits.availablePermits();
+  }
+}
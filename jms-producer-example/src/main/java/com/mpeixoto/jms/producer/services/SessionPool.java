@@ -0,0 +1,114 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+/**
+ * Class responsible for leasing sessions to the threads that want to send messages. Every thread
+ * gets back the session it used last time whenever it's free, so the producers stay warm.
+ *
+ * @author mpeixoto
+ */
+class SessionPool implements AutoCloseable {
+  private final List<Connection> connections = new ArrayList<>();
+  private final List<PooledSession> sessions = new ArrayList<>();
+  private final BlockingQueue<PooledSession> idle = new LinkedBlockingQueue<>();
+  private final ThreadLocal<PooledSession> affinity = new ThreadLocal<>();
+  private final long leaseTimeoutMillis;
+  private volatile boolean closed;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param connectionFactory Type: ConnectionFactory
+   * @param settings Type: SenderSettings
+   * @throws JMSException It's thrown in case it wasn't possible to open the connections
+   */
+  SessionPool(ConnectionFactory connectionFactory, SenderSettings settings) throws JMSException {
+    leaseTimeoutMillis = settings.getPoolLeaseTimeoutMillis();
+    try {
+      for (int i = 0; i < settings.getPoolConnections(); i++) {
+        connections.add(connectionFactory.createConnection());
+      }
+      for (int i = 0; i < settings.getPoolSessions(); i++) {
+        PooledSession pooledSession =
+            new PooledSession(connections.get(i % connections.size()), settings);
+        sessions.add(pooledSession);
+        idle.add(pooledSession);
+      }
+    } catch (JMSException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Method responsible for leasing a session to the current thread.
+   *
+   * @return PooledSession
+   * @throws MessageException It's thrown in case no session was released in time
+   */
+  PooledSession lease() throws MessageException {
+    if (closed) {
+      throw new MessageException(
+          "It was not possible to lease a session", new IllegalStateException("Pool is closed"));
+    }
+    PooledSession preferred = affinity.get();
+    if (preferred != null && idle.remove(preferred)) {
+      return preferred;
+    }
+    try {
+      PooledSession pooledSession = idle.poll(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+      if (pooledSession == null) {
+        throw new MessageException(
+            "It was not possible to lease a session",
+            new IllegalStateException("Every session of the pool is in use"));
+      }
+      affinity.set(pooledSession);
+      return pooledSession;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MessageException("Interrupted while waiting for a session", e);
+    }
+  }
+
+  /**
+   * Method responsible for giving a session back to the pool.
+   *
+   * @param pooledSession The session that was leased
+   */
+  void release(PooledSession pooledSession) {
+    idle.offer(pooledSession);
+  }
+
+  /**
+   * Get the amount of sessions that are not leased.
+   *
+   * @return int
+   */
+  int getIdleSessions() {
+    return idle.size();
+  }
+
+  /** Method responsible for closing every session and connection of the pool. */
+  @Override
+  public void close() {
+    closed = true;
+    sessions.forEach(PooledSession::close);
+    for (Connection connection : connections) {
+      try {
+        connection.close();
+      } catch (JMSException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+}
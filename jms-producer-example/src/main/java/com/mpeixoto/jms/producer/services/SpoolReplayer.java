@@ -0,0 +1,147 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.common.metrics.ThroughputStats;
+import com.mpeixoto.jms.producer.metrics.MessageMetrics;
+import com.mpeixoto.jms.producer.spool.MessageSpool;
+import com.mpeixoto.jms.producer.spool.SpooledMessage;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Class responsible for sending the messages of a {@link MessageSpool} in the order they were
+ * written. It runs on its own thread and connection, a message leaves the spool only once the
+ * broker has taken it. When the broker is unavailable, or a message could not be read or built, it
+ * logs the failure and tries again on a new connection with a growing delay.
+ *
+ * @author mpeixoto
+ */
+class SpoolReplayer implements Runnable {
+  private static final long MIN_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 5000;
+  private static final long IDLE_WAIT_MILLIS = 1000;
+  private static final Logger LOGGER = LogManager.getLogger(SpoolReplayer.class);
+  private final ThroughputStats queueThroughput =
+      MessageMetrics.get().throughput(RequestMessages.QUEUE_NAME_REQUEST);
+  private final ThroughputStats topicThroughput =
+      MessageMetrics.get().throughput(RequestMessages.TOPIC_NAME);
+  private final MessageSpool spool;
+  private final ConnectionFactory connectionFactory;
+  private final RequestMessages requestMessages;
+  private final int queueDeliveryMode;
+  private final int topicDeliveryMode;
+  private final Thread thread;
+  private Connection connection;
+  private Session session;
+  private MessageProducer queueProducer;
+  private MessageProducer topicProducer;
+  private volatile boolean running = true;
+
+  /**
+   * Constructor of the class, it starts the thread that sends the messages.
+   *
+   * @param spool The spool that holds the messages
+   * @param connectionFactory The factory of the connection used to send the messages
+   * @param requestMessages The builder of the messages
+   * @param queueDeliveryMode The delivery mode of the messages sent to the queue
+   * @param topicDeliveryMode The delivery mode of the messages sent to the topic
+   */
+  SpoolReplayer(
+      MessageSpool spool,
+      ConnectionFactory connectionFactory,
+      RequestMessages requestMessages,
+      int queueDeliveryMode,
+      int topicDeliveryMode) {
+    this.spool = spool;
+    this.connectionFactory = connectionFactory;
+    this.requestMessages = requestMessages;
+    this.queueDeliveryMode = queueDeliveryMode;
+    this.topicDeliveryMode = topicDeliveryMode;
+    thread = new Thread(this, "spool-replayer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void run() {
+    long backoffMillis = MIN_BACKOFF_MILLIS;
+    while (running) {
+      try {
+        spool.awaitMessage(IDLE_WAIT_MILLIS);
+        SpooledMessage message = spool.peek();
+        if (message == null) {
+          continue;
+        }
+        send(message);
+        spool.commit();
+        backoffMillis = MIN_BACKOFF_MILLIS;
+      } catch (JMSException | RuntimeException e) {
+        if (e instanceof RuntimeException) {
+          LOGGER.error("It was not possible to send a spooled message", e);
+        }
+        closeConnection();
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Method responsible for stopping the thread and closing its connection, the messages that were
+   * not sent stay in the spool.
+   */
+  void close() {
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join(MAX_BACKOFF_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    closeConnection();
+  }
+
+  private void send(SpooledMessage message) throws JMSException {
+    if (connection == null) {
+      connection = connectionFactory.createConnection();
+      session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      queueProducer =
+          session.createProducer(session.createQueue(RequestMessages.QUEUE_NAME_REQUEST));
+      queueProducer.setDeliveryMode(queueDeliveryMode);
+      topicProducer = session.createProducer(session.createTopic(RequestMessages.TOPIC_NAME));
+      topicProducer.setDeliveryMode(topicDeliveryMode);
+    }
+    if (message.getDestination() == MessageSpool.TOPIC) {
+      topicProducer.send(requestMessages.createTopicMessage(session, message.getMessage()));
+      topicThroughput.increment();
+    } else {
+      queueProducer.send(requestMessages.createQueueMessage(session, message.getMessage()));
+      queueThroughput.increment();
+    }
+  }
+
+  private void closeConnection() {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (JMSException e) {
+      e.printStackTrace();
+    } finally {
+      connection = null;
+    }
+  }
+}
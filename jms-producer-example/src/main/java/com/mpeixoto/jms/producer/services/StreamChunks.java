@@ -0,0 +1,18 @@
+package com.mpeixoto.jms.producer.services;
+
+/**
+ * Class responsible for holding the properties of the chunks a stream is sent as. Every chunk is a
+ * BytesMessage of the message group named after the stream, numbered from 1 by the group
+ * sequence. The last chunk is flagged by {@value #END}, and a stream the producer could not finish
+ * ends with a chunk flagged by {@value #ABORTED}.
+ *
+ * @author mpeixoto
+ */
+final class StreamChunks {
+  static final String GROUP_ID = "JMSXGroupID";
+  static final String GROUP_SEQ = "JMSXGroupSeq";
+  static final String END = "StreamEnd";
+  static final String ABORTED = "StreamAborted";
+
+  private StreamChunks() {}
+}
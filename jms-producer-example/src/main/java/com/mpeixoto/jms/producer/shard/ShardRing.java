@@ -0,0 +1,88 @@
+package com.mpeixoto.jms.producer.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Class responsible for mapping the request keys onto the shards of the request queue with
+ * consistent hashing. Every shard owns {@value #VIRTUAL_NODES} points of a hash ring and a key
+ * goes to the shard of the first point after its hash, so a key always goes to the same shard,
+ * and adding a shard only moves the keys the new shard takes over, about 1/N of them.
+ *
+ * @author mpeixoto
+ */
+public final class ShardRing {
+  /** Prefix of the name of the queue of every shard, followed by the shard number. */
+  public static final String QUEUE_PREFIX = "request.message.queue.";
+
+  private static final int VIRTUAL_NODES = 160;
+  private final long[] points;
+  private final int[] owners;
+
+  /**
+   * Constructor of the class.
+   *
+   * @param shards The amount of shards, numbered from 0
+   */
+  public ShardRing(int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one shard is needed");
+    }
+    long[] entries = new long[shards * VIRTUAL_NODES];
+    for (int shard = 0; shard < shards; shard++) {
+      for (int node = 0; node < VIRTUAL_NODES; node++) {
+        entries[shard * VIRTUAL_NODES + node] = hash("shard-" + shard + "-" + node);
+      }
+    }
+    Integer[] order = new Integer[entries.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (left, right) -> Long.compare(entries[left], entries[right]));
+    points = new long[entries.length];
+    owners = new int[entries.length];
+    for (int i = 0; i < order.length; i++) {
+      points[i] = entries[order[i]];
+      owners[i] = order[i] / VIRTUAL_NODES;
+    }
+  }
+
+  /**
+   * Get the name of the queue of a shard.
+   *
+   * @param shard The number of the shard
+   * @return String
+   */
+  public static String queueName(int shard) {
+    return QUEUE_PREFIX + shard;
+  }
+
+  /**
+   * Get the shard a key belongs to.
+   *
+   * @param key The key of the request, e.g. the customer id
+   * @return int the number of the shard
+   */
+  public int shardOf(String key) {
+    int index = Arrays.binarySearch(points, hash(key));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return owners[index == points.length ? 0 : index];
+  }
+
+  /** FNV-1a over the UTF-8 bytes, followed by the MurmurHash3 finalizer to spread the bits. */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
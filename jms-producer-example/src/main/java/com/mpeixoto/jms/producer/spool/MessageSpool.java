@@ -0,0 +1,311 @@
+package com.mpeixoto.jms.producer.spool;
+
+import com.mpeixoto.jms.producer.governor.OverloadPolicy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for keeping the messages that could not be sent in an append only journal on
+ * the local disk, so they are sent later in the order they were written. The journal is split in
+ * memory mapped segments of a fixed size, an append only copies the message to the page cache, so
+ * it survives a crash of the process without waiting for the disk. The segments are synced to the
+ * disk when they are full and when the spool is closed.
+ *
+ * <p>Every record is made of an int holding the length of the rest of the record, the destination
+ * byte and the UTF-8 bytes of the message. The length is written last, so a record torn by a crash
+ * reads as the end of the journal. A length of -1 marks the end of a segment. The position of the
+ * next record to send is kept in a checkpoint file, and the segments sent in full are deleted.
+ *
+ * <p>The spool holds at most a maximum size, rounded down to whole segments. Once it's full, a new
+ * message waits for the oldest segment to be sent, fails or is dropped, as its overload policy
+ * says.
+ *
+ * <p>The spool is thread safe. A message is sent at least once: one that was sent but not
+ * committed before a crash is sent again.
+ *
+ * @author mpeixoto
+ */
+public class MessageSpool implements AutoCloseable {
+  /** Destination byte of the messages sent to the request queue. */
+  public static final byte QUEUE = 1;
+  /** Destination byte of the messages sent to the topic. */
+  public static final byte TOPIC = 2;
+  private static final int END_OF_SEGMENT = -1;
+  private static final int LENGTH_BYTES = 4;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private final Path directory;
+  private final int segmentSize;
+  private final long maxSegments;
+  private final OverloadPolicy policy;
+  private final long maxWaitNanos;
+  private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+  private final MappedByteBuffer checkpoint;
+  private long writeSegment;
+  private int writeOffset;
+  private long readSegment;
+  private int readOffset;
+  private int pending;
+
+  /**
+   * Constructor of the class, it opens the spool kept in the directory or creates a new one,
+   * without any limit of size.
+   *
+   * @param directory The directory of the segments, it's created when it doesn't exist
+   * @param segmentSize The size in bytes of every segment
+   * @throws IOException It's thrown in case the spool could not be opened
+   */
+  public MessageSpool(Path directory, int segmentSize) throws IOException {
+    this(directory, segmentSize, Long.MAX_VALUE, OverloadPolicy.BLOCK, 0);
+  }
+
+  /**
+   * Constructor of the class, it opens the spool kept in the directory or creates a new one.
+   *
+   * @param directory The directory of the segments, it's created when it doesn't exist
+   * @param segmentSize The size in bytes of every segment
+   * @param maxSize The most bytes the spool holds, at least two segments
+   * @param policy What happens to a message appended while the spool is full
+   * @param maxWaitMillis How long a message waits for room when the policy blocks
+   * @throws IOException It's thrown in case the spool could not be opened
+   */
+  public MessageSpool(
+      Path directory, int segmentSize, long maxSize, OverloadPolicy policy, long maxWaitMillis)
+      throws IOException {
+    if (segmentSize < 64) {
+      throw new IllegalArgumentException("The segment size must be at least 64 bytes");
+    }
+    if (maxSize / segmentSize < 2) {
+      throw new IllegalArgumentException("The maximum size must hold at least two segments");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+    this.maxSegments = maxSize / segmentSize;
+    this.policy = policy;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    checkpoint = map(directory.resolve("checkpoint"), Long.BYTES + Integer.BYTES);
+    readSegment = checkpoint.getLong(0);
+    readOffset = checkpoint.getInt(Long.BYTES);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        long index =
+            Long.parseLong(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        if (index < readSegment) {
+          Files.delete(file);
+        } else {
+          segments.put(index, map(file, segmentSize));
+        }
+      }
+    }
+    if (segments.isEmpty()) {
+      readOffset = 0;
+      segments.put(readSegment, map(segmentFile(readSegment), segmentSize));
+    }
+    if (segments.firstKey() > readSegment) {
+      readSegment = segments.firstKey();
+      readOffset = 0;
+    }
+    recover();
+  }
+
+  /**
+   * Method responsible for appending a message to the end of the spool.
+   *
+   * @param destination {@link #QUEUE} or {@link #TOPIC}
+   * @param message The message that will be sent later
+   * @return true if the message was appended, false if the spool is full and sheds it
+   * @throws IOException It's thrown in case the message doesn't fit in a segment, a new segment
+   *     could not be created, or the spool is full and its policy doesn't shed the message
+   */
+  public synchronized boolean append(byte destination, String message) throws IOException {
+    byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+    int length = 1 + bytes.length;
+    if (LENGTH_BYTES + length + LENGTH_BYTES > segmentSize) {
+      throw new IOException("The message of " + bytes.length + " bytes doesn't fit in a segment");
+    }
+    if (writeOffset + LENGTH_BYTES + length + LENGTH_BYTES > segmentSize && !awaitRoom()) {
+      return false;
+    }
+    MappedByteBuffer segment = segments.get(writeSegment);
+    if (writeOffset + LENGTH_BYTES + length + LENGTH_BYTES > segmentSize) {
+      segment.putInt(writeOffset, END_OF_SEGMENT);
+      segment.force();
+      writeSegment++;
+      writeOffset = 0;
+      segment = map(segmentFile(writeSegment), segmentSize);
+      segments.put(writeSegment, segment);
+    }
+    ByteBuffer record = segment.duplicate();
+    record.position(writeOffset + LENGTH_BYTES);
+    record.put(destination);
+    record.put(bytes);
+    segment.putInt(writeOffset, length);
+    writeOffset += LENGTH_BYTES + length;
+    pending++;
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Method responsible for reading the oldest message of the spool without removing it.
+   *
+   * @return SpooledMessage, null when the spool is empty
+   */
+  public synchronized SpooledMessage peek() {
+    skipFinishedSegment();
+    if (readSegment == writeSegment && readOffset == writeOffset) {
+      return null;
+    }
+    MappedByteBuffer segment = segments.get(readSegment);
+    int length = segment.getInt(readOffset);
+    ByteBuffer record = segment.duplicate();
+    record.position(readOffset + LENGTH_BYTES);
+    byte destination = record.get();
+    byte[] bytes = new byte[length - 1];
+    record.get(bytes);
+    return new SpooledMessage(destination, new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Method responsible for removing the oldest message of the spool, once it was sent.
+   */
+  public synchronized void commit() {
+    skipFinishedSegment();
+    if (readSegment == writeSegment && readOffset == writeOffset) {
+      return;
+    }
+    readOffset += LENGTH_BYTES + segments.get(readSegment).getInt(readOffset);
+    pending--;
+    saveCheckpoint();
+    notifyAll();
+  }
+
+  /**
+   * Method responsible for waiting until the spool holds a message.
+   *
+   * @param timeoutMillis How long to wait at most
+   * @throws InterruptedException It's thrown in case the thread was interrupted while waiting
+   */
+  public synchronized void awaitMessage(long timeoutMillis) throws InterruptedException {
+    if (pending == 0) {
+      wait(timeoutMillis);
+    }
+  }
+
+  /**
+   * Get the amount of messages waiting to be sent.
+   *
+   * @return int
+   */
+  public synchronized int getPending() {
+    return pending;
+  }
+
+  /**
+   * Method responsible for syncing the spool to the disk, the messages stay in it.
+   */
+  @Override
+  public synchronized void close() {
+    segments.values().forEach(MappedByteBuffer::force);
+    checkpoint.force();
+  }
+
+  /**
+   * Method responsible for making room for a new segment, applying the overload policy while the
+   * spool is full.
+   */
+  private boolean awaitRoom() throws IOException {
+    skipFinishedSegment();
+    if (segments.size() < maxSegments) {
+      return true;
+    }
+    if (policy == OverloadPolicy.SHED) {
+      return false;
+    }
+    long deadline = System.nanoTime() + maxWaitNanos;
+    while (policy == OverloadPolicy.BLOCK) {
+      long waitNanos = deadline - System.nanoTime();
+      if (waitNanos <= 0) {
+        break;
+      }
+      try {
+        TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for room in the spool");
+      }
+      skipFinishedSegment();
+      if (segments.size() < maxSegments) {
+        return true;
+      }
+    }
+    throw new IOException("The spool of " + maxSegments + " segments is full");
+  }
+
+  private void recover() {
+    writeSegment = segments.lastKey();
+    writeOffset = writeSegment == readSegment ? readOffset : 0;
+    MappedByteBuffer segment = segments.get(writeSegment);
+    while (writeOffset + LENGTH_BYTES <= segmentSize && segment.getInt(writeOffset) > 0) {
+      writeOffset += LENGTH_BYTES + segment.getInt(writeOffset);
+    }
+    pending = 0;
+    for (long index = readSegment; index <= writeSegment; index++) {
+      MappedByteBuffer records = segments.get(index);
+      if (records == null) {
+        continue;
+      }
+      int offset = index == readSegment ? readOffset : 0;
+      int end = index == writeSegment ? writeOffset : segmentSize;
+      while (offset + LENGTH_BYTES <= end && records.getInt(offset) > 0) {
+        offset += LENGTH_BYTES + records.getInt(offset);
+        pending++;
+      }
+    }
+  }
+
+  private void skipFinishedSegment() {
+    while (readSegment < writeSegment
+        && (readOffset + LENGTH_BYTES > segmentSize
+            || segments.get(readSegment).getInt(readOffset) <= 0)) {
+      segments.remove(readSegment);
+      try {
+        Files.deleteIfExists(segmentFile(readSegment));
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+      readSegment = segments.ceilingKey(readSegment + 1);
+      readOffset = 0;
+      saveCheckpoint();
+    }
+  }
+
+  private void saveCheckpoint() {
+    checkpoint.putLong(0, readSegment);
+    checkpoint.putInt(Long.BYTES, readOffset);
+  }
+
+  private Path segmentFile(long index) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+  }
+
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+}
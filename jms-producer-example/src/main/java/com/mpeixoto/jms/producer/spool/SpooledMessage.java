@@ -0,0 +1,34 @@
+package com.mpeixoto.jms.producer.spool;
+
+/**
+ * Class responsible for holding a message read from the {@link MessageSpool}.
+ *
+ * @author mpeixoto
+ */
+public class SpooledMessage {
+  private final byte destination;
+  private final String message;
+
+  SpooledMessage(byte destination, String message) {
+    this.destination = destination;
+    this.message = message;
+  }
+
+  /**
+   * Get the destination of the message, {@link MessageSpool#QUEUE} or {@link MessageSpool#TOPIC}.
+   *
+   * @return byte
+   */
+  public byte getDestination() {
+    return destination;
+  }
+
+  /**
+   * Get the message.
+   *
+   * @return String
+   */
+  public String getMessage() {
+    return message;
+  }
+}
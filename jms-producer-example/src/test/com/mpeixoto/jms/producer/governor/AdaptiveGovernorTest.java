@@ -0,0 +1,130 @@
+package com.mpeixoto.jms.producer.governor;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the AdaptiveGovernor class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class AdaptiveGovernorTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if a message is refused while too many requests wait for a reply.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldFailFastWhenTooManyRequestsAreOutstanding() throws MessageException {
+        AdaptiveGovernor governor =
+                new AdaptiveGovernor(10, 10_000, 1, 1_000, OverloadPolicy.FAIL_FAST, 0);
+        governor.acquire();
+        governor.requestSent();
+        expectedException.expect(MessageException.class);
+        governor.acquire();
+    }
+
+    /**
+     * Method responsible for testing if a blocked sender resumes once a reply arrives.
+     *
+     * @throws Exception Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldBlockUntilAReplyArrives() throws Exception {
+        AdaptiveGovernor governor =
+                new AdaptiveGovernor(10, 10_000, 1, 1_000, OverloadPolicy.BLOCK, 5_000);
+        governor.acquire();
+        governor.requestSent();
+        CompletableFuture.runAsync(() -> {
+            sleep(20);
+            governor.replyReceived(100);
+        });
+        assertTrue(governor.acquire());
+        assertEquals(0, governor.getOutstanding());
+    }
+
+    /**
+     * Method responsible for testing if the rate is cut when the replies are slower than the target.
+     */
+    @Test
+    public void replyReceivedShouldCutTheRateWhenTheRepliesAreSlow() {
+        AdaptiveGovernor governor =
+                new AdaptiveGovernor(10, 1_000, 100, 1_000, OverloadPolicy.BLOCK, 0);
+        governor.requestSent();
+        sleep(110);
+        governor.replyReceived(50_000);
+        assertEquals(700, governor.getRatePerSecond(), 0.001);
+    }
+
+    /**
+     * Method responsible for testing if concurrent requests never exceed the cap of outstanding
+     * requests.
+     *
+     * @throws Exception Exception that is thrown in case a sender has failed
+     */
+    @Test
+    public void acquireRequestShouldNotOvershootTheCapFromManyThreads() throws Exception {
+        AdaptiveGovernor governor =
+                new AdaptiveGovernor(10, 1_000_000, 5, 1_000_000, OverloadPolicy.SHED, 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> admitted = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            admitted.add(executor.submit(() -> {
+                start.await();
+                return governor.acquireRequest();
+            }));
+        }
+        start.countDown();
+        int count = 0;
+        for (Future<Boolean> future : admitted) {
+            if (future.get(5, TimeUnit.SECONDS)) {
+                count++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(5, count);
+        assertEquals(5, governor.getOutstanding());
+    }
+
+    /**
+     * Method responsible for testing if a request shed by the rate gives its place back.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireRequestShouldReleaseThePlaceOfAShedRequest() throws MessageException {
+        AdaptiveGovernor governor = new AdaptiveGovernor(1, 1, 10, 1_000, OverloadPolicy.SHED, 0);
+        assertTrue(governor.acquireRequest());
+        assertFalse(governor.acquireRequest());
+        assertEquals(1, governor.getOutstanding());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mpeixoto.jms.producer.governor;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the TokenBucketGovernor class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class TokenBucketGovernorTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if the messages over the burst are refused at once.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldFailFastOnceTheBurstIsUsed() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(1, 2, OverloadPolicy.FAIL_FAST, 0);
+        assertTrue(governor.acquire());
+        assertTrue(governor.acquire());
+        expectedException.expect(MessageException.class);
+        expectedException.expectCause(instanceOf(RejectedExecutionException.class));
+        governor.acquire();
+    }
+
+    /**
+     * Method responsible for testing if the messages over the rate are shed without an exception.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldShedOnceTheBurstIsUsed() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(1, 1, OverloadPolicy.SHED, 0);
+        assertTrue(governor.acquire());
+        assertFalse(governor.acquire());
+    }
+
+    /**
+     * Method responsible for testing if a blocked sender waits for the next token.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldBlockUntilTheNextToken() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(50, 1, OverloadPolicy.BLOCK, 1_000);
+        governor.acquire();
+        long start = System.nanoTime();
+        assertTrue(governor.acquire());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(50, governor.getRatePerSecond(), 0);
+    }
+
+    /**
+     * Method responsible for testing if a sender fails when the next token is too far away.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldFailWhenTheWaitIsTooLong() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(1, 1, OverloadPolicy.BLOCK, 10);
+        governor.acquire();
+        expectedException.expect(MessageException.class);
+        governor.acquire();
+    }
+
+    /**
+     * Method responsible for testing if a batch is shed as a whole, without taking any token.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldShedABatchAsAWhole() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(1, 2, OverloadPolicy.SHED, 0);
+        assertFalse(governor.acquire(3));
+        assertTrue(governor.acquire(2));
+    }
+
+    /**
+     * Method responsible for testing if a blocked batch larger than the burst waits for its tokens.
+     *
+     * @throws MessageException Exception that is thrown in case the governor refused a message
+     */
+    @Test
+    public void acquireShouldBlockABatchUntilItsTokens() throws MessageException {
+        TokenBucketGovernor governor = new TokenBucketGovernor(100, 1, OverloadPolicy.BLOCK, 1_000);
+        long start = System.nanoTime();
+        assertTrue(governor.acquire(11));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+    }
+}
@@ -0,0 +1,127 @@
+package com.mpeixoto.jms.producer.load;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.services.PooledMessageSender;
+import com.mpeixoto.jms.producer.services.Reply;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing the LoadGenerator class and its methods.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoadGeneratorTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private PooledMessageSender messageSender;
+
+    /**
+     * Method responsible for testing if a closed loop counts every reply it gets.
+     *
+     * @throws MessageException Exception that is thrown in case a request couldn't be sent
+     * @throws InterruptedException Exception that is thrown if the run is interrupted
+     */
+    @Test
+    public void runShouldCountTheRepliesOfAClosedLoop()
+            throws MessageException, InterruptedException {
+        when(messageSender.request(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new Reply("id", "request", "ok")));
+        LoadReport report = new LoadGenerator(messageSender,
+                new LoadSettings().setThreads(2).setDurationSeconds(1)).run();
+        assertTrue(report.getSent() > 0);
+        assertEquals(report.getSent(), report.getCompleted());
+        assertEquals(0, report.getErrors());
+        assertTrue(report.getThroughput() > 0);
+    }
+
+    /**
+     * Method responsible for testing if the requests that fail or get no reply count as errors.
+     *
+     * @throws MessageException Exception that is thrown in case a request couldn't be sent
+     * @throws InterruptedException Exception that is thrown if the run is interrupted
+     */
+    @Test
+    public void runShouldCountTheFailedRequestsAsErrors()
+            throws MessageException, InterruptedException {
+        CompletableFuture<Reply> timedOut = new CompletableFuture<>();
+        timedOut.completeExceptionally(new TimeoutException());
+        when(messageSender.request(anyString()))
+                .thenThrow(new MessageException("refused", null))
+                .thenReturn(timedOut);
+        LoadReport report = new LoadGenerator(messageSender,
+                new LoadSettings().setRatePerSecond(50).setDurationSeconds(1)).run();
+        assertEquals(0, report.getCompleted());
+        assertEquals(report.getSent() + 1, report.getErrors());
+    }
+
+    /**
+     * Method responsible for testing if an open loop keeps to the target rate.
+     *
+     * @throws MessageException Exception that is thrown in case a request couldn't be sent
+     * @throws InterruptedException Exception that is thrown if the run is interrupted
+     */
+    @Test
+    public void runShouldKeepTheRateOfAnOpenLoop() throws MessageException, InterruptedException {
+        when(messageSender.request(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new Reply("id", "request", "ok")));
+        LoadReport report = new LoadGenerator(messageSender, new LoadSettings()
+                .setMode(LoadMode.OPEN_LOOP).setRatePerSecond(100).setThreads(2)
+                .setDurationSeconds(1)).run();
+        assertTrue(report.getSent() >= 90 && report.getSent() <= 100);
+    }
+
+    /**
+     * Method responsible for testing if an open loop keeps sending while the replies are slow and
+     * waits for them before reporting.
+     *
+     * @throws MessageException Exception that is thrown in case a request couldn't be sent
+     * @throws InterruptedException Exception that is thrown if the run is interrupted
+     */
+    @Test
+    public void runShouldWaitForTheRepliesOfAnOpenLoop()
+            throws MessageException, InterruptedException {
+        ScheduledExecutorService consumer = Executors.newSingleThreadScheduledExecutor();
+        when(messageSender.request(anyString())).thenAnswer(invocation -> {
+            CompletableFuture<Reply> future = new CompletableFuture<>();
+            consumer.schedule(() -> future.complete(new Reply("id", "request", "ok")),
+                    200, TimeUnit.MILLISECONDS);
+            return future;
+        });
+        LoadReport report = new LoadGenerator(messageSender, new LoadSettings()
+                .setMode(LoadMode.OPEN_LOOP).setRatePerSecond(50).setDurationSeconds(1)).run();
+        consumer.shutdown();
+        assertTrue(report.getSent() >= 45);
+        assertEquals(report.getSent(), report.getCompleted());
+        assertTrue(report.getLatencyMicros(50) >= TimeUnit.MILLISECONDS.toMicros(200));
+    }
+
+    /**
+     * Method responsible for testing if an open loop without a target rate is refused.
+     */
+    @Test
+    public void constructorShouldRefuseAnOpenLoopWithoutARate() {
+        expectedException.expect(IllegalArgumentException.class);
+        new LoadGenerator(messageSender, new LoadSettings().setMode(LoadMode.OPEN_LOOP));
+    }
+}
@@ -0,0 +1,60 @@
+package com.mpeixoto.jms.producer.load;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the PayloadSizes class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class PayloadSizesTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if a single size gives every payload that size.
+     */
+    @Test
+    public void nextShouldAlwaysGiveASingleSize() {
+        PayloadSizes sizes = PayloadSizes.parse("256");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(256, sizes.next().length());
+        }
+        assertEquals(256, sizes.getMeanSize(), 0);
+    }
+
+    /**
+     * Method responsible for testing if the sizes are drawn following their weights.
+     */
+    @Test
+    public void nextShouldFollowTheWeights() {
+        PayloadSizes sizes = PayloadSizes.parse("10:3, 1000:1");
+        int small = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String payload = sizes.next();
+            assertTrue(payload.length() == 10 || payload.length() == 1000);
+            if (payload.length() == 10) {
+                small++;
+            }
+        }
+        assertTrue(small > 7000 && small < 8000);
+        assertEquals(257.5, sizes.getMeanSize(), 0.001);
+    }
+
+    /**
+     * Method responsible for testing if a weight below one is refused.
+     */
+    @Test
+    public void parseShouldRefuseAWeightBelowOne() {
+        expectedException.expect(IllegalArgumentException.class);
+        PayloadSizes.parse("128:0");
+    }
+}
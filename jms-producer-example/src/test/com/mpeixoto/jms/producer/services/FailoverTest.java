@@ -0,0 +1,185 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the MessageSender class with failover URLs, against two brokers
+ * running on localhost.
+ *
+ * @author mpeixoto
+ */
+public class FailoverTest {
+    /**
+     * Rule responsible for creating the store of the persistent broker.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BrokerService first;
+    private BrokerService second;
+    private Connection responder;
+    private final CountDownLatch received = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * Method responsible for starting both brokers.
+     *
+     * @throws Exception Exception that is thrown in case a broker could not be started
+     */
+    @Before
+    public void setUp() throws Exception {
+        first = startBroker("first");
+        second = startBroker("second");
+    }
+
+    /**
+     * Method responsible for stopping the responder and the brokers.
+     *
+     * @throws Exception Exception that is thrown in case something could not be stopped
+     */
+    @After
+    public void tearDown() throws Exception {
+        if (responder != null) {
+            responder.close();
+        }
+        first.stop();
+        second.stop();
+    }
+
+    /**
+     * Method responsible for testing if a request lost with its broker is sent again to the next
+     * broker when the settings ask for it, and if the sends go on once the connection is back.
+     *
+     * @throws Exception Exception that is thrown in case a reply was not received in time
+     */
+    @Test
+    public void requestShouldBeResentToTheNextBroker() throws Exception {
+        MessageSender sender = new MessageSender(new SenderSettings()
+                .setFailoverUrls(url(first), url(second))
+                .setResendRequestsOnFailover(true)
+                .setRequestTimeoutMillis(10_000));
+        CompletableFuture<Reply> future = sender.request("lost");
+        assertEquals(-1, sender.getLastRecoveryMicros());
+        startResponder(url(second));
+
+        long stoppedAt = System.nanoTime();
+        first.stop();
+        first.waitUntilStopped();
+        Reply reply = future.get(10, TimeUnit.SECONDS);
+        long resumedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stoppedAt);
+
+        assertTrue(reply.getRequest().startsWith("lost"));
+        assertEquals(1, sender.getReconnections());
+        assertTrue(sender.getLastRecoveryMicros() >= 0);
+        assertTrue("The request took " + resumedMillis + " ms to be answered",
+                resumedMillis < 5_000);
+        sender.sendMessageToAQueue("after");
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(0, sender.getPendingRequests());
+        sender.close();
+    }
+
+    /**
+     * Method responsible for testing if a request kept by the broker that comes back is answered
+     * once, since the sender doesn't send it again by default.
+     *
+     * @throws Exception Exception that is thrown in case a reply was not received in time
+     */
+    @Test
+    public void requestKeptByTheBrokerShouldNotBeSentAgain() throws Exception {
+        BrokerService kept = startPersistentBroker("tcp://localhost:0");
+        String url = url(kept);
+        MessageSender sender = new MessageSender(new SenderSettings()
+                .setFailoverUrls(url)
+                .setRequestTimeoutMillis(10_000));
+        try {
+            CompletableFuture<Reply> future = sender.request("kept");
+            kept.stop();
+            kept.waitUntilStopped();
+            kept = startPersistentBroker(url);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (sender.getReconnections() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, sender.getReconnections());
+            startResponder(url);
+
+            assertTrue(future.get(10, TimeUnit.SECONDS).getRequest().startsWith("kept"));
+            Thread.sleep(500);
+            assertEquals(1, requests.get());
+        } finally {
+            sender.close();
+            responder.close();
+            responder = null;
+            kept.stop();
+        }
+    }
+
+    private void startResponder(String brokerUrl) throws JMSException {
+        responder = new ActiveMQConnectionFactory(brokerUrl).createConnection();
+        Session session = responder.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer replies = session.createProducer(null);
+        session.createConsumer(session.createQueue("request.message.queue")).setMessageListener(message -> {
+            try {
+                if (message.getJMSReplyTo() == null) {
+                    received.countDown();
+                    return;
+                }
+                requests.incrementAndGet();
+                MapMessage reply = session.createMapMessage();
+                reply.setString("Request", ((MapMessage) message).getString("Request"));
+                reply.setString("Response", "answer");
+                reply.setJMSCorrelationID(message.getJMSCorrelationID());
+                replies.send(message.getJMSReplyTo(), reply);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        responder.start();
+    }
+
+    private static BrokerService startBroker(String name) throws Exception {
+        BrokerService broker = new BrokerService();
+        broker.setBrokerName(name);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.addConnector("tcp://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+        return broker;
+    }
+
+    private BrokerService startPersistentBroker(String url) throws Exception {
+        BrokerService broker = new BrokerService();
+        broker.setBrokerName("kept");
+        broker.setDataDirectoryFile(temporaryFolder.getRoot());
+        broker.setUseJmx(false);
+        broker.addConnector(url);
+        broker.start();
+        broker.waitUntilStarted();
+        return broker;
+    }
+
+    private static String url(BrokerService broker) throws Exception {
+        return broker.getTransportConnectors().get(0).getConnectUri().toString();
+    }
+}
@@ -1,7 +1,13 @@
 package com.mpeixoto.jms.producer.services;
 
+import com.mpeixoto.jms.common.codec.BinaryCodec;
+import com.mpeixoto.jms.common.codec.Compression;
+import com.mpeixoto.jms.common.codec.DeflateCompressor;
+import java.util.concurrent.CompletableFuture;
 import javax.jms.JMSException;
 import javax.jms.MapMessage;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQMapMessage;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -10,6 +16,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.when;
 
 /**
@@ -75,4 +82,83 @@ public class MapMessageListenerTest {
         mapMessageListener.onMessage(null);
         loggerTest.verifyMessages("Invalid Message Received");
     }
+
+    /**
+     * Method responsible for testing if the reply has been handed to the request waiting for it.
+     *
+     * @throws Exception Exception that is thrown in case the reply was not received
+     */
+    @Test
+    public void onMessageShouldCompleteThePendingRequest() throws Exception {
+        PendingRequests pendingRequests = new PendingRequests(1_000);
+        CompletableFuture<Reply> future = pendingRequests.register("correlation");
+        when(mapMessage.getString("Request")).thenReturn("test request");
+        when(mapMessage.getString("Response")).thenReturn("test response");
+        when(mapMessage.getJMSCorrelationID()).thenReturn("correlation");
+        new MapMessageListener(pendingRequests).onMessage(mapMessage);
+        assertEquals("test response", future.get().getResponse());
+        assertEquals(0, pendingRequests.size());
+    }
+
+    /**
+     * Method responsible for testing if a binary reply has been handed to the request waiting for it.
+     *
+     * @throws Exception Exception that is thrown in case the reply was not received
+     */
+    @Test
+    public void onMessageGivenABinaryReplyShouldCompleteThePendingRequest() throws Exception {
+        PendingRequests pendingRequests = new PendingRequests(1_000);
+        CompletableFuture<Reply> future = pendingRequests.register("correlation");
+        ActiveMQBytesMessage reply = new ActiveMQBytesMessage();
+        BinaryCodec.write(reply, 0L, "test request", "test response");
+        reply.reset();
+        reply.setJMSCorrelationID("correlation");
+        new MapMessageListener(pendingRequests).onMessage(reply);
+        assertEquals("test request", future.get().getRequest());
+        assertEquals("test response", future.get().getResponse());
+    }
+
+    /**
+     * Method responsible for testing if a compressed reply is decompressed before being handed over.
+     *
+     * @throws Exception Exception that is thrown in case the reply was not received
+     */
+    @Test
+    public void onMessageGivenACompressedReplyShouldDecompressIt() throws Exception {
+        PendingRequests pendingRequests = new PendingRequests(1_000);
+        CompletableFuture<Reply> future = pendingRequests.register("correlation");
+        ActiveMQMapMessage reply = new ActiveMQMapMessage();
+        Compression.writeText(reply, "Request", "test request", new DeflateCompressor(), 0);
+        reply.setString("Response", "test response");
+        reply.setStringProperty(Compression.PROPERTY, DeflateCompressor.NAME);
+        reply.setJMSCorrelationID("correlation");
+        new MapMessageListener(pendingRequests).onMessage(reply);
+        assertEquals("test request", future.get().getRequest());
+        assertEquals("test response", future.get().getResponse());
+    }
+
+    /**
+     * Method responsible for testing if every reply of a coalesced batch is handed to its request.
+     *
+     * @throws Exception Exception that is thrown in case the replies were not received
+     */
+    @Test
+    public void onMessageGivenABatchOfRepliesShouldCompleteEveryPendingRequest() throws Exception {
+        PendingRequests pendingRequests = new PendingRequests(1_000);
+        CompletableFuture<Reply> first = pendingRequests.register("first");
+        CompletableFuture<Reply> second = pendingRequests.register("second");
+        ActiveMQMapMessage reply = new ActiveMQMapMessage();
+        reply.setString("CorrelationID.0", "first");
+        reply.setString("Request.0", "first request");
+        reply.setString("Response.0", "first response");
+        reply.setString("CorrelationID.1", "second");
+        Compression.writeText(reply, "Request.1", "second request", new DeflateCompressor(), 0);
+        reply.setString("Response.1", "second response");
+        reply.setStringProperty(Compression.PROPERTY, DeflateCompressor.NAME);
+        reply.setIntProperty(MapMessageListener.ENTRIES, 2);
+        new MapMessageListener(pendingRequests).onMessage(reply);
+        assertEquals("first response", first.get().getResponse());
+        assertEquals("second request", second.get().getRequest());
+        assertEquals(0, pendingRequests.size());
+    }
 }
@@ -1,14 +1,25 @@
 package com.mpeixoto.jms.producer.services;
 
 import com.mpeixoto.jms.producer.exception.MessageException;
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.MapMessage;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
+import javax.jms.Session;
 import javax.jms.TextMessage;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQBytesMessage;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -19,11 +30,16 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Class responsible for testing the MessageSender class and its methods.
@@ -42,6 +58,12 @@ public class MessageSenderTest {
     private MessageConsumer consumer;
     @Mock
     private Connection connection;
+    @Mock
+    private Session transactedSession;
+    @Mock
+    private MessageProducer batchProducer;
+    @Mock
+    private MapMessage batchMessage;
     @Captor
     private ArgumentCaptor<MapMessage> mapMessageArgumentCaptor;
     @Captor
@@ -144,4 +166,188 @@ public class MessageSenderTest {
         expectedException.expectMessage("It was not possible to send the message to the topic");
         messageSender.sendMessageToATopic("test");
     }
+
+    /**
+     * Method responsible for testing if a batch of messages has been sent inside a single transaction.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'send' or 'commit' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'sendBatchToQueue' has failed
+     */
+    @Test
+    public void sendBatchToQueueShouldCommitOnce() throws JMSException, MessageException {
+        when(transactedSession.createMapMessage()).thenReturn(batchMessage);
+        messageSender.setTransactedSession(transactedSession);
+        messageSender.setBatchProducer(batchProducer);
+        messageSender.sendBatchToQueue(Arrays.asList("first", "second", "third"));
+        verify(batchProducer, times(3)).send(batchMessage);
+        verify(transactedSession, times(1)).commit();
+    }
+
+    /**
+     * Method responsible for testing if the batch has been rolled back when a send has failed.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'send' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'sendBatchToQueue' has failed
+     */
+    @Test
+    public void sendBatchToQueueShouldRollbackAndThrowAMessageException() throws JMSException, MessageException {
+        when(transactedSession.createMapMessage()).thenReturn(batchMessage);
+        doThrow(new JMSException("Negative test")).when(batchProducer).send(batchMessage);
+        messageSender.setTransactedSession(transactedSession);
+        messageSender.setBatchProducer(batchProducer);
+        expectedException.expect(MessageException.class);
+        expectedException.expectMessage("It was not possible to send the batch to the queue");
+        try {
+            messageSender.sendBatchToQueue(Arrays.asList("first", "second"));
+        } finally {
+            verify(transactedSession, times(1)).rollback();
+            verify(transactedSession, never()).commit();
+        }
+    }
+
+    /**
+     * Method responsible for testing if an asynchronous send to a queue is completed once it's sent.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'send' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'sendMessageToAQueueAsync' has failed
+     */
+    @Test
+    public void sendMessageToAQueueAsyncShouldCompleteTheFuture() throws JMSException, MessageException {
+        CompletableFuture<Void> future = messageSender.sendMessageToAQueueAsync("test");
+        verify(producer, times(1)).send(any(MapMessage.class));
+        assertTrue(future.isDone());
+        assertEquals(0, messageSender.getInFlightSends());
+    }
+
+    /**
+     * Method responsible for testing if an asynchronous send to a topic is acknowledged by a real broker.
+     *
+     * @throws Exception Exception that is thrown in case the future was not completed in time
+     */
+    @Test
+    public void sendMessageToATopicAsyncShouldBeAcknowledgedByTheBroker() throws Exception {
+        MessageSender sender =
+                new MessageSender(new SenderSettings().setBrokerUrl("vm://localhost?broker.persistent=false"));
+        sender.sendMessageToATopicAsync("test").get(5, TimeUnit.SECONDS);
+        sender.sendMessageToAQueueAsync("test").get(5, TimeUnit.SECONDS);
+        assertEquals(0, sender.getInFlightSends());
+    }
+
+    /**
+     * Method responsible for testing if the window is released when the asynchronous send has failed.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'send' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'sendMessageToAQueueAsync' has failed
+     */
+    @Test
+    public void sendMessageToAQueueAsyncShouldThrownAMessageException() throws JMSException, MessageException {
+        doThrow(new JMSException("Negative test")).when(producer).send(any(MapMessage.class));
+        expectedException.expect(MessageException.class);
+        expectedException.expectMessage("It was not possible to send the message to the queue");
+        try {
+            messageSender.sendMessageToAQueueAsync("test");
+        } finally {
+            assertEquals(0, messageSender.getInFlightSends());
+        }
+    }
+
+    /**
+     * Method responsible for testing if every request is completed by the reply with its correlation id.
+     *
+     * @throws Exception Exception that is thrown in case a reply was not received in time
+     */
+    @Test
+    public void requestShouldBeCompletedByTheCorrelatedReply() throws Exception {
+        String brokerUrl = "vm://request?broker.persistent=false";
+        Connection responder = new ActiveMQConnectionFactory(brokerUrl).createConnection();
+        Session session = responder.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer replies = session.createProducer(null);
+        session.createConsumer(session.createQueue("request.message.queue")).setMessageListener(message -> {
+            try {
+                MapMessage reply = session.createMapMessage();
+                reply.setString("Request", ((MapMessage) message).getString("Request"));
+                reply.setString("Response", "answer to " + message.getJMSCorrelationID());
+                reply.setJMSCorrelationID(message.getJMSCorrelationID());
+                replies.send(message.getJMSReplyTo(), reply);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        responder.start();
+
+        MessageSender sender = new MessageSender(new SenderSettings().setBrokerUrl(brokerUrl));
+        CompletableFuture<Reply> first = sender.request("first");
+        CompletableFuture<Reply> second = sender.request("second");
+        Reply firstReply = first.get(5, TimeUnit.SECONDS);
+        Reply secondReply = second.get(5, TimeUnit.SECONDS);
+        assertEquals("answer to " + firstReply.getCorrelationId(), firstReply.getResponse());
+        assertTrue(secondReply.getRequest().startsWith("second"));
+        assertEquals(0, sender.getPendingRequests());
+        responder.close();
+    }
+
+    /**
+     * Method responsible for testing if the request fails once no reply arrives in time.
+     *
+     * @throws Exception Exception that is thrown in case the request could not be sent
+     */
+    @Test
+    public void requestShouldFailWhenNoReplyArrives() throws Exception {
+        MessageSender sender = new MessageSender(new SenderSettings()
+                .setBrokerUrl("vm://timeout?broker.persistent=false")
+                .setRequestTimeoutMillis(50));
+        CompletableFuture<Reply> future = sender.request("test");
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(MessageException.class));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            assertEquals(0, sender.getPendingRequests());
+        }
+    }
+
+    /**
+     * Method responsible for testing if a stream is sent as chunks of the same message group.
+     *
+     * @throws Exception Exception that is thrown in case the stream could not be sent or read
+     */
+    @Test
+    public void sendStreamShouldSplitTheStreamIntoChunks() throws Exception {
+        ArgumentCaptor<BytesMessage> chunks = ArgumentCaptor.forClass(BytesMessage.class);
+        String streamId = messageSender.sendStream(new ByteArrayInputStream(new byte[64 * 1024 + 10]));
+        verify(producer, times(2)).send(chunks.capture());
+        BytesMessage first = chunks.getAllValues().get(0);
+        BytesMessage last = chunks.getAllValues().get(1);
+        assertEquals(streamId, first.getStringProperty("JMSXGroupID"));
+        assertEquals(streamId, last.getStringProperty("JMSXGroupID"));
+        assertEquals(2, last.getIntProperty("JMSXGroupSeq"));
+        assertEquals(false, first.getBooleanProperty("StreamEnd"));
+        assertTrue(last.getBooleanProperty("StreamEnd"));
+        ((ActiveMQBytesMessage) last).reset();
+        assertEquals(10, last.getBodyLength());
+    }
+
+    /**
+     * Method responsible for testing if the consumer is told to drop a stream that could not be read.
+     *
+     * @throws Exception Exception that is thrown in case the abort chunk could not be sent
+     */
+    @Test
+    public void sendStreamShouldAbortTheStreamWhenItCannotBeRead() throws Exception {
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Negative test");
+            }
+        };
+        ArgumentCaptor<BytesMessage> chunks = ArgumentCaptor.forClass(BytesMessage.class);
+        try {
+            messageSender.sendStream(broken);
+        } catch (MessageException e) {
+            assertEquals("It was not possible to read the stream", e.getMessage());
+        }
+        verify(producer, times(1)).send(chunks.capture());
+        assertTrue(chunks.getValue().getBooleanProperty("StreamAborted"));
+        assertEquals(1, chunks.getValue().getIntProperty("JMSXGroupSeq"));
+    }
 }
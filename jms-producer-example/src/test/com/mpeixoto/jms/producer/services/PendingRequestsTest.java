@@ -0,0 +1,66 @@
+package com.mpeixoto.jms.producer.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the PendingRequests class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class PendingRequestsTest {
+
+    /**
+     * Method responsible for testing if the timeout of a replied request is taken off the timer.
+     */
+    @Test
+    public void completeShouldRemoveTheTimeoutFromTheTimer() {
+        PendingRequests pendingRequests = new PendingRequests(TimeUnit.HOURS.toMillis(1));
+        int before = PendingRequests.scheduledTimeouts();
+        CompletableFuture<Reply> future = pendingRequests.register("complete");
+        assertEquals(before + 1, PendingRequests.scheduledTimeouts());
+        assertTrue(pendingRequests.complete(new Reply("complete", "request", "response")));
+        assertTrue(future.isDone());
+        assertEquals(before, PendingRequests.scheduledTimeouts());
+        assertEquals(0, pendingRequests.size());
+    }
+
+    /**
+     * Method responsible for testing if the timeout of a failed request is taken off the timer.
+     */
+    @Test
+    public void failShouldRemoveTheTimeoutFromTheTimer() {
+        PendingRequests pendingRequests = new PendingRequests(TimeUnit.HOURS.toMillis(1));
+        int before = PendingRequests.scheduledTimeouts();
+        CompletableFuture<Reply> future = pendingRequests.register("fail");
+        pendingRequests.fail("fail", new IllegalStateException("Negative test"));
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(before, PendingRequests.scheduledTimeouts());
+    }
+
+    /**
+     * Method responsible for testing if a request without a reply is failed once its timeout
+     * expires.
+     *
+     * @throws InterruptedException Exception thrown if the test is interrupted while waiting
+     */
+    @Test
+    public void registerShouldFailTheRequestOnceItsTimeoutExpires() throws InterruptedException {
+        PendingRequests pendingRequests = new PendingRequests(50);
+        CompletableFuture<Reply> future = pendingRequests.register("timeout");
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof TimeoutException);
+        } catch (TimeoutException e) {
+            throw new AssertionError("The request was not failed", e);
+        }
+        assertEquals(0, pendingRequests.size());
+    }
+}
@@ -0,0 +1,160 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.exception.MessageException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Class responsible for testing the PooledMessageSender class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class PooledMessageSenderTest {
+    private static final String BROKER_URL = "vm://pooled?broker.persistent=false";
+    private final ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(BROKER_URL);
+    private Connection connection;
+    private PooledMessageSender pooledMessageSender;
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for starting the broker and the pool before each test.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be started
+     */
+    @Before
+    public void setUp() throws Exception {
+        connection = connectionFactory.createConnection();
+        connection.start();
+        pooledMessageSender = new PooledMessageSender(connectionFactory,
+                new SenderSettings().setPoolConnections(2).setPoolSessions(4).setPoolLeaseTimeoutMillis(5_000));
+    }
+
+    /**
+     * Method responsible for closing the pool and the broker after each test.
+     *
+     * @throws JMSException Exception that is thrown in case the connection could not be closed
+     */
+    @After
+    public void tearDown() throws JMSException {
+        pooledMessageSender.close();
+        connection.close();
+    }
+
+    /**
+     * Method responsible for testing if many threads can send through the same pooled sender.
+     *
+     * @throws Exception Exception that is thrown in case a send has failed
+     */
+    @Test
+    public void sendMessageToAQueueFromManyThreads() throws Exception {
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(session.createQueue("request.message.queue"));
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executorService.submit(() -> {
+                pooledMessageSender.sendMessageToAQueue("test");
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        for (int i = 0; i < 200; i++) {
+            assertNotNull(consumer.receive(1_000));
+        }
+    }
+
+    /**
+     * Method responsible for testing if many threads can wait for their own replies through the same
+     * pooled sender.
+     *
+     * @throws Exception Exception that is thrown in case a reply was not received in time
+     */
+    @Test
+    public void requestFromManyThreadsShouldGetEveryReply() throws Exception {
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer replies = session.createProducer(null);
+        session.createConsumer(session.createQueue("request.message.queue")).setMessageListener(message -> {
+            try {
+                MapMessage reply = session.createMapMessage();
+                reply.setString("Request", ((MapMessage) message).getString("Request"));
+                reply.setString("Response", message.getJMSCorrelationID());
+                reply.setJMSCorrelationID(message.getJMSCorrelationID());
+                replies.send(message.getJMSReplyTo(), reply);
+            } catch (JMSException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Reply>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executorService.submit(
+                    () -> pooledMessageSender.request("test").get(5, TimeUnit.SECONDS)));
+        }
+        for (Future<Reply> future : futures) {
+            Reply reply = future.get();
+            assertEquals(reply.getCorrelationId(), reply.getResponse());
+        }
+        executorService.shutdown();
+        assertEquals(0, pooledMessageSender.getPendingRequests());
+    }
+
+    /**
+     * Method responsible for testing if a thread gets its previous session back.
+     *
+     * @throws Exception Exception that is thrown in case the pool could not be created
+     */
+    @Test
+    public void leaseShouldPreferTheSessionUsedBefore() throws Exception {
+        try (SessionPool sessionPool = new SessionPool(connectionFactory, new SenderSettings().setPoolSessions(3))) {
+            PooledSession first = sessionPool.lease();
+            sessionPool.release(first);
+            PooledSession other = sessionPool.lease();
+            sessionPool.release(other);
+            assertEquals(first, other);
+            assertEquals(3, sessionPool.getIdleSessions());
+        }
+    }
+
+    /**
+     * Method responsible for testing if the exception has been thrown as expected when the pool is exhausted.
+     *
+     * @throws Exception Exception that is thrown in case the pool could not be created
+     */
+    @Test
+    public void leaseShouldThrowAMessageExceptionWhenThePoolIsExhausted() throws Exception {
+        try (SessionPool sessionPool = new SessionPool(connectionFactory,
+                new SenderSettings().setPoolSessions(1).setPoolLeaseTimeoutMillis(10))) {
+            sessionPool.lease();
+            expectedException.expect(MessageException.class);
+            expectedException.expectMessage("It was not possible to lease a session");
+            sessionPool.lease();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing the QueueBatch class and its methods.
+ *
+ * @author mpeixoto
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class QueueBatchTest {
+    @Mock
+    private Session session;
+    @Mock
+    private MessageProducer producer;
+    @Mock
+    private MapMessage mapMessage;
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final MessageSender messageSender = mock(MessageSender.class);
+
+    /**
+     * Method responsible for preparing the message that is created for every request, and letting
+     * every message through the send governor.
+     *
+     * @throws Exception Exception that is thrown in case the method 'createRequestMessage' has failed
+     */
+    @Before
+    public void setUp() throws Exception {
+        when(messageSender.createRequestMessage(session, "test")).thenReturn(mapMessage);
+        lenient().when(messageSender.admit()).thenReturn(true);
+    }
+
+    /**
+     * Method responsible for testing if the batch is committed once it's full.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'commit' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'add' has failed
+     */
+    @Test
+    public void addShouldCommitWhenTheBatchIsFull() throws JMSException, MessageException {
+        try (QueueBatch queueBatch = new QueueBatch(messageSender, session, producer, 2, 60_000)) {
+            queueBatch.add("test");
+            verify(session, never()).commit();
+            queueBatch.add("test");
+            verify(session, times(1)).commit();
+            assertEquals(0, queueBatch.getPending());
+        }
+        verify(producer, times(2)).send(mapMessage);
+        verify(session, times(1)).close();
+    }
+
+    /**
+     * Method responsible for testing if the pending messages are committed once the delay has expired.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'commit' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'add' has failed
+     */
+    @Test
+    public void addShouldCommitWhenTheDelayHasExpired() throws JMSException, MessageException {
+        try (QueueBatch queueBatch = new QueueBatch(messageSender, session, producer, 100, 10)) {
+            queueBatch.add("test");
+            verify(session, timeout(1_000).times(1)).commit();
+        }
+    }
+
+    /**
+     * Method responsible for testing if the exception has been thrown as expected after the batch was closed.
+     *
+     * @throws MessageException Exception that is thrown in case that the method 'add' has failed
+     */
+    @Test
+    public void addAfterCloseShouldThrowAMessageException() throws MessageException {
+        QueueBatch queueBatch = new QueueBatch(messageSender, session, producer, 2, 60_000);
+        queueBatch.close();
+        expectedException.expect(MessageException.class);
+        expectedException.expectMessage("It was not possible to add the message to the batch");
+        queueBatch.add("test");
+    }
+
+    /**
+     * Method responsible for testing if a commit that failed in the background is thrown by the next
+     * call to the batch.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'commit' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'add' has failed
+     */
+    @Test
+    public void addAfterAFailedBackgroundCommitShouldThrowAMessageException()
+            throws JMSException, MessageException {
+        doThrow(new JMSException("Negative test")).when(session).commit();
+        QueueBatch queueBatch = new QueueBatch(messageSender, session, producer, 100, 10);
+        queueBatch.add("test");
+        verify(session, timeout(1_000).times(1)).rollback();
+        expectedException.expect(MessageException.class);
+        expectedException.expectMessage("The messages of a batch committed in the background were lost");
+        queueBatch.add("test");
+    }
+
+    /**
+     * Method responsible for testing if a message waits little more than the maximum delay.
+     *
+     * @throws JMSException     Exception that is thrown in case the method 'commit' has failed
+     * @throws MessageException Exception that is thrown in case that the method 'add' has failed
+     */
+    @Test
+    public void addShouldCommitSoonAfterTheDelayHasExpired() throws JMSException, MessageException {
+        try (QueueBatch queueBatch = new QueueBatch(messageSender, session, producer, 100, 200)) {
+            queueBatch.add("test");
+            verify(session, after(150).never()).commit();
+            verify(session, timeout(150).times(1)).commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.exception.MessageException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the SendWindow class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class SendWindowTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Method responsible for testing if the slots are counted as expected.
+     *
+     * @throws MessageException Exception that is thrown in case that the method 'acquire' has failed
+     */
+    @Test
+    public void acquireAndReleaseShouldTrackTheSendsInFlight() throws MessageException {
+        SendWindow sendWindow = new SendWindow(2, 10);
+        sendWindow.acquire();
+        assertTrue(sendWindow.tryAcquire());
+        assertFalse(sendWindow.tryAcquire());
+        assertEquals(2, sendWindow.getInFlight());
+        sendWindow.release();
+        assertEquals(1, sendWindow.getInFlight());
+    }
+
+    /**
+     * Method responsible for testing if the exception has been thrown as expected when the window is full.
+     *
+     * @throws MessageException Exception that is thrown in case that the method 'acquire' has failed
+     */
+    @Test
+    public void acquireShouldThrowAMessageExceptionWhenTheWindowIsFull() throws MessageException {
+        SendWindow sendWindow = new SendWindow(1, 10);
+        sendWindow.acquire();
+        expectedException.expect(MessageException.class);
+        expectedException.expectMessage("The asynchronous send window is full");
+        sendWindow.acquire();
+    }
+}
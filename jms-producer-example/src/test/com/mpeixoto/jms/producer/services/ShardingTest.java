@@ -0,0 +1,120 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.shard.ShardRing;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Class responsible for testing the MessageSender class with a sharded request queue, against a
+ * broker running in the same JVM.
+ *
+ * @author mpeixoto
+ */
+public class ShardingTest {
+    private static final String BROKER_URL = "vm://sharding?create=false";
+
+    private BrokerService broker;
+    private Connection connection;
+    private MessageSender sender;
+
+    /**
+     * Method responsible for starting the broker and a sender with four shards.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be started
+     */
+    @Before
+    public void setUp() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("sharding");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        broker.waitUntilStarted();
+        connection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+        connection.start();
+        sender = new MessageSender(new SenderSettings().setBrokerUrl(BROKER_URL).setShards(4));
+    }
+
+    /**
+     * Method responsible for stopping the sender and the broker.
+     *
+     * @throws Exception Exception that is thrown in case something could not be stopped
+     */
+    @After
+    public void tearDown() throws Exception {
+        sender.close();
+        connection.close();
+        broker.stop();
+    }
+
+    /**
+     * Method responsible for testing if every message goes to the queue of the shard of its key,
+     * grouped by its key.
+     *
+     * @throws Exception Exception that is thrown in case a message was not received
+     */
+    @Test
+    public void sendMessageToAQueueShouldSendToTheShardOfTheKey() throws Exception {
+        ShardRing ring = new ShardRing(4);
+        for (int i = 0; i < 20; i++) {
+            sender.sendMessageToAQueue("customer-" + i, "message " + i);
+        }
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        int received = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            MessageConsumer consumer =
+                    session.createConsumer(session.createQueue(ShardRing.queueName(shard)));
+            Message message;
+            while ((message = consumer.receive(500)) != null) {
+                assertEquals(shard, ring.shardOf(message.getStringProperty("JMSXGroupID")));
+                received++;
+            }
+        }
+        assertEquals(20, received);
+        MessageConsumer unsharded =
+                session.createConsumer(session.createQueue("request.message.queue"));
+        assertNull(unsharded.receive(100));
+    }
+
+    /**
+     * Method responsible for testing if a keyed request is answered by a consumer of the shards.
+     *
+     * @throws Exception Exception that is thrown in case the reply was not received in time
+     */
+    @Test
+    public void requestShouldBeAnsweredFromTheShards() throws Exception {
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer replies = session.createProducer(null);
+        session.createConsumer(session.createQueue("request.message.queue.0,request.message.queue.1,"
+                + "request.message.queue.2,request.message.queue.3")).setMessageListener(message -> {
+                    try {
+                        MapMessage reply = session.createMapMessage();
+                        reply.setString("Request", ((MapMessage) message).getString("Request"));
+                        reply.setString("Response", message.getStringProperty("JMSXGroupID"));
+                        reply.setJMSCorrelationID(message.getJMSCorrelationID());
+                        replies.send(message.getJMSReplyTo(), reply);
+                    } catch (JMSException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+        Reply reply = sender.request("customer-7", "keyed").get(5, TimeUnit.SECONDS);
+
+        assertEquals("customer-7", reply.getResponse());
+    }
+}
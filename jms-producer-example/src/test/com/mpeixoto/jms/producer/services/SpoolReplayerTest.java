@@ -0,0 +1,60 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import com.mpeixoto.jms.producer.spool.MessageSpool;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Class responsible for testing the SpoolReplayer class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class SpoolReplayerTest {
+    /**
+     * Rule responsible for creating the directory of the spool.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Method responsible for testing if the replayer survives an unexpected failure and sends the
+     * message once the failure is gone.
+     *
+     * @throws Exception Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void runShouldGoOnAfterARuntimeException() throws Exception {
+        ConnectionFactory broker = new ActiveMQConnectionFactory("vm://replayer?broker.persistent=false");
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection())
+                .thenThrow(new IllegalStateException("Negative test"))
+                .thenAnswer(invocation -> broker.createConnection());
+        try (MessageSpool spool = new MessageSpool(folder.getRoot().toPath(), 1024)) {
+            spool.append(MessageSpool.QUEUE, "spooled");
+            SpoolReplayer replayer = new SpoolReplayer(spool, connectionFactory,
+                    new RequestMessages(new SenderSettings()),
+                    DeliveryMode.NON_PERSISTENT, DeliveryMode.NON_PERSISTENT);
+            try {
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (spool.getPending() > 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(20);
+                }
+                assertEquals(0, spool.getPending());
+                verify(connectionFactory, atLeast(2)).createConnection();
+            } finally {
+                replayer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mpeixoto.jms.producer.services;
+
+import com.mpeixoto.jms.producer.config.SenderSettings;
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the MessageSender class with a spool, against a broker running on
+ * localhost that is restarted.
+ *
+ * @author mpeixoto
+ */
+public class SpoolTest {
+    /**
+     * Rule responsible for creating the directory of the spool.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BrokerService broker;
+
+    /**
+     * Method responsible for stopping the broker.
+     *
+     * @throws Exception Exception that is thrown in case the broker could not be stopped
+     */
+    @After
+    public void tearDown() throws Exception {
+        broker.stop();
+    }
+
+    /**
+     * Method responsible for testing if the sender builds its connection again once the spool was
+     * sent to the restarted broker, so the next messages are sent directly instead of spooled.
+     *
+     * @throws Exception Exception that is thrown in case the messages could not be sent
+     */
+    @Test
+    public void sendMessageToAQueueShouldReconnectOnceTheSpoolIsEmpty() throws Exception {
+        broker = startBroker("tcp://localhost:0");
+        String url = broker.getTransportConnectors().get(0).getConnectUri().toString();
+        MessageSender sender = new MessageSender(new SenderSettings()
+                .setBrokerUrl(url)
+                .setSpoolDirectory(folder.getRoot().getPath()));
+        try {
+            broker.stop();
+            broker.waitUntilStopped();
+            sender.sendMessageToAQueue("while the broker is down");
+            assertTrue(sender.isConnectionLost());
+
+            broker = startBroker(url);
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (sender.getSpooledMessages() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, sender.getSpooledMessages());
+
+            sender.sendMessageToAQueue("after the restart");
+            assertFalse(sender.isConnectionLost());
+            assertEquals(0, sender.getSpooledMessages());
+            assertEquals(2, receiveAll(url));
+        } finally {
+            sender.close();
+        }
+    }
+
+    private static int receiveAll(String url) throws Exception {
+        Connection connection = new ActiveMQConnectionFactory(url).createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer =
+                    session.createConsumer(session.createQueue("request.message.queue"));
+            assertNotNull(consumer.receive(5_000));
+            int received = 1;
+            while (consumer.receive(500) != null) {
+                received++;
+            }
+            return received;
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static BrokerService startBroker(String url) throws Exception {
+        BrokerService broker = new BrokerService();
+        broker.setBrokerName("spool");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.addConnector(url);
+        broker.start();
+        broker.waitUntilStarted();
+        return broker;
+    }
+}
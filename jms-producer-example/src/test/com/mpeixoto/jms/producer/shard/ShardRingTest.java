@@ -0,0 +1,67 @@
+package com.mpeixoto.jms.producer.shard;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the ShardRing class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class ShardRingTest {
+    private static final int KEYS = 100_000;
+
+    /**
+     * Method responsible for testing if a key always goes to the same shard.
+     */
+    @Test
+    public void shardOfShouldAlwaysGiveTheSameShard() {
+        ShardRing ring = new ShardRing(8);
+        assertEquals(ring.shardOf("customer-42"), new ShardRing(8).shardOf("customer-42"));
+        assertEquals(0, new ShardRing(1).shardOf("customer-42"));
+        assertEquals("request.message.queue.3", ShardRing.queueName(3));
+    }
+
+    /**
+     * Method responsible for testing if the keys are spread evenly over the shards.
+     */
+    @Test
+    public void shardOfShouldSpreadTheKeysEvenly() {
+        ShardRing ring = new ShardRing(4);
+        int[] counts = new int[4];
+        for (int i = 0; i < KEYS; i++) {
+            counts[ring.shardOf("customer-" + i)]++;
+        }
+        for (int count : counts) {
+            assertTrue("A shard got " + count + " keys", Math.abs(count - KEYS / 4) < KEYS / 4 / 5);
+        }
+    }
+
+    /**
+     * Method responsible for testing if adding a shard only moves the keys taken by the new shard.
+     */
+    @Test
+    public void shardOfShouldOnlyMoveTheKeysOfANewShard() {
+        ShardRing before = new ShardRing(4);
+        ShardRing after = new ShardRing(5);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            int shard = after.shardOf("customer-" + i);
+            if (shard != before.shardOf("customer-" + i)) {
+                assertEquals(4, shard);
+                moved++;
+            }
+        }
+        assertTrue("Moved " + moved + " keys", Math.abs(moved - KEYS / 5) < KEYS / 5 / 5);
+    }
+
+    /**
+     * Method responsible for testing if a ring without shards is refused.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorShouldRefuseZeroShards() {
+        new ShardRing(0);
+    }
+}
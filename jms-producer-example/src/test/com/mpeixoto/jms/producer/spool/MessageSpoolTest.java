@@ -0,0 +1,213 @@
+package com.mpeixoto.jms.producer.spool;
+
+import com.mpeixoto.jms.producer.governor.OverloadPolicy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class responsible for testing the MessageSpool class and its methods.
+ *
+ * @author mpeixoto
+ */
+public class MessageSpoolTest {
+    /**
+     * Rule responsible for testing if the expected exceptions has been thrown.
+     */
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Rule responsible for creating the directory of the spool.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Method responsible for testing if the messages are read in the order they were written.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void peekShouldReturnTheMessagesInOrder() throws IOException {
+        try (MessageSpool spool = new MessageSpool(folder.getRoot().toPath(), 1024)) {
+            spool.append(MessageSpool.QUEUE, "first");
+            spool.append(MessageSpool.TOPIC, "segund\u00e1");
+            assertEquals(2, spool.getPending());
+            SpooledMessage message = spool.peek();
+            assertEquals(MessageSpool.QUEUE, message.getDestination());
+            assertEquals("first", message.getMessage());
+            assertEquals("first", spool.peek().getMessage());
+            spool.commit();
+            message = spool.peek();
+            assertEquals(MessageSpool.TOPIC, message.getDestination());
+            assertEquals("segund\u00e1", message.getMessage());
+            spool.commit();
+            assertNull(spool.peek());
+            assertEquals(0, spool.getPending());
+        }
+    }
+
+    /**
+     * Method responsible for testing if the spool moves to new segments and deletes the ones sent.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void appendShouldRollOverToANewSegment() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MessageSpool spool = new MessageSpool(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(MessageSpool.QUEUE, "message " + i);
+            }
+            assertEquals(3, countSegments(directory));
+            for (int i = 0; i < 10; i++) {
+                assertEquals("message " + i, spool.peek().getMessage());
+                spool.commit();
+            }
+            assertNull(spool.peek());
+            assertEquals(1, countSegments(directory));
+        }
+    }
+
+    /**
+     * Method responsible for testing if the messages not committed are found after a restart.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void constructorShouldRecoverTheMessagesNotCommitted() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MessageSpool spool = new MessageSpool(directory, 64)) {
+            for (int i = 0; i < 5; i++) {
+                spool.append(MessageSpool.QUEUE, "message " + i);
+            }
+            spool.commit();
+            spool.commit();
+            spool.commit();
+        }
+        try (MessageSpool spool = new MessageSpool(directory, 64)) {
+            assertEquals(2, spool.getPending());
+            assertEquals("message 3", spool.peek().getMessage());
+            spool.commit();
+            spool.append(MessageSpool.TOPIC, "message 5");
+            assertEquals("message 4", spool.peek().getMessage());
+            spool.commit();
+            assertEquals("message 5", spool.peek().getMessage());
+        }
+    }
+
+    /**
+     * Method responsible for testing if a message bigger than a segment is refused.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void appendShouldRefuseAMessageBiggerThanASegment() throws IOException {
+        try (MessageSpool spool = new MessageSpool(folder.getRoot().toPath(), 64)) {
+            expectedException.expect(IOException.class);
+            spool.append(MessageSpool.QUEUE, new String(new char[64]));
+        }
+    }
+
+    /**
+     * Method responsible for testing if a full spool sheds the new messages with the SHED policy.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void appendShouldShedAMessageOnceTheSpoolIsFull() throws IOException {
+        try (MessageSpool spool =
+                new MessageSpool(folder.getRoot().toPath(), 64, 128, OverloadPolicy.SHED, 0)) {
+            for (int i = 0; i < 8; i++) {
+                assertTrue(spool.append(MessageSpool.QUEUE, "message " + i));
+            }
+            assertFalse(spool.append(MessageSpool.QUEUE, "message 8"));
+            assertEquals(8, spool.getPending());
+            for (int i = 0; i < 4; i++) {
+                spool.commit();
+            }
+            assertTrue(spool.append(MessageSpool.QUEUE, "message 8"));
+        }
+    }
+
+    /**
+     * Method responsible for testing if a full spool fails the new messages with the FAIL_FAST
+     * policy.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void appendShouldFailOnceTheSpoolIsFull() throws IOException {
+        try (MessageSpool spool =
+                new MessageSpool(folder.getRoot().toPath(), 64, 128, OverloadPolicy.FAIL_FAST, 0)) {
+            for (int i = 0; i < 8; i++) {
+                spool.append(MessageSpool.QUEUE, "message " + i);
+            }
+            expectedException.expect(IOException.class);
+            expectedException.expectMessage("is full");
+            spool.append(MessageSpool.QUEUE, "message 8");
+        }
+    }
+
+    /**
+     * Method responsible for testing if a full spool makes the sender wait for the oldest messages
+     * to be sent with the BLOCK policy.
+     *
+     * @throws Exception Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void appendShouldWaitForRoomOnceTheSpoolIsFull() throws Exception {
+        try (MessageSpool spool =
+                new MessageSpool(folder.getRoot().toPath(), 64, 128, OverloadPolicy.BLOCK, 5000)) {
+            for (int i = 0; i < 8; i++) {
+                spool.append(MessageSpool.QUEUE, "message " + i);
+            }
+            CompletableFuture<Boolean> appended = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return spool.append(MessageSpool.QUEUE, "message 8");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(appended.isDone());
+            for (int i = 0; i < 4; i++) {
+                spool.commit();
+            }
+            assertTrue(appended.get(5, TimeUnit.SECONDS));
+            assertEquals(5, spool.getPending());
+        }
+    }
+
+    /**
+     * Method responsible for testing if a maximum size below two segments is refused.
+     *
+     * @throws IOException Exception that is thrown in case the spool could not be used
+     */
+    @Test
+    public void constructorShouldRefuseAMaximumSizeBelowTwoSegments() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        new MessageSpool(folder.getRoot().toPath(), 64, 127, OverloadPolicy.BLOCK, 0);
+    }
+
+    private static long countSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith("segment-"))
+                .count();
+        }
+    }
+}